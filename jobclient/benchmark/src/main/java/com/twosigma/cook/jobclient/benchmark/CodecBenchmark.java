@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.twosigma.cook.jobclient.Group;
+import com.twosigma.cook.jobclient.Instance;
+import com.twosigma.cook.jobclient.Job;
+
+/**
+ * The throughput and latency of converting whole payloads of {@value #SMALL} to {@value #LARGE} jobs, instances or
+ * groups from and to JSON, where an operation is one payload.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar CodecBenchmark -prof gc} to include the allocation per payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    static final String SMALL = "10";
+
+    static final String LARGE = "1000";
+
+    /**
+     * The number of jobs, instances or groups in a payload.
+     */
+    @Param({SMALL, "100", LARGE})
+    public int size;
+
+    @Param({"MINIMAL", "DETAILED"})
+    public Payloads.Shape shape;
+
+    private List<Job> _jobs;
+
+    private String _jobsResponse;
+
+    private String _instancesResponse;
+
+    private String _groupsResponse;
+
+    @Setup
+    public void setup() {
+        _jobs = Payloads.jobs(size, shape);
+        _jobsResponse = Payloads.response(_jobs, shape);
+        _instancesResponse = Payloads.instances(size).toString();
+        _groupsResponse = Payloads.groups(size, shape == Payloads.Shape.DETAILED ? 100 : 1);
+    }
+
+    @Benchmark
+    public void jsonizeJobs(Blackhole blackhole) {
+        for (Job job : _jobs) {
+            blackhole.consume(Job.jsonizeJob(job));
+        }
+    }
+
+    @Benchmark
+    public JSONObject jsonizeSubmission() {
+        return Job.jsonizeJob(_jobs);
+    }
+
+    @Benchmark
+    public List<Job> parseJobs() {
+        return Job.parseFromJSON(_jobsResponse);
+    }
+
+    @Benchmark
+    public List<Instance> parseInstances() {
+        return Instance.parseFromJSON(_instancesResponse);
+    }
+
+    @Benchmark
+    public List<Group> parseGroups() {
+        return Group.parseFromJSON(_groupsResponse);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.twosigma.cook.jobclient.Job;
+
+/**
+ * The cost per job of parsing a query response of {@value #JOBS} jobs, compared to building the org.json tree of the
+ * same response which {@link Job#parseFromJSON(String)} used to do before reading the jobs from it.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar JobParseBenchmark -prof gc} to include the allocation per job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(JobParseBenchmark.JOBS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobParseBenchmark {
+
+    static final int JOBS = 1000;
+
+    @Param({"MINIMAL", "DETAILED"})
+    public Payloads.Shape shape;
+
+    private String _response;
+
+    @Setup
+    public void setup() {
+        _response = Payloads.response(Payloads.jobs(JOBS, shape), shape);
+    }
+
+    @Benchmark
+    public List<Job> parseJobs() {
+        return Job.parseFromJSON(_response);
+    }
+
+    @Benchmark
+    public JSONArray buildJsonTree() {
+        return new JSONArray(_response);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.twosigma.cook.jobclient.DefaultJobClientMetrics;
+import com.twosigma.cook.jobclient.Group;
+import com.twosigma.cook.jobclient.GroupListener;
+import com.twosigma.cook.jobclient.Job;
+import com.twosigma.cook.jobclient.JobClient;
+import com.twosigma.cook.jobclient.JobClientException;
+import com.twosigma.cook.jobclient.JobLifecycleTracker;
+import com.twosigma.cook.jobclient.JobListener;
+
+/**
+ * Drives a configurable workload through a {@link JobClient} and reports the achieved throughput, the latency of
+ * requests, errors and retries, and the CPU and allocation of the client. Run with
+ * {@code java -cp target/benchmarks.jar com.twosigma.cook.jobclient.benchmark.LoadGenerator [--name value]...}.
+ * <p>
+ * Options of the workload:
+ * <ul>
+ * <li>{@code --rate}: the target number of jobs submitted per second, default 100.</li>
+ * <li>{@code --duration}: the duration of the run in seconds, default 30.</li>
+ * <li>{@code --batch}: the number of jobs per submission, default 10.</li>
+ * <li>{@code --shape}: the {@link Payloads.Shape} of the jobs, default {@code MINIMAL}.</li>
+ * <li>{@code --group-ratio}: the fraction of submissions whose jobs form a group, default 0.</li>
+ * <li>{@code --listeners}: the number of listeners which submissions are spread over, or 0 to submit without
+ * listeners, default 1.</li>
+ * <li>{@code --query-ratio}: the number of queries of a recent submission per submission, default 1.</li>
+ * <li>{@code --abort-ratio}: the fraction of submissions which are aborted right away, default 0.</li>
+ * <li>{@code --threads}: the number of threads calling the client, default 4.</li>
+ * <li>{@code --status-interval}: the status update interval of the client in seconds, default 10.</li>
+ * <li>{@code --seed}: the seed of the random choices, default 0.</li>
+ * </ul>
+ * The scheduler is chosen by the options of {@link Target}, e.g. {@code --host} for a real scheduler.
+ */
+public final class LoadGenerator {
+
+    /**
+     * The number of recent submissions which queries choose from.
+     */
+    private static final int RECENT_SUBMISSIONS = 256;
+
+    private final JobClient _client;
+    private final RateLimiter _rateLimiter;
+    private final long _deadlineNanos;
+    private final int _batch;
+    private final Payloads.Shape _shape;
+    private final double _groupRatio;
+    private final double _queryRatio;
+    private final double _abortRatio;
+    private final JobListener[] _jobListeners;
+    private final GroupListener[] _groupListeners;
+    private final AtomicReferenceArray<List<UUID>> _recent = new AtomicReferenceArray<>(RECENT_SUBMISSIONS);
+    private final AtomicLong _submissions = new AtomicLong();
+    private final AtomicLong _submittedJobs = new AtomicLong();
+    private final AtomicLong _queries = new AtomicLong();
+    private final AtomicLong _aborts = new AtomicLong();
+    private final AtomicLong _errors = new AtomicLong();
+    private final AtomicLong _notifications = new AtomicLong();
+
+    private LoadGenerator(JobClient client, Options options, long durationNanos) {
+        _client = client;
+        _rateLimiter = RateLimiter.create(options.getDouble("rate", 100.0));
+        _deadlineNanos = System.nanoTime() + durationNanos;
+        _batch = options.getInt("batch", 10);
+        _shape = Payloads.Shape.valueOf(options.getString("shape", Payloads.Shape.MINIMAL.name()));
+        _groupRatio = options.getDouble("group-ratio", 0.0);
+        _queryRatio = options.getDouble("query-ratio", 1.0);
+        _abortRatio = options.getDouble("abort-ratio", 0.0);
+        final int listeners = options.getInt("listeners", 1);
+        _jobListeners = new JobListener[listeners];
+        _groupListeners = new GroupListener[listeners];
+        for (int i = 0; i < listeners; ++i) {
+            _jobListeners[i] = new JobListener() {
+                @Override
+                public void onStatusUpdate(Job job) {
+                    _notifications.incrementAndGet();
+                }
+            };
+            _groupListeners[i] = new GroupListener() {
+                @Override
+                public void onStatusUpdate(Group group) {
+                    _notifications.incrementAndGet();
+                }
+            };
+        }
+    }
+
+    /**
+     * Run the workload on the calling thread until the deadline.
+     */
+    private void run(Random random) {
+        long count = 0;
+        double queries = 0.0;
+        while (System.nanoTime() < _deadlineNanos) {
+            _rateLimiter.acquire(_batch);
+            final List<UUID> uuids = submit(random, count++);
+            if (uuids == null) {
+                continue;
+            }
+            _recent.set(random.nextInt(RECENT_SUBMISSIONS), uuids);
+            for (queries += _queryRatio; queries >= 1.0; queries -= 1.0) {
+                final List<UUID> queried = _recent.get(random.nextInt(RECENT_SUBMISSIONS));
+                query(queried == null ? uuids : queried);
+            }
+            if (random.nextDouble() < _abortRatio) {
+                try {
+                    _client.abort(uuids);
+                    _aborts.incrementAndGet();
+                } catch (JobClientException e) {
+                    _errors.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the UUIDs of the submitted jobs, or {@code null} if the submission failed.
+     */
+    private List<UUID> submit(Random random, long count) {
+        List<Job> jobs = Payloads.jobs(_batch, _shape);
+        final int listener = (int) (count % Math.max(1, _jobListeners.length));
+        try {
+            if (random.nextDouble() < _groupRatio) {
+                final Group group = new Group.Builder().setUUID(UUID.randomUUID()).setName("load").build();
+                final List<Job> grouped = new ArrayList<>(jobs.size());
+                for (Job job : jobs) {
+                    grouped.add(new Job.Builder().of(job).setGroup(group).build());
+                }
+                jobs = grouped;
+                if (_groupListeners.length > 0) {
+                    _client.submitWithGroups(jobs, Collections.singletonList(group), _groupListeners[listener]);
+                } else {
+                    _client.submitWithGroups(jobs, Collections.singletonList(group));
+                }
+            } else if (_jobListeners.length > 0) {
+                _client.submit(jobs, _jobListeners[listener]);
+            } else {
+                _client.submit(jobs);
+            }
+        } catch (JobClientException e) {
+            _errors.incrementAndGet();
+            return null;
+        }
+        _submissions.incrementAndGet();
+        _submittedJobs.addAndGet(jobs.size());
+        final List<UUID> uuids = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            uuids.add(job.getUUID());
+        }
+        return uuids;
+    }
+
+    private void query(List<UUID> uuids) {
+        try {
+            _client.queryJobs(uuids);
+            _queries.incrementAndGet();
+        } catch (JobClientException e) {
+            _errors.incrementAndGet();
+        }
+    }
+
+    public static void main(String[] args)
+        throws Exception {
+        final Options options = new Options(args);
+        final double seconds = options.getDouble("duration", 30.0);
+        final int threads = options.getInt("threads", 4);
+        final long seed = options.getLong("seed", 0L);
+        final int statusInterval = options.getInt("status-interval", 10);
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        final JobLifecycleTracker tracker = new JobLifecycleTracker();
+        final ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (Target target = new Target(options);
+             JobClient client = target.getClientBuilder()
+                     .setStatusUpdateInterval(statusInterval)
+                     .setRequestParallelism(threads)
+                     .setMetrics(metrics)
+                     .setLifecycleTracker(tracker)
+                     .build()) {
+            final LoadGenerator generator =
+                    new LoadGenerator(client, options, (long) (seconds * TimeUnit.SECONDS.toNanos(1)));
+            options.checkAllUsed();
+            final PrintStream out = System.out;
+            out.println("Driving load through the job client against the " + target + " for " + seconds + "s");
+
+            final ResourceUsage before = ResourceUsage.measure();
+            final long start = System.nanoTime();
+            final List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                final Random random = new Random(seed + i);
+                futures.add(workers.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        generator.run(random);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            final double elapsed = (System.nanoTime() - start) / 1e9;
+            // Measure while the threads of the workers and the client are still alive.
+            final ResourceUsage usage = ResourceUsage.measure().since(before);
+
+            out.printf("submitted:    %d jobs in %d submissions, %.1f jobs/s of %.1f jobs/s targeted%n",
+                    generator._submittedJobs.get(), generator._submissions.get(),
+                    generator._submittedJobs.get() / elapsed, generator._rateLimiter.getRate());
+            out.printf("calls:        %d queries, %d aborts, %d errors, %d notifications%n",
+                    generator._queries.get(), generator._aborts.get(), generator._errors.get(),
+                    generator._notifications.get());
+            Report.printClient(out, metrics, usage, elapsed);
+            Report.printMillis(out, "queue time", tracker.getQueueTimes());
+            Report.printMillis(out, "poll lag", tracker.getPollLags());
+            Report.printMillis(out, "time to running", tracker.getTimesToRunning());
+            if (target.isFake()) {
+                out.println("CPU and allocation exclude the threads of the fake scheduler.");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
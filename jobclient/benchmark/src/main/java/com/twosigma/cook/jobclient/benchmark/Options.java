@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The command line options of a tool, given as {@code --name value} pairs. Every option has a default, so a tool runs
+ * without any options.
+ */
+final class Options {
+
+    private final Map<String, String> _values = new HashMap<>();
+
+    private final Set<String> _used = new HashSet<>();
+
+    /**
+     * @throws IllegalArgumentException if an argument is not a {@code --name value} pair.
+     */
+    Options(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value but got " + args[i]);
+            }
+            _values.put(args[i].substring(2), args[i + 1]);
+        }
+    }
+
+    boolean has(String name) {
+        _used.add(name);
+        return _values.containsKey(name);
+    }
+
+    String getString(String name, String defaultValue) {
+        _used.add(name);
+        final String value = _values.get(name);
+        return value == null ? defaultValue : value;
+    }
+
+    int getInt(String name, int defaultValue) {
+        final String value = getString(name, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long getLong(String name, long defaultValue) {
+        final String value = getString(name, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    double getDouble(String name, double defaultValue) {
+        final String value = getString(name, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if an option was given which the tool did not ask for, e.g. a misspelled one.
+     */
+    void checkAllUsed() {
+        final Set<String> unknown = new HashSet<>(_values.keySet());
+        unknown.removeAll(_used);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + unknown);
+        }
+    }
+}
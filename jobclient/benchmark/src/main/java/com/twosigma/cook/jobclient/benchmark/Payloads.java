@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.twosigma.cook.jobclient.FetchableURI;
+import com.twosigma.cook.jobclient.Group;
+import com.twosigma.cook.jobclient.HostPlacement;
+import com.twosigma.cook.jobclient.Job;
+import com.twosigma.cook.jobclient.constraint.Constraints;
+
+/**
+ * Realistic request and response payloads of the Cook scheduler.
+ */
+public final class Payloads {
+
+    /**
+     * The shape of the jobs in a payload.
+     */
+    public enum Shape {
+        /**
+         * A job with only the members the scheduler always returns and no instances.
+         */
+        MINIMAL,
+        /**
+         * A job with env, labels, URIs, a constraint, a container and three instances.
+         */
+        DETAILED
+    }
+
+    private Payloads() {
+    }
+
+    /**
+     * @return {@code count} jobs of the given shape as they are submitted.
+     */
+    public static List<Job> jobs(int count, Shape shape) {
+        final List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            final Job.Builder builder = new Job.Builder()
+                    .setUUID(UUID.randomUUID())
+                    .setName("benchmark-job-" + i)
+                    .setCommand("python -m workload --shard " + i + " --total " + count)
+                    .setMemory(2048.0)
+                    .setCpus(1.5)
+                    .setPriority(50)
+                    .setMaxRuntime(86400000L);
+            if (shape == Shape.DETAILED) {
+                for (int j = 0; j < 8; ++j) {
+                    builder.addEnv("BENCHMARK_VARIABLE_" + j, "value-" + j + "-" + i);
+                }
+                builder.addLabel("team", "research").addLabel("workflow", "nightly-" + (i % 16));
+                builder.addUri(new FetchableURI.Builder().setValue("http://example.com/artifacts/workload.tar.gz")
+                        .setExtract(true).setCache(true).build());
+                builder.addConstraint(Constraints.buildEqualsConstraint("HOSTNAME", "host" + (i % 64)));
+                builder.setContainer(new JSONObject().put("type", "docker")
+                        .put("docker", new JSONObject().put("image", "example/workload:1.2.3")
+                                .put("force-pull-image", false)));
+                builder.setPool("default");
+            }
+            jobs.add(builder.build());
+        }
+        return jobs;
+    }
+
+    /**
+     * @return the response of a query of the given jobs, i.e. the JSON array the scheduler returns.
+     */
+    public static String response(List<Job> jobs, Shape shape) {
+        final JSONArray array = new JSONArray();
+        for (Job job : jobs) {
+            array.put(queried(job, shape));
+        }
+        return array.toString();
+    }
+
+    /**
+     * @return the given job as the scheduler returns it from a query, i.e. running with instances of the given shape.
+     */
+    public static JSONObject queried(Job job, Shape shape) {
+        final JSONObject json = Job.jsonizeJob(job);
+        json.put("status", "running");
+        json.put("user", "benchmark");
+        json.put("framework_id", JSONObject.NULL);
+        json.put("submit_time", 1500000000000L);
+        json.put("instances", shape == Shape.DETAILED ? instances(3) : new JSONArray());
+        return json;
+    }
+
+    /**
+     * @return {@code count} instances of a job as the scheduler returns them, all but the last one failed.
+     */
+    public static JSONArray instances(int count) {
+        final JSONArray instances = new JSONArray();
+        for (int i = 0; i < count; ++i) {
+            instances.put(new JSONObject()
+                    .put("task_id", UUID.randomUUID().toString())
+                    .put("slave_id", "20150311-033720-1963923116-5050-4084-" + i % 64)
+                    .put("executor_id", UUID.randomUUID().toString())
+                    .put("hostname", "host" + i % 64 + ".example.com")
+                    .put("status", i < count - 1 ? "failed" : "running")
+                    .put("preempted", false)
+                    .put("start_time", 1500000000000L + i)
+                    .put("end_time", 1500000100000L + i)
+                    .put("output_url", "http://host" + i % 64 + ".example.com:5051/files/read.json")
+                    .put("reason_code", 1003));
+        }
+        return instances;
+    }
+
+    /**
+     * @return the response of a query of {@code count} groups of {@code jobsPerGroup} jobs each.
+     */
+    public static String groups(int count, int jobsPerGroup) {
+        final JSONArray array = new JSONArray();
+        for (int i = 0; i < count; ++i) {
+            final Group group = new Group.Builder()
+                    .setUUID(UUID.randomUUID())
+                    .setName("benchmark-group-" + i)
+                    .setHostPlacement(new HostPlacement.Builder().setType(HostPlacement.Type.UNIQUE).build())
+                    .build();
+            final JSONArray jobs = new JSONArray();
+            for (int j = 0; j < jobsPerGroup; ++j) {
+                jobs.put(UUID.randomUUID().toString());
+            }
+            array.put(Group.jsonizeGroup(group).put("jobs", jobs));
+        }
+        return array.toString();
+    }
+}
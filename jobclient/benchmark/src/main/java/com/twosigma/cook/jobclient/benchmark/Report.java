@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import com.twosigma.cook.jobclient.DefaultJobClientMetrics;
+import com.twosigma.cook.jobclient.Histogram;
+import com.twosigma.cook.jobclient.JobClientMetrics.Operation;
+import com.twosigma.cook.jobclient.JobClientMetrics.Outcome;
+
+/**
+ * Prints the results of a tool driving load through a job client.
+ */
+final class Report {
+
+    private Report() {
+    }
+
+    /**
+     * Print the requests of every operation, the polling of the listener service and the resource usage of the client.
+     *
+     * @param seconds specifies the duration of the run.
+     */
+    static void printClient(PrintStream out, DefaultJobClientMetrics metrics, ResourceUsage usage, double seconds) {
+        out.printf("%-13s %8s %8s %8s %8s %9s %9s %9s %9s %8s %10s %10s%n", "operation", "ok", "rejected",
+                "failed", "retries", "p50 ms", "p90 ms", "p99 ms", "max ms", "batch", "sent KB", "recv KB");
+        for (Operation operation : Operation.values()) {
+            final Histogram latencies = metrics.getRequestLatencies(operation, Outcome.SUCCESS);
+            out.printf("%-13s %8d %8d %8d %8d %9s %9s %9s %9s %8.1f %10d %10d%n",
+                    operation,
+                    latencies.getCount(),
+                    metrics.getRequestLatencies(operation, Outcome.REJECTED).getCount(),
+                    metrics.getRequestLatencies(operation, Outcome.FAILED).getCount(),
+                    metrics.getRetries(operation).getSum(),
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getMax()),
+                    metrics.getBatchSizes(operation).getMean(),
+                    metrics.getBytesSent(operation) / 1024,
+                    metrics.getBytesReceived(operation) / 1024);
+        }
+        final Histogram parseTimes = metrics.getParseTimes(Operation.QUERY_JOBS);
+        out.printf("parsing:      %d responses of %d jobs, p50 %s ms, p99 %s ms%n", parseTimes.getCount(),
+                metrics.getParsedElements(Operation.QUERY_JOBS), millis(parseTimes.getValueAtPercentile(50)),
+                millis(parseTimes.getValueAtPercentile(99)));
+        final Histogram pollCycles = metrics.getPollCycleTimes();
+        out.printf("polling:      %d cycles, p50 %s ms, max %s ms, %d jobs and %d groups tracked at the end%n",
+                pollCycles.getCount(), millis(pollCycles.getValueAtPercentile(50)), millis(pollCycles.getMax()),
+                metrics.getTrackedJobs(), metrics.getTrackedGroups());
+        final Histogram listenerLags = metrics.getListenerLags();
+        out.printf("listeners:    %d invocations, lag p50 %s ms, p99 %s ms%n", listenerLags.getCount(),
+                millis(listenerLags.getValueAtPercentile(50)), millis(listenerLags.getValueAtPercentile(99)));
+        out.printf("client CPU:   %.0f ms, %.1f%% of a core%n", usage.getCpuNanos() / 1e6,
+                100.0 * usage.getCpuNanos() / 1e9 / seconds);
+        out.printf("client alloc: %.1f MB, %.1f MB/s%n", usage.getAllocatedBytes() / 1048576.0,
+                usage.getAllocatedBytes() / 1048576.0 / seconds);
+    }
+
+    /**
+     * Print a histogram of durations in milliseconds.
+     */
+    static void printMillis(PrintStream out, String name, Histogram histogram) {
+        out.printf("%-24s count %8d, p50 %8d ms, p90 %8d ms, p99 %8d ms, max %8d ms%n", name + ":",
+                histogram.getCount(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getMax());
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
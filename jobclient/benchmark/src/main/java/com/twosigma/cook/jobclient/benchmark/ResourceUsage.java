@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+
+import com.sun.management.ThreadMXBean;
+import com.twosigma.cook.jobclient.FakeCookScheduler;
+
+/**
+ * The CPU time and allocation of the live threads of this process, except the threads of an in-process
+ * {@link FakeCookScheduler} and of the JDK HTTP server it runs on.
+ * <p>
+ * Threads which end between two measurements are not accounted for, so tools should measure while their threads are
+ * still alive.
+ */
+final class ResourceUsage {
+
+    private final long _cpuNanos;
+
+    private final long _allocatedBytes;
+
+    private ResourceUsage(long cpuNanos, long allocatedBytes) {
+        _cpuNanos = cpuNanos;
+        _allocatedBytes = allocatedBytes;
+    }
+
+    static ResourceUsage measure() {
+        final ThreadMXBean bean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long[] ids = bean.getAllThreadIds();
+        final ThreadInfo[] infos = bean.getThreadInfo(ids);
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < ids.length; ++i) {
+            if (infos[i] == null || isSchedulerThread(infos[i].getThreadName())) {
+                continue;
+            }
+            cpuNanos += Math.max(0, bean.getThreadCpuTime(ids[i]));
+            allocatedBytes += Math.max(0, bean.getThreadAllocatedBytes(ids[i]));
+        }
+        return new ResourceUsage(cpuNanos, allocatedBytes);
+    }
+
+    private static boolean isSchedulerThread(String name) {
+        return name.startsWith(FakeCookScheduler.THREAD_NAME_PREFIX) || name.equals("HTTP-Dispatcher");
+    }
+
+    /**
+     * @return the usage between an earlier measurement and this one.
+     */
+    ResourceUsage since(ResourceUsage earlier) {
+        return new ResourceUsage(_cpuNanos - earlier._cpuNanos, _allocatedBytes - earlier._allocatedBytes);
+    }
+
+    long getCpuNanos() {
+        return _cpuNanos;
+    }
+
+    long getAllocatedBytes() {
+        return _allocatedBytes;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.twosigma.cook.jobclient.FakeCookScheduler;
+import com.twosigma.cook.jobclient.Job;
+import com.twosigma.cook.jobclient.JobClient;
+import com.twosigma.cook.jobclient.JobClientException;
+
+/**
+ * The throughput and latency of querying and submitting {@code size} jobs through a {@link JobClient} talking HTTP to
+ * a {@link FakeCookScheduler} on the loopback interface, i.e. including request encoding, batching, the HTTP client and
+ * response parsing, where an operation is one call of the client.
+ * <p>
+ * Submissions resubmit the same jobs, which the scheduler accepts as retries, so that the set of jobs the client tracks
+ * stays the same size. Run with
+ * {@code java -jar target/benchmarks.jar RoundTripBenchmark -prof gc} to include the allocation per call, which
+ * includes the allocation of the stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    @Param({"MINIMAL", "DETAILED"})
+    public Payloads.Shape shape;
+
+    private FakeCookScheduler _scheduler;
+
+    private JobClient _client;
+
+    private List<Job> _jobs;
+
+    private List<UUID> _uuids;
+
+    @Setup
+    public void setup()
+        throws IOException, URISyntaxException {
+        _jobs = Payloads.jobs(size, shape);
+        _uuids = new ArrayList<>(size);
+        for (Job job : _jobs) {
+            _uuids.add(job.getUUID());
+        }
+        // Jobs keep running so that the size of their responses does not change during the run.
+        _scheduler = new FakeCookScheduler.Builder().setRunningMillis(Long.MAX_VALUE).build();
+        _scheduler.addJobs(_jobs);
+        _client = _scheduler.newClientBuilder().setStatusUpdateInterval(3600).build();
+    }
+
+    @TearDown
+    public void teardown() {
+        _client.close();
+        _scheduler.close();
+    }
+
+    @Benchmark
+    public Map<UUID, Job> queryJobs()
+        throws JobClientException {
+        return _client.queryJobs(_uuids);
+    }
+
+    @Benchmark
+    public List<Job> submit()
+        throws JobClientException {
+        _client.submit(_jobs);
+        return _jobs;
+    }
+}
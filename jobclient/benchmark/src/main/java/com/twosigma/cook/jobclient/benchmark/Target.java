@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.twosigma.cook.jobclient.FakeCookScheduler;
+import com.twosigma.cook.jobclient.JobClient;
+
+/**
+ * The scheduler which a tool drives load through: a real Cook scheduler if {@code --host} is given, and an in-process
+ * {@link FakeCookScheduler} otherwise.
+ * <p>
+ * Options for a real scheduler: {@code --host}, {@code --port} (default 12321), {@code --job-endpoint} (default
+ * {@code /rawscheduler}), {@code --group-endpoint} (default {@code /group}), and {@code --user} with
+ * {@code --password} for basic authentication.
+ * <p>
+ * Options for the fake: {@code --fake-latency-ms} (mean of an exponential latency, default 0),
+ * {@code --fake-error-rate} (default 0), {@code --fake-waiting-ms} and {@code --fake-running-ms} (default 1000 each),
+ * and {@code --fake-threads} (default 8).
+ */
+final class Target implements Closeable {
+
+    private final FakeCookScheduler _fake;
+
+    private final JobClient.Builder _clientBuilder;
+
+    Target(Options options)
+        throws IOException {
+        if (options.has("host")) {
+            _fake = null;
+            _clientBuilder = new JobClient.Builder()
+                    .setHost(options.getString("host", null))
+                    .setPort(options.getInt("port", 12321))
+                    .setJobEndpoint(options.getString("job-endpoint", FakeCookScheduler.RAW_SCHEDULER_ENDPOINT))
+                    .setGroupEndpoint(options.getString("group-endpoint", FakeCookScheduler.GROUP_ENDPOINT));
+            if (options.has("user")) {
+                _clientBuilder.setUsernameAuth(options.getString("user", null), options.getString("password", ""));
+            }
+        } else {
+            final FakeCookScheduler.Builder builder = new FakeCookScheduler.Builder()
+                    .setErrorRate(options.getDouble("fake-error-rate", 0.0))
+                    .setWaitingMillis(options.getLong("fake-waiting-ms", 1000))
+                    .setRunningMillis(options.getLong("fake-running-ms", 1000))
+                    .setThreads(options.getInt("fake-threads", 8));
+            final double latency = options.getDouble("fake-latency-ms", 0.0);
+            if (latency > 0.0) {
+                builder.setLatency(FakeCookScheduler.exponentialLatency(latency));
+            }
+            _fake = builder.build();
+            _clientBuilder = _fake.newClientBuilder();
+        }
+    }
+
+    /**
+     * @return a builder of a job client talking to the scheduler, to be completed by the tool.
+     */
+    JobClient.Builder getClientBuilder() {
+        return _clientBuilder;
+    }
+
+    /**
+     * @return whether the scheduler runs in this process, so that its threads must be told apart from the client's.
+     */
+    boolean isFake() {
+        return _fake != null;
+    }
+
+    @Override
+    public String toString() {
+        return _fake != null ? "fake scheduler on port " + _fake.getPort()
+                : "scheduler at " + _clientBuilder.getHost() + ":" + _clientBuilder.getPort();
+    }
+
+    @Override
+    public void close() {
+        if (_fake != null) {
+            _fake.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.twosigma.cook.jobclient.JobClient;
+
+/**
+ * The cost of {@link JobClient#makeTemporalUUID()}, which every job and group built without a UUID calls, compared to
+ * the {@link UUID#randomUUID()} it derives from, on one thread and on {@value #THREADS} threads sharing the underlying
+ * secure random generator.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar TemporalUUIDBenchmark -prof gc} to include the allocation per UUID.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporalUUIDBenchmark {
+
+    static final int THREADS = 4;
+
+    @Benchmark
+    public UUID makeTemporalUUID() {
+        return JobClient.makeTemporalUUID();
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public UUID makeTemporalUUIDContended() {
+        return JobClient.makeTemporalUUID();
+    }
+
+    @Benchmark
+    public UUID randomUUID() {
+        return UUID.randomUUID();
+    }
+}
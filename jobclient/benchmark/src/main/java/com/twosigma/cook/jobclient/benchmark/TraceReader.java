@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.twosigma.cook.jobclient.FakeCookScheduler;
+import com.twosigma.cook.jobclient.Group;
+import com.twosigma.cook.jobclient.Job;
+
+/**
+ * Reads a trace of the simulator of the scheduler, e.g. {@code scheduler/simulator_files/example-trace.json}, one
+ * job at a time, so that traces of any length can be replayed in bounded memory.
+ * <p>
+ * A trace is a JSON array of jobs in the order of their {@code submit-time-ms}, each with the attributes of the job
+ * under keys such as {@code job/uuid}, {@code job/command} and {@code job/resource}, and the time it runs for under
+ * {@code run-time-ms}. The running time is passed on in the label {@link FakeCookScheduler#RUNTIME_LABEL}, as the
+ * simulator does, so that a fake scheduler runs every job for as long as the trace says. The users of the jobs are
+ * dropped since the client submits as the user it authenticates as.
+ */
+final class TraceReader implements Closeable {
+
+    /**
+     * A job of the trace and the time it is submitted at.
+     */
+    static final class Entry {
+
+        private final long _submitMillis;
+
+        private final Job _job;
+
+        private Entry(long submitMillis, Job job) {
+            _submitMillis = submitMillis;
+            _job = job;
+        }
+
+        /**
+         * @return the time of the submission in milliseconds relative to the start of the trace, scaled by the speedup.
+         */
+        long getSubmitMillis() {
+            return _submitMillis;
+        }
+
+        Job getJob() {
+            return _job;
+        }
+    }
+
+    private final Reader _reader;
+
+    private final JSONTokener _tokener;
+
+    private final double _speedup;
+
+    private boolean _started;
+
+    private boolean _finished;
+
+    /**
+     * The submission time of the first job, which the times of all jobs are relative to.
+     */
+    private long _originMillis;
+
+    private boolean _hasOrigin;
+
+    /**
+     * @param speedup specifies by how much times of the trace are divided, e.g. 60 to replay an hour in a minute.
+     */
+    TraceReader(Reader reader, double speedup) {
+        if (!(speedup > 0.0)) {
+            throw new IllegalArgumentException("speedup must be > 0 but is " + speedup);
+        }
+        _reader = reader;
+        _tokener = new JSONTokener(reader);
+        _speedup = speedup;
+    }
+
+    /**
+     * @return the next job of the trace, or {@code null} at the end of the trace.
+     * @throws JSONException if the trace is malformed.
+     */
+    Entry next() {
+        if (_finished) {
+            return null;
+        }
+        if (!_started) {
+            if (_tokener.nextClean() != '[') {
+                throw _tokener.syntaxError("A trace must be a JSON array");
+            }
+            _started = true;
+            if (_tokener.nextClean() == ']') {
+                _finished = true;
+                return null;
+            }
+            _tokener.back();
+        } else {
+            final char separator = _tokener.nextClean();
+            if (separator == ']') {
+                _finished = true;
+                return null;
+            }
+            if (separator != ',') {
+                throw _tokener.syntaxError("Expected ',' or ']' between jobs");
+            }
+        }
+        final Object value = _tokener.nextValue();
+        if (!(value instanceof JSONObject)) {
+            throw _tokener.syntaxError("A job of a trace must be a JSON object");
+        }
+        final JSONObject json = (JSONObject) value;
+        final long submitMillis = json.getLong("submit-time-ms");
+        if (!_hasOrigin) {
+            _originMillis = submitMillis;
+            _hasOrigin = true;
+        }
+        return new Entry(Math.round((submitMillis - _originMillis) / _speedup), toJob(json));
+    }
+
+    private Job toJob(JSONObject json) {
+        final Job.Builder builder = new Job.Builder()
+                .setUUID(UUID.fromString(json.getString("job/uuid")))
+                .setCommand(json.getString("job/command"))
+                .addLabel(FakeCookScheduler.RUNTIME_LABEL,
+                        Long.toString(Math.round(json.getLong("run-time-ms") / _speedup)));
+        if (json.has("job/name")) {
+            builder.setName(json.getString("job/name"));
+        }
+        if (json.has("job/priority")) {
+            builder.setPriority(json.getInt("job/priority"));
+        }
+        if (json.has("job/max-retries")) {
+            builder.setRetries(json.getInt("job/max-retries"));
+        }
+        if (json.has("job/max-runtime")) {
+            builder.setMaxRuntime(json.getLong("job/max-runtime"));
+        }
+        if (json.has("job/expected-runtime")) {
+            builder.setExpectedRuntime(json.getLong("job/expected-runtime"));
+        }
+        if (json.optBoolean("job/disable-mea-culpa-retries", false)) {
+            builder.disableMeaCulpaRetries();
+        }
+        if (json.has("job/group")) {
+            // The scheduler creates groups which jobs refer to but which are not submitted.
+            builder.setGroup(new Group.Builder().setUUID(UUID.fromString(json.getString("job/group"))).build());
+        }
+        final JSONArray resources = json.getJSONArray("job/resource");
+        for (int i = 0; i < resources.length(); ++i) {
+            final JSONObject resource = resources.getJSONObject(i);
+            final String type = resource.getString("resource/type");
+            if ("resource.type/cpus".equals(type)) {
+                builder.setCpus(resource.getDouble("resource/amount"));
+            } else if ("resource.type/mem".equals(type)) {
+                builder.setMemory(resource.getDouble("resource/amount"));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close()
+        throws IOException {
+        _reader.close();
+    }
+}
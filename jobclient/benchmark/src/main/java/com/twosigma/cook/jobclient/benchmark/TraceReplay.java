@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient.benchmark;
+
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Charsets;
+import com.twosigma.cook.jobclient.DefaultJobClientMetrics;
+import com.twosigma.cook.jobclient.Histogram;
+import com.twosigma.cook.jobclient.Job;
+import com.twosigma.cook.jobclient.JobClient;
+import com.twosigma.cook.jobclient.JobClientException;
+import com.twosigma.cook.jobclient.JobLifecycleTracker;
+import com.twosigma.cook.jobclient.JobListener;
+
+/**
+ * Replays a trace of the simulator of the scheduler through a {@link JobClient}, submitting every job at its time in
+ * the trace, and reports the submit throughput, the overhead of tracking the jobs and the latency of notifications.
+ * Run with
+ * {@code java -cp target/benchmarks.jar com.twosigma.cook.jobclient.benchmark.TraceReplay [--name value]...}.
+ * <p>
+ * The trace is read as it is replayed, see {@link TraceReader}, and jobs due at the same time are submitted together.
+ * Submissions run on a bounded pool of threads, and the replay falls behind the trace rather than queueing up jobs
+ * when the client can not keep up, which shows as the lag of the schedule.
+ * <p>
+ * Options of the replay:
+ * <ul>
+ * <li>{@code --trace}: the path of the trace, default {@code ../../scheduler/simulator_files/example-trace.json}.</li>
+ * <li>{@code --speedup}: by how much the trace is accelerated, default 1, i.e. real time.</li>
+ * <li>{@code --batch}: the maximum number of jobs per submission, default 100.</li>
+ * <li>{@code --threads}: the number of threads submitting jobs, default 4.</li>
+ * <li>{@code --status-interval}: the status update interval of the client in seconds, default 10.</li>
+ * <li>{@code --drain-timeout}: how many seconds to wait for the jobs to complete after the last submission, default
+ * 60.</li>
+ * </ul>
+ * The scheduler is chosen by the options of {@link Target}. Against the fake, jobs run for their running time in the
+ * trace divided by the speedup, and wait for {@code --fake-waiting-ms}.
+ */
+public final class TraceReplay {
+
+    private final JobClient _client;
+    private final JobListener _listener;
+    private final Histogram _scheduleLags = new Histogram();
+    private final AtomicLong _submissions = new AtomicLong();
+    private final AtomicLong _submittedJobs = new AtomicLong();
+    private final AtomicLong _errors = new AtomicLong();
+    private final AtomicLong _notifications = new AtomicLong();
+    private final AtomicLong _completed = new AtomicLong();
+
+    private TraceReplay(JobClient client) {
+        _client = client;
+        _listener = new JobListener() {
+            @Override
+            public void onStatusUpdate(Job job) {
+                _notifications.incrementAndGet();
+                if (job.getStatus() == Job.Status.COMPLETED) {
+                    _completed.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    /**
+     * Submit the jobs of the trace on the given executor as they fall due.
+     *
+     * @return the time of the last job in the trace in milliseconds, scaled by the speedup.
+     */
+    private long replay(TraceReader reader, int batch, ThreadPoolExecutor executor)
+        throws InterruptedException {
+        final long startNanos = System.nanoTime();
+        List<Job> jobs = new ArrayList<>(batch);
+        long dueMillis = 0;
+        for (TraceReader.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+            if (!jobs.isEmpty() && (entry.getSubmitMillis() != dueMillis || jobs.size() == batch)) {
+                submit(jobs, startNanos + TimeUnit.MILLISECONDS.toNanos(dueMillis), executor);
+                jobs = new ArrayList<>(batch);
+            }
+            dueMillis = entry.getSubmitMillis();
+            jobs.add(entry.getJob());
+        }
+        if (!jobs.isEmpty()) {
+            submit(jobs, startNanos + TimeUnit.MILLISECONDS.toNanos(dueMillis), executor);
+        }
+        return dueMillis;
+    }
+
+    private void submit(final List<Job> jobs, final long dueNanos, ThreadPoolExecutor executor)
+        throws InterruptedException {
+        final long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                _scheduleLags.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dueNanos));
+                try {
+                    _client.submit(jobs, _listener);
+                    _submissions.incrementAndGet();
+                    _submittedJobs.addAndGet(jobs.size());
+                } catch (JobClientException e) {
+                    _errors.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait until the submitted jobs have completed or the timeout has passed.
+     */
+    private void drain(long timeoutNanos)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        while (_completed.get() < _submittedJobs.get() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    public static void main(String[] args)
+        throws Exception {
+        final Options options = new Options(args);
+        final String trace = options.getString("trace", "../../scheduler/simulator_files/example-trace.json");
+        final double speedup = options.getDouble("speedup", 1.0);
+        final int batch = options.getInt("batch", 100);
+        final int threads = options.getInt("threads", 4);
+        final int statusInterval = options.getInt("status-interval", 10);
+        final double drainTimeout = options.getDouble("drain-timeout", 60.0);
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        final JobLifecycleTracker tracker = new JobLifecycleTracker();
+        // Submitting on the calling thread when all threads are busy bounds the jobs in memory and makes the replay
+        // fall behind the trace instead.
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (Target target = new Target(options);
+             TraceReader reader = new TraceReader(
+                     new InputStreamReader(new FileInputStream(trace), Charsets.UTF_8), speedup);
+             JobClient client = target.getClientBuilder()
+                     .setStatusUpdateInterval(statusInterval)
+                     .setRequestParallelism(threads)
+                     .setMetrics(metrics)
+                     .setLifecycleTracker(tracker)
+                     .build()) {
+            options.checkAllUsed();
+            final TraceReplay replay = new TraceReplay(client);
+            final PrintStream out = System.out;
+            out.println("Replaying " + trace + " at " + speedup + "x through the job client against the " + target);
+
+            final ResourceUsage before = ResourceUsage.measure();
+            final long start = System.nanoTime();
+            final long traceMillis = replay.replay(reader, batch, executor);
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            final double submitSeconds = (System.nanoTime() - start) / 1e9;
+            replay.drain((long) (drainTimeout * TimeUnit.SECONDS.toNanos(1)));
+            final double elapsed = (System.nanoTime() - start) / 1e9;
+            // Measure while the threads of the client are still alive.
+            final ResourceUsage usage = ResourceUsage.measure().since(before);
+
+            out.printf("submitted:    %d jobs in %d submissions with %d errors over %.1fs of %.1fs of trace, "
+                            + "%.1f jobs/s%n", replay._submittedJobs.get(), replay._submissions.get(),
+                    replay._errors.get(), submitSeconds, traceMillis / 1e3, replay._submittedJobs.get() / submitSeconds);
+            out.printf("completed:    %d jobs after %.1fs, %d notifications%n", replay._completed.get(), elapsed,
+                    replay._notifications.get());
+            Report.printMillis(out, "schedule lag", replay._scheduleLags);
+            Report.printClient(out, metrics, usage, elapsed);
+            Report.printMillis(out, "submit latency", tracker.getSubmitLatencies());
+            Report.printMillis(out, "poll lag", tracker.getPollLags());
+            Report.printMillis(out, "notification lag", tracker.getNotificationLags());
+            Report.printMillis(out, "time to completed", tracker.getTimesToCompleted());
+            if (target.isFake()) {
+                out.println("CPU and allocation exclude the threads of the fake scheduler.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
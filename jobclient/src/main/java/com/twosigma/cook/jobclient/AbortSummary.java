@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An immutable summary of a bulk abort, e.g. {@link JobClient#abortGroup(UUID)}.
+ * <p>
+ * Jobs are aborted in partitions which are sent in parallel. A failed partition does not stop the others, so a
+ * summary may report both aborted and failed jobs.
+ */
+final public class AbortSummary {
+
+    final private Set<UUID> _aborted;
+    final private Map<UUID, JobClientException> _failed;
+    final private long _elapsedMillis;
+
+    AbortSummary(Set<UUID> aborted, Map<UUID, JobClientException> failed, long elapsedMillis) {
+        _aborted = ImmutableSet.copyOf(aborted);
+        _failed = ImmutableMap.copyOf(failed);
+        _elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the number of jobs which were requested to abort.
+     */
+    public int getRequested() {
+        return _aborted.size() + _failed.size();
+    }
+
+    /**
+     * @return the UUIDs of the jobs which the scheduler accepted to abort.
+     */
+    public Set<UUID> getAborted() {
+        return _aborted;
+    }
+
+    /**
+     * @return a map from the UUID of each job which failed to abort to the cause of the failure.
+     */
+    public Map<UUID, JobClientException> getFailed() {
+        return _failed;
+    }
+
+    /**
+     * @return whether all requested jobs were aborted.
+     */
+    public boolean isComplete() {
+        return _failed.isEmpty();
+    }
+
+    /**
+     * @return the wall clock time in milliseconds the abort took.
+     */
+    public long getElapsedMillis() {
+        return _elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AbortSummary [_requested=" + getRequested() + ", _aborted=" + _aborted.size() + ", _failed="
+                + _failed.size() + ", _elapsedMillis=" + _elapsedMillis + "]";
+    }
+}
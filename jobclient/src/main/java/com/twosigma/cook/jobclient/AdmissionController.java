@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Limits the number of jobs submitted through a {@link JobClient} which are waiting to be scheduled.
+ * <p>
+ * A submission acquires one permit per job before it is sent to the scheduler and blocks while the number of
+ * outstanding waiting jobs would exceed the configured maximum. Permits are released when a submission fails or when
+ * the status update poller observes that a job left the WAITING state, i.e. it started running or completed. A
+ * single submission larger than the maximum is admitted once there are no outstanding waiting jobs at all.
+ * <p>
+ * Submissions in the high priority lane are admitted ahead of normal ones, i.e. no normal submission is admitted
+ * while a high priority submission is held back.
+ */
+final class AdmissionController {
+
+    private final int _maxOutstanding;
+
+    private final long _timeoutMillis;
+
+    /**
+     * The number of jobs which have been admitted but have not been observed to start yet.
+     */
+    private int _outstanding;
+
+    /**
+     * The number of submissions blocked in {@link #acquire(int, boolean)}. It is only modified while holding the
+     * lock, but volatile so that {@link #getBlocked()} can read it without taking the lock.
+     */
+    private volatile int _blocked;
+
+    /**
+     * The number of high priority submissions blocked in {@link #acquire(int, boolean)}.
+     */
+    private int _blockedHighPriority;
+
+    /**
+     * @param maxOutstanding specifies the maximum number of outstanding waiting jobs.
+     * @param timeoutSeconds specifies how long a submission may be held back before it fails.
+     */
+    AdmissionController(int maxOutstanding, int timeoutSeconds) {
+        Preconditions.checkArgument(maxOutstanding > 0, "maxOutstanding must be > 0");
+        Preconditions.checkArgument(timeoutSeconds > 0, "timeoutSeconds must be > 0");
+        _maxOutstanding = maxOutstanding;
+        _timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    /**
+     * Block until {@code permits} more jobs may be submitted.
+     *
+     * @param permits specifies the number of jobs to submit.
+     * @throws JobClientException if the jobs were not admitted within the timeout or the thread was interrupted.
+     */
+    void acquire(int permits)
+        throws JobClientException {
+        acquire(permits, false);
+    }
+
+    /**
+     * Block until {@code permits} more jobs may be submitted, giving precedence to high priority submissions.
+     *
+     * @param permits specifies the number of jobs to submit.
+     * @param highPriority specifies whether the submission is in the high priority lane.
+     * @throws JobClientException if the jobs were not admitted within the timeout or the thread was interrupted.
+     */
+    synchronized void acquire(int permits, boolean highPriority)
+        throws JobClientException {
+        final long deadline = System.currentTimeMillis() + _timeoutMillis;
+        _blocked++;
+        if (highPriority) {
+            _blockedHighPriority++;
+        }
+        try {
+            while ((_outstanding > 0 && _outstanding + permits > _maxOutstanding)
+                    || (!highPriority && _blockedHighPriority > 0)) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new JobClientException("Timed out after " + _timeoutMillis + " ms waiting to submit "
+                            + permits + " jobs while " + _outstanding + " submitted jobs are still waiting");
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobClientException("Interrupted while waiting to submit " + permits + " jobs", e);
+        } finally {
+            _blocked--;
+            if (highPriority) {
+                _blockedHighPriority--;
+                // Normal submissions may have been held back only by this one.
+                notifyAll();
+            }
+        }
+        _outstanding += permits;
+    }
+
+    /**
+     * Release permits of jobs which started running, completed or failed to submit.
+     *
+     * @param permits specifies the number of jobs.
+     */
+    synchronized void release(int permits) {
+        _outstanding = Math.max(0, _outstanding - permits);
+        notifyAll();
+    }
+
+    /**
+     * @return the number of jobs which have been admitted but have not been observed to start yet.
+     */
+    synchronized int getOutstanding() {
+        return _outstanding;
+    }
+
+    /**
+     * @return the number of submissions currently held back, read without taking the lock.
+     */
+    int getBlocked() {
+        return _blocked;
+    }
+}
@@ -32,6 +32,34 @@ public class Application {
         return object;
     }
 
+    static JsonWriter writeApplication(JsonWriter writer, Application application) {
+        return writer.beginObject()
+                .name("name").value(application._name)
+                .name("version").value(application._version)
+                .endObject();
+    }
+
+    static Application readApplication(ValueReader reader) throws JSONException {
+        String name = null;
+        String version = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String member = reader.nextName();
+            if ("name".equals(member)) {
+                name = reader.nextString();
+            } else if ("version".equals(member)) {
+                version = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (name == null || version == null) {
+            throw new JSONException("JSONObject[\"" + (name == null ? "name" : "version") + "\"] not found.");
+        }
+        return new Application(name, version);
+    }
+
     static Application parseFromJSON(JSONObject object) throws JSONException {
         String name = object.getString("name");
         String version = object.getString("version");
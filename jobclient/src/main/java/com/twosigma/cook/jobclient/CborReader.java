@@ -0,0 +1,643 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.json.JSONException;
+
+import com.google.common.base.Charsets;
+
+/**
+ * A {@link ValueReader} for CBOR (RFC 7049), the binary encoding of the JSON data model which the client negotiates
+ * with the Cook scheduler when binary encoding is enabled, see {@link JobClient.Builder#setBinaryEncoding(boolean)}.
+ * <p>
+ * Numbers are read without formatting and parsing digits, strings without scanning for escapes, and UUIDs may be
+ * sent as 16 bytes tagged with 37. Definite and indefinite length arrays and maps are supported; indefinite length
+ * strings are not. Other tags are ignored.
+ */
+final class CborReader extends ValueReader {
+
+    static final String MIME_TYPE = "application/cbor";
+
+    /**
+     * The tag of a binary UUID, see the IANA registry of CBOR tags.
+     */
+    static final int TAG_UUID = 37;
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int UNDEFINED = 0xf7;
+    private static final int BREAK = 0xff;
+
+    /**
+     * The remaining items of an enclosing array or map, counting names and values of maps separately.
+     */
+    private static final long INDEFINITE = -1L;
+
+    private final byte[] _data;
+
+    private final int _length;
+
+    private int _pos;
+
+    /**
+     * The additional information and the argument of the item head which has just been read.
+     */
+    private int _info;
+
+    private long _argument;
+
+    /**
+     * The remaining items and kind of each enclosing array or map where index 0 is the document itself, and for
+     * maps whether the next item is a name.
+     */
+    private long[] _remaining = new long[16];
+
+    private boolean[] _maps = new boolean[16];
+
+    private boolean[] _names = new boolean[16];
+
+    private int _depth;
+
+    CborReader(byte[] data) {
+        _data = data;
+        _length = data.length;
+        _remaining[0] = 1;
+    }
+
+    /**
+     * @return a description of the document, e.g. to report a malformed document.
+     */
+    @Override
+    public String toString() {
+        return "CBOR document of " + _length + " bytes";
+    }
+
+    @Override
+    void beginArray()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        if (readHead() != MAJOR_ARRAY) {
+            throw syntaxError("Expected an array");
+        }
+        push(false);
+    }
+
+    @Override
+    void endArray()
+        throws JSONException {
+        end(false);
+    }
+
+    @Override
+    void beginObject()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        if (readHead() != MAJOR_MAP) {
+            throw syntaxError("Expected a map");
+        }
+        push(true);
+    }
+
+    @Override
+    void endObject()
+        throws JSONException {
+        end(true);
+    }
+
+    @Override
+    void endDocument()
+        throws JSONException {
+        if (_depth != 0 || _remaining[0] != 0) {
+            throw syntaxError("Unexpected end of input");
+        }
+        if (_pos < _length) {
+            throw syntaxError("Unexpected trailing bytes");
+        }
+    }
+
+    @Override
+    boolean hasNext()
+        throws JSONException {
+        final long remaining = _remaining[_depth];
+        if (remaining == INDEFINITE) {
+            if (_pos >= _length) {
+                throw syntaxError("Unexpected end of input");
+            }
+            return (_data[_pos] & 0xff) != BREAK;
+        }
+        return remaining > 0;
+    }
+
+    @Override
+    String nextName()
+        throws JSONException {
+        beforeItem(true);
+        final String name = NAMES.intern(readText());
+        afterItem();
+        return name;
+    }
+
+    @Override
+    boolean nextNull()
+        throws JSONException {
+        beforeItem(false);
+        final int initial = _data[_pos] & 0xff;
+        if (initial == NULL || initial == UNDEFINED) {
+            _pos++;
+            afterItem();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    String nextString()
+        throws JSONException {
+        beforeItem(false);
+        final String result = readString();
+        afterItem();
+        return result;
+    }
+
+    @Override
+    String nextInternedString()
+        throws JSONException {
+        beforeItem(false);
+        final String result = VALUES.intern(readString());
+        afterItem();
+        return result;
+    }
+
+    @Override
+    UUID nextUUID()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        final UUID result;
+        if (peekMajor() == MAJOR_BYTES) {
+            result = readUuid();
+        } else {
+            result = UUIDs.parse(readText());
+        }
+        afterItem();
+        return result;
+    }
+
+    @Override
+    boolean nextBoolean()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        final int initial = _data[_pos] & 0xff;
+        final boolean result;
+        if (initial == TRUE || initial == FALSE) {
+            _pos++;
+            result = initial == TRUE;
+        } else if (peekMajor() == MAJOR_TEXT) {
+            // Like org.json, accept booleans in strings.
+            final String value = readText();
+            if ("true".equalsIgnoreCase(value)) {
+                result = true;
+            } else if ("false".equalsIgnoreCase(value)) {
+                result = false;
+            } else {
+                throw syntaxError("Expected a boolean");
+            }
+        } else {
+            throw syntaxError("Expected a boolean");
+        }
+        afterItem();
+        return result;
+    }
+
+    @Override
+    long nextLong()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        final long result;
+        final int major = peekMajor();
+        if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) {
+            readHead();
+            if (_argument < 0) {
+                // The value exceeds a long; saturate like a conversion from a double.
+                result = major == MAJOR_UNSIGNED ? Long.MAX_VALUE : Long.MIN_VALUE;
+            } else {
+                result = major == MAJOR_UNSIGNED ? _argument : -1 - _argument;
+            }
+        } else {
+            result = (long) readNumber();
+        }
+        afterItem();
+        return result;
+    }
+
+    @Override
+    double nextDouble()
+        throws JSONException {
+        beforeItem(false);
+        skipTags();
+        final double result = readNumber();
+        afterItem();
+        return result;
+    }
+
+    @Override
+    void skipValue()
+        throws JSONException {
+        beforeItem(false);
+        skipItem();
+        afterItem();
+    }
+
+    /**
+     * Read the next value and transcode it to JSON text. Binary UUIDs are written as strings.
+     */
+    @Override
+    String nextRaw()
+        throws JSONException {
+        beforeItem(false);
+        final JsonWriter writer = new JsonWriter(64);
+        transcode(writer);
+        afterItem();
+        return writer.toString();
+    }
+
+    private void beforeItem(boolean name)
+        throws JSONException {
+        if (_maps[_depth] && _names[_depth] != name) {
+            throw syntaxError(name ? "Expected a value" : "Expected a name");
+        }
+        if (!hasNext()) {
+            throw syntaxError(name ? "Expected a name" : "Expected a value");
+        }
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+    }
+
+    private void afterItem() {
+        if (_remaining[_depth] > 0) {
+            _remaining[_depth]--;
+        }
+        if (_maps[_depth]) {
+            _names[_depth] = !_names[_depth];
+        }
+    }
+
+    /**
+     * Enter the array or map whose head has just been read.
+     */
+    private void push(boolean map)
+        throws JSONException {
+        if (++_depth == _remaining.length) {
+            _remaining = Arrays.copyOf(_remaining, _depth * 2);
+            _maps = Arrays.copyOf(_maps, _depth * 2);
+            _names = Arrays.copyOf(_names, _depth * 2);
+        }
+        if (_info == 31) {
+            _remaining[_depth] = INDEFINITE;
+        } else if (_argument < 0 || _argument > Integer.MAX_VALUE) {
+            throw syntaxError("Too many items");
+        } else {
+            _remaining[_depth] = map ? _argument * 2 : _argument;
+        }
+        _maps[_depth] = map;
+        _names[_depth] = map;
+    }
+
+    private void end(boolean map)
+        throws JSONException {
+        if (_depth == 0 || _maps[_depth] != map) {
+            throw syntaxError(map ? "Unexpected end of map" : "Unexpected end of array");
+        }
+        if (_remaining[_depth] == INDEFINITE) {
+            if (_pos >= _length || (_data[_pos] & 0xff) != BREAK) {
+                throw syntaxError(map ? "Expected the end of a map" : "Expected the end of an array");
+            }
+            _pos++;
+        } else if (_remaining[_depth] != 0) {
+            throw syntaxError(map ? "Expected the end of a map" : "Expected the end of an array");
+        }
+        _depth--;
+        afterItem();
+    }
+
+    /**
+     * @return whether the next byte is the break which ends an indefinite length array or map.
+     */
+    private boolean atBreak()
+        throws JSONException {
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return (_data[_pos] & 0xff) == BREAK;
+    }
+
+    private int peekMajor()
+        throws JSONException {
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return (_data[_pos] & 0xff) >>> 5;
+    }
+
+    /**
+     * Read the head of the next item, i.e. its major type, additional information and argument.
+     *
+     * @return the major type.
+     */
+    private int readHead()
+        throws JSONException {
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+        final int initial = _data[_pos++] & 0xff;
+        final int info = initial & 0x1f;
+        if (info < 24) {
+            _argument = info;
+        } else if (info <= 27) {
+            final int bytes = 1 << (info - 24);
+            if (_length - _pos < bytes) {
+                throw syntaxError("Unexpected end of input");
+            }
+            long argument = 0;
+            for (int i = 0; i < bytes; ++i) {
+                argument = (argument << 8) | (_data[_pos++] & 0xff);
+            }
+            _argument = argument;
+        } else if (info == 31) {
+            _argument = 0;
+        } else {
+            throw syntaxError("Malformed item");
+        }
+        _info = info;
+        return initial >>> 5;
+    }
+
+    /**
+     * Skip the tags of the next item.
+     *
+     * @return the innermost tag, or -1 if the item is not tagged.
+     */
+    private long skipTags()
+        throws JSONException {
+        long tag = -1;
+        while (peekMajor() == MAJOR_TAG) {
+            readHead();
+            tag = _argument;
+        }
+        return tag;
+    }
+
+    /**
+     * @return the length of the string whose head has just been read.
+     */
+    private int stringLength()
+        throws JSONException {
+        if (_info == 31) {
+            throw syntaxError("Indefinite length strings are not supported");
+        }
+        if (_argument < 0 || _argument > _length - _pos) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return (int) _argument;
+    }
+
+    private String readText()
+        throws JSONException {
+        skipTags();
+        if (readHead() != MAJOR_TEXT) {
+            throw syntaxError("Expected a string");
+        }
+        final int length = stringLength();
+        final String result = new String(_data, _pos, length, Charsets.UTF_8);
+        _pos += length;
+        return result;
+    }
+
+    /**
+     * Read a string, formatting binary UUIDs in canonical form.
+     */
+    private String readString()
+        throws JSONException {
+        skipTags();
+        if (peekMajor() == MAJOR_BYTES) {
+            return UUIDs.toString(readUuid());
+        }
+        return readText();
+    }
+
+    private UUID readUuid()
+        throws JSONException {
+        if (readHead() != MAJOR_BYTES || stringLength() != 16) {
+            throw syntaxError("Expected a UUID");
+        }
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        for (int i = 0; i < 8; ++i) {
+            mostSignificantBits = (mostSignificantBits << 8) | (_data[_pos + i] & 0xff);
+            leastSignificantBits = (leastSignificantBits << 8) | (_data[_pos + 8 + i] & 0xff);
+        }
+        _pos += 16;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Read an integer, a floating point number or, like org.json, a number in a string.
+     */
+    private double readNumber()
+        throws JSONException {
+        final int major = peekMajor();
+        if (major == MAJOR_TEXT) {
+            final String value = readText();
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw syntaxError("Expected a number but found \"" + value + "\"");
+            }
+        }
+        readHead();
+        switch (major) {
+            case MAJOR_UNSIGNED:
+                return unsignedToDouble(_argument);
+            case MAJOR_NEGATIVE:
+                return -1.0 - unsignedToDouble(_argument);
+            case MAJOR_SIMPLE:
+                if (_info == 25) {
+                    return halfToDouble((int) _argument);
+                } else if (_info == 26) {
+                    return Float.intBitsToFloat((int) _argument);
+                } else if (_info == 27) {
+                    return Double.longBitsToDouble(_argument);
+                }
+                // fall through
+            default:
+                throw syntaxError("Expected a number");
+        }
+    }
+
+    private static double unsignedToDouble(long value) {
+        return value >= 0 ? value : (value >>> 1) * 2.0 + (value & 1);
+    }
+
+    private static double halfToDouble(int half) {
+        final int exponent = (half >>> 10) & 0x1f;
+        final int mantissa = half & 0x3ff;
+        final double magnitude;
+        if (exponent == 0) {
+            magnitude = Math.scalb((double) mantissa, -24);
+        } else if (exponent == 31) {
+            magnitude = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            magnitude = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        }
+        return (half & 0x8000) == 0 ? magnitude : -magnitude;
+    }
+
+    /**
+     * Skip the next item including all items nested in it.
+     */
+    private void skipItem()
+        throws JSONException {
+        final int major = readHead();
+        switch (major) {
+            case MAJOR_UNSIGNED:
+            case MAJOR_NEGATIVE:
+                break;
+            case MAJOR_BYTES:
+            case MAJOR_TEXT:
+                _pos += stringLength();
+                break;
+            case MAJOR_ARRAY:
+            case MAJOR_MAP:
+                if (_info == 31) {
+                    while (!atBreak()) {
+                        skipItem();
+                    }
+                    _pos++;
+                } else {
+                    final long items = major == MAJOR_MAP ? _argument * 2 : _argument;
+                    if (items < 0) {
+                        throw syntaxError("Too many items");
+                    }
+                    for (long i = 0; i < items; ++i) {
+                        skipItem();
+                    }
+                }
+                break;
+            case MAJOR_TAG:
+                skipItem();
+                break;
+            default:
+                if (_info == 31) {
+                    throw syntaxError("Unexpected break");
+                }
+        }
+    }
+
+    /**
+     * Write the next item including all items nested in it as JSON.
+     */
+    private void transcode(JsonWriter writer)
+        throws JSONException {
+        final long tag = skipTags();
+        final int initial = _data[_pos] & 0xff;
+        switch (initial >>> 5) {
+            case MAJOR_UNSIGNED:
+            case MAJOR_NEGATIVE:
+                readHead();
+                if (_argument >= 0) {
+                    writer.value(initial >>> 5 == MAJOR_UNSIGNED ? _argument : -1 - _argument);
+                } else {
+                    final double magnitude = unsignedToDouble(_argument);
+                    writer.value(initial >>> 5 == MAJOR_UNSIGNED ? magnitude : -1.0 - magnitude);
+                }
+                break;
+            case MAJOR_BYTES:
+                if (tag != TAG_UUID) {
+                    throw syntaxError("Byte strings can not be represented in JSON");
+                }
+                writer.value(readUuid());
+                break;
+            case MAJOR_TEXT:
+                writer.value(readText());
+                break;
+            case MAJOR_ARRAY:
+                readHead();
+                writer.beginArray();
+                if (_info == 31) {
+                    while (!atBreak()) {
+                        transcode(writer);
+                    }
+                    _pos++;
+                } else {
+                    for (long i = _argument; i > 0; --i) {
+                        transcode(writer);
+                    }
+                }
+                writer.endArray();
+                break;
+            case MAJOR_MAP:
+                readHead();
+                writer.beginObject();
+                if (_info == 31) {
+                    while (!atBreak()) {
+                        writer.name(readText());
+                        transcode(writer);
+                    }
+                    _pos++;
+                } else {
+                    for (long i = _argument; i > 0; --i) {
+                        writer.name(readText());
+                        transcode(writer);
+                    }
+                }
+                writer.endObject();
+                break;
+            default:
+                if (initial == TRUE || initial == FALSE) {
+                    _pos++;
+                    writer.value(initial == TRUE);
+                } else if (initial == NULL || initial == UNDEFINED) {
+                    _pos++;
+                    writer.value((String) null);
+                } else {
+                    writer.value(readNumber());
+                }
+        }
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at byte " + _pos);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.net.URI;
+import java.util.UUID;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * Events about the work of the job client for Java Flight Recorder, i.e. requests to the scheduler, parsing their
+ * responses, sleeping before retrying a request, polling the status of tracked jobs and groups, and invoking
+ * listeners.
+ * <p>
+ * Each event is started by a {@code begin} method, which returns an opaque handle, and ended by passing the handle to
+ * the matching {@code end} method along with the attributes of the event. This version of the class, which is used
+ * on JDKs without Flight Recorder, ignores all events. The job client jar is a multi-release jar which also holds a
+ * version for JDK 11 and later, see {@code src/main/java11}, where the events are emitted as
+ * {@code com.twosigma.cook.jobclient.*} Flight Recorder events.
+ */
+final class ClientEvents {
+
+    private ClientEvents() {
+    }
+
+    static Object beginRequest() {
+        return null;
+    }
+
+    /**
+     * @param batchSize specifies the number of jobs, groups or UUIDs of the request.
+     * @param statusCode specifies the status code of the response, or 0 if the request failed without a response.
+     */
+    static void endRequest(Object event, HttpRequestBase request, int batchSize, int statusCode) {
+    }
+
+    static Object beginParse() {
+        return null;
+    }
+
+    /**
+     * @param endpoint specifies the endpoint which sent the response.
+     * @param elements specifies the number of jobs or groups parsed.
+     */
+    static void endParse(Object event, URI endpoint, int elements) {
+    }
+
+    static Object beginRetrySleep() {
+        return null;
+    }
+
+    /**
+     * @param attempt specifies the number of failed attempts of the request so far.
+     */
+    static void endRetrySleep(Object event, HttpRequestBase request, int attempt) {
+    }
+
+    static Object beginPollCycle() {
+        return null;
+    }
+
+    static void endPollCycle(Object event, int trackedJobs, int trackedGroups) {
+    }
+
+    static Object beginListener() {
+        return null;
+    }
+
+    /**
+     * @param uuid specifies the job or group which the listener is invoked for.
+     * @param status specifies the status which the listener is invoked for.
+     */
+    static void endListener(Object event, UUID uuid, Enum<?> status) {
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JobClientMetrics} which record every event in lock-free counters and {@link Histogram}s, to be read by the
+ * application, e.g. to export them to its monitoring system.
+ * <p>
+ * All histograms and counters are created up front, so recording an event never allocates.
+ */
+public final class DefaultJobClientMetrics implements JobClientMetrics {
+
+    private final Map<Operation, Map<Outcome, Histogram>> _requestLatencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> _batchSizes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> _retries = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> _bytesSent = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> _bytesReceived = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> _parseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> _parsedElements = new EnumMap<>(Operation.class);
+    private final Histogram _pollCycleTimes = new Histogram();
+    private final AtomicLong _trackedJobs = new AtomicLong();
+    private final AtomicLong _trackedGroups = new AtomicLong();
+    private final Histogram _listenerLags = new Histogram();
+
+    public DefaultJobClientMetrics() {
+        for (Operation operation : Operation.values()) {
+            final Map<Outcome, Histogram> latencies = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                latencies.put(outcome, new Histogram());
+            }
+            _requestLatencies.put(operation, latencies);
+            _batchSizes.put(operation, new Histogram());
+            _retries.put(operation, new Histogram());
+            _bytesSent.put(operation, new AtomicLong());
+            _bytesReceived.put(operation, new AtomicLong());
+            _parseTimes.put(operation, new Histogram());
+            _parsedElements.put(operation, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void onRequest(Operation operation, Outcome outcome, long latencyNanos) {
+        _requestLatencies.get(operation).get(outcome).record(latencyNanos);
+    }
+
+    @Override
+    public void onBatch(Operation operation, int size) {
+        _batchSizes.get(operation).record(size);
+    }
+
+    @Override
+    public void onRetries(Operation operation, int retries) {
+        _retries.get(operation).record(retries);
+    }
+
+    @Override
+    public void onBytesSent(Operation operation, long bytes) {
+        _bytesSent.get(operation).addAndGet(bytes);
+    }
+
+    @Override
+    public void onBytesReceived(Operation operation, long bytes) {
+        _bytesReceived.get(operation).addAndGet(bytes);
+    }
+
+    @Override
+    public void onParse(Operation operation, int elements, long nanos) {
+        _parseTimes.get(operation).record(nanos);
+        _parsedElements.get(operation).addAndGet(elements);
+    }
+
+    @Override
+    public void onPollCycle(long nanos, int trackedJobs, int trackedGroups) {
+        _pollCycleTimes.record(nanos);
+        _trackedJobs.set(trackedJobs);
+        _trackedGroups.set(trackedGroups);
+    }
+
+    @Override
+    public void onListenerDispatch(long lagNanos) {
+        _listenerLags.record(lagNanos);
+    }
+
+    /**
+     * @return the latencies in nanoseconds of the requests of an operation with the given outcome. Its count is the
+     *         number of such requests.
+     */
+    public Histogram getRequestLatencies(Operation operation, Outcome outcome) {
+        return _requestLatencies.get(operation).get(outcome);
+    }
+
+    /**
+     * @return the number of jobs, groups or UUIDs per request of an operation.
+     */
+    public Histogram getBatchSizes(Operation operation) {
+        return _batchSizes.get(operation);
+    }
+
+    /**
+     * @return the number of retries of the requests of an operation which were retried.
+     */
+    public Histogram getRetries(Operation operation) {
+        return _retries.get(operation);
+    }
+
+    public long getBytesSent(Operation operation) {
+        return _bytesSent.get(operation).get();
+    }
+
+    public long getBytesReceived(Operation operation) {
+        return _bytesReceived.get(operation).get();
+    }
+
+    /**
+     * @return the time in nanoseconds of parsing each response of an operation.
+     */
+    public Histogram getParseTimes(Operation operation) {
+        return _parseTimes.get(operation);
+    }
+
+    /**
+     * @return the total number of jobs or groups parsed from the responses of an operation.
+     */
+    public long getParsedElements(Operation operation) {
+        return _parsedElements.get(operation).get();
+    }
+
+    /**
+     * @return the duration in nanoseconds of the cycles of the listener service.
+     */
+    public Histogram getPollCycleTimes() {
+        return _pollCycleTimes;
+    }
+
+    /**
+     * @return the number of jobs tracked after the last poll cycle.
+     */
+    public long getTrackedJobs() {
+        return _trackedJobs.get();
+    }
+
+    /**
+     * @return the number of groups tracked after the last poll cycle.
+     */
+    public long getTrackedGroups() {
+        return _trackedGroups.get();
+    }
+
+    /**
+     * @return the time in nanoseconds from receiving a status update to invoking its listener.
+     */
+    public Histogram getListenerLags() {
+        return _listenerLags;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("DefaultJobClientMetrics [");
+        for (Operation operation : Operation.values()) {
+            builder.append(operation).append("={requests=").append(_requestLatencies.get(operation))
+                    .append(", batchSizes=").append(_batchSizes.get(operation))
+                    .append(", retries=").append(_retries.get(operation))
+                    .append(", bytesSent=").append(getBytesSent(operation))
+                    .append(", bytesReceived=").append(getBytesReceived(operation))
+                    .append(", parseTimes=").append(_parseTimes.get(operation))
+                    .append(", parsedElements=").append(getParsedElements(operation)).append("}, ");
+        }
+        return builder.append("pollCycleTimes=").append(_pollCycleTimes)
+                .append(", trackedJobs=").append(getTrackedJobs())
+                .append(", trackedGroups=").append(getTrackedGroups())
+                .append(", listenerLags=").append(_listenerLags).append(']').toString();
+    }
+}
@@ -15,9 +15,13 @@
  */
 
 package com.twosigma.cook.jobclient;
+import java.util.List;
+
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONString;
 
 /**
  * An immutable fetchable Mesos URI.
@@ -28,7 +32,7 @@ import org.json.JSONObject;
  *
  * @author dgrnbrg
  */
-final public class FetchableURI {
+final public class FetchableURI implements JSONString {
 
     /**
      * URI builder
@@ -118,6 +122,11 @@ final public class FetchableURI {
     private final boolean _cache;
     private final boolean _extract;
     private final boolean _executable;
+    /**
+     * The JSON representation of this URI, computed at most once on demand. URIs are commonly shared by many jobs
+     * built from the same template, so their encoding is shared as well.
+     */
+    private volatile String _json;
 
     private FetchableURI(String value, boolean cache, boolean extract, boolean executable) {
         _value = value;
@@ -171,6 +180,24 @@ final public class FetchableURI {
         return object;
     }
 
+    /**
+     * @return the memoized JSON representation of this URI with the members of {@link #jsonizeUri(FetchableURI)}.
+     */
+    @Override
+    public String toJSONString() {
+        String json = _json;
+        if (json == null) {
+            json = new JsonWriter(64).beginObject()
+                    .name("value").value(_value)
+                    .name("executable").value(_executable)
+                    .name("extract").value(_extract)
+                    .name("cache").value(_cache)
+                    .endObject().toString();
+            _json = json;
+        }
+        return json;
+    }
+
     /**
      * Parse a JSON object into a URI
      *
@@ -188,6 +215,42 @@ final public class FetchableURI {
         return builder.build();
     }
 
+    /**
+     * Read the next URI of a response of the scheduler, like {@link #parseFromJSON(JSONObject)}.
+     */
+    static FetchableURI readUri(ValueReader reader)
+        throws JSONException {
+        Builder builder = new Builder();
+        int found = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "value":
+                    builder.setValue(reader.nextString());
+                    break;
+                case "extract":
+                    builder.setExtract(reader.nextBoolean());
+                    break;
+                case "executable":
+                    builder.setExecutable(reader.nextBoolean());
+                    break;
+                case "cache":
+                    builder.setCache(reader.nextBoolean());
+                    break;
+                default:
+                    reader.skipValue();
+                    continue;
+            }
+            found = ValueReader.markMember(found, name, REQUIRED_MEMBERS);
+        }
+        reader.endObject();
+        ValueReader.checkMembers(found, REQUIRED_MEMBERS);
+        return builder.build();
+    }
+
+    private static final List<String> REQUIRED_MEMBERS = ImmutableList.of("value", "extract", "executable", "cache");
+
     @Override
     public String toString() {
         return "FetchableURI [_value=" + _value
@@ -27,6 +27,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import java.util.Iterator;
 
@@ -34,6 +35,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.base.Preconditions;
@@ -195,6 +197,10 @@ final public class Group {
     final private HostPlacement _hostPlacement;
     final private StragglerHandling _stragglerHandling;
     final private List<UUID> _jobs;
+    /**
+     * The UTF-8 encoded JSON representation of this group, computed at most once on demand.
+     */
+    private volatile byte[] _encoded;
 
     private Group(UUID uuid, Status status, String name, HostPlacement hostPlacement, 
             StragglerHandling stragglerHandling, List<UUID> jobs) {
@@ -273,7 +279,7 @@ final public class Group {
     public static JSONObject jsonizeGroup(Group group)
         throws JSONException {
         final JSONObject object = new JSONObject();
-        object.put("uuid", group.getUUID().toString());
+        object.put("uuid", UUIDs.toString(group.getUUID()));
         object.put("name", group.getName());
         object.put("host_placement", HostPlacement.jsonize(group.getHostPlacement()));
         object.put("straggler_handling", StragglerHandling.jsonize(group.getStragglerHandling()));
@@ -282,6 +288,45 @@ final public class Group {
         return object;
     }
 
+    /**
+     * Write a group with the same members as {@link #jsonizeGroup(Group)} without building a {@link JSONObject}.
+     *
+     * @param writer specifies the writer to write the group to.
+     * @param group specifies the group to be written.
+     * @return the given writer.
+     * @throws JSONException
+     */
+    static JsonWriter writeGroup(JsonWriter writer, Group group)
+        throws JSONException {
+        writer.beginObject();
+        writer.name("uuid").value(group.getUUID());
+        if (group.getName() != null) {
+            writer.name("name").value(group.getName());
+        }
+        writer.name("host_placement");
+        HostPlacement.write(writer, group.getHostPlacement());
+        writer.name("straggler_handling").rawValue(StragglerHandling.jsonize(group.getStragglerHandling()).toString());
+        return writer.endObject();
+    }
+
+    /**
+     * Returns the UTF-8 encoded JSON representation of this group, i.e. the members of {@code jsonizeGroup(this)}. The
+     * encoding is computed on first use and cached for the lifetime of this group. The returned array is shared and
+     * must not be modified.
+     *
+     * @return the UTF-8 encoded JSON representation of this group.
+     * @throws JSONException
+     */
+    byte[] getEncoded()
+        throws JSONException {
+        byte[] encoded = _encoded;
+        if (encoded == null) {
+            encoded = writeGroup(new JsonWriter(256), this).toString().getBytes(Charsets.UTF_8);
+            _encoded = encoded;
+        }
+        return encoded;
+    }
+
     /**
      * Convert a list of groups to a JSON object, e.g.
      *
@@ -351,33 +396,110 @@ final public class Group {
      */
     public static List<Group> parseFromJSON(String listOfGroups, InstanceDecorator decorator)
         throws JSONException {
-        JSONArray jsonArray = new JSONArray(listOfGroups);
-        List<Group> groups = new ArrayList<Group>(jsonArray.length());
-        for (int i = 0; i < jsonArray.length(); ++i) {
-            JSONObject json = jsonArray.getJSONObject(i);
-            JSONArray jobsJson = json.getJSONArray("jobs");
-            Builder groupBuilder = new Builder();
-            groupBuilder.setUUID(UUID.fromString(json.getString("uuid")));
-            if (json.has("name")) {
-                groupBuilder.setName(json.getString("name"));
+        return readGroups(new JsonReader(listOfGroups), decorator);
+    }
+
+    /**
+     * Read a whole document holding a list of groups, like {@link #parseFromJSON(String, InstanceDecorator)}.
+     */
+    static List<Group> readGroups(ValueReader reader, InstanceDecorator decorator)
+        throws JSONException {
+        return readGroups(reader, decorator, null);
+    }
+
+    /**
+     * Read a whole document holding a list of groups, decoding the groups of large lists in parallel on the specified
+     * pool, see {@link ParallelArrayReader}. The decorator, if any, must be thread safe.
+     *
+     * @param pool specifies the pool to parse on, or {@code null} to parse sequentially.
+     */
+    static List<Group> readGroups(ValueReader reader, final InstanceDecorator decorator, ForkJoinPool pool)
+        throws JSONException {
+        return ParallelArrayReader.readArray(reader, new ParallelArrayReader.ElementReader<Group>() {
+            @Override
+            public Group read(ValueReader element)
+                throws JSONException {
+                return readGroup(element, decorator);
+            }
+        }, pool);
+    }
+
+    /**
+     * The members which every group returned by the scheduler must have.
+     */
+    private static final List<String> REQUIRED_MEMBERS = ImmutableList.of(
+            "uuid", "jobs", "host_placement", "straggler_handling");
+
+    /**
+     * Read the next group of a response of the scheduler, i.e. a JSON object as shown in
+     * {@link #parseFromJSON(String, InstanceDecorator)}. Unknown members are skipped.
+     *
+     * @param reader specifies the reader positioned at a group.
+     * @param decorator specifies an instance decorator, or {@code null}.
+     * @return the {@link Group}.
+     * @throws JSONException
+     */
+    static Group readGroup(ValueReader reader, InstanceDecorator decorator)
+        throws JSONException {
+        final Builder groupBuilder = new Builder();
+        int found = 0;
+        int jobs = 0;
+        Integer completed = null;
+        Integer waiting = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.nextNull()) {
+                continue;
             }
-            for (int j = 0; j < jobsJson.length(); j++) {
-                groupBuilder._addJobByUUID(UUID.fromString(jobsJson.getString(j)));
+            switch (name) {
+                case "uuid":
+                    groupBuilder.setUUID(reader.nextUUID());
+                    break;
+                case "name":
+                    groupBuilder.setName(reader.nextString());
+                    break;
+                case "jobs":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        groupBuilder._addJobByUUID(reader.nextUUID());
+                        jobs++;
+                    }
+                    reader.endArray();
+                    break;
+                case "host_placement":
+                    groupBuilder.setHostPlacement(HostPlacement.read(reader));
+                    break;
+                case "straggler_handling":
+                    groupBuilder.setStragglerHandling(
+                            StragglerHandling.parseFromJSON(new JSONObject(reader.nextRaw()), decorator));
+                    break;
+                case "completed":
+                    completed = reader.nextInt();
+                    break;
+                case "waiting":
+                    waiting = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+                    continue;
             }
-            groupBuilder.setHostPlacement(HostPlacement.parseFromJSON(json.getJSONObject("host_placement"), decorator));
-            groupBuilder.setStragglerHandling(StragglerHandling.parseFromJSON(json.getJSONObject("straggler_handling"), decorator));
-            if (json.isNull("completed")) {
-                 groupBuilder.setStatus(Status.INITIALIZED);
-             } else if (json.getInt("completed") == jobsJson.length()) {
-                 groupBuilder.setStatus(Status.COMPLETED);
-             } else if (json.getInt("waiting") == jobsJson.length()) {
-                 groupBuilder.setStatus(Status.WAITING);
-             } else {
-                 groupBuilder.setStatus(Status.RUNNING);
-             }
-            groups.add(groupBuilder.build());
+            found = ValueReader.markMember(found, name, REQUIRED_MEMBERS);
+        }
+        reader.endObject();
+        ValueReader.checkMembers(found, REQUIRED_MEMBERS);
+        if (completed == null) {
+            groupBuilder.setStatus(Status.INITIALIZED);
+        } else if (completed == jobs) {
+            groupBuilder.setStatus(Status.COMPLETED);
+        } else if (waiting == null) {
+            throw new JSONException("JSONObject[\"waiting\"] not found.");
+        } else if (waiting == jobs) {
+            groupBuilder.setStatus(Status.WAITING);
+        } else {
+            groupBuilder.setStatus(Status.RUNNING);
         }
-        return groups;
+        return groupBuilder.build();
     }
 
     /**
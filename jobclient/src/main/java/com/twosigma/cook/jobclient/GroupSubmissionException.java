@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Thrown when a submission of jobs and groups which was split into several requests partially failed.
+ * <p>
+ * Each group and its jobs are always submitted in a single request, so every group either has been submitted
+ * entirely or is reported as failed together with the cause of the failure of its request. The requests are sent in
+ * parallel and a failed request does not stop the others, so every job which is not reported as failed, with or
+ * without a group, has been submitted.
+ * <p>
+ * The cause of this exception is the failure of the first failed request in the order the submission was split into
+ * requests, and the failures of the other failed requests are attached as suppressed exceptions.
+ */
+public class GroupSubmissionException extends JobClientException {
+    private static final long serialVersionUID = 1L;
+
+    private final Set<UUID> _submittedGroups;
+
+    private final Map<UUID, JobClientException> _failedGroups;
+
+    private final Map<UUID, JobClientException> _failedJobs;
+
+    /**
+     * @param failures specifies the failure of each failed request in the order of the requests, at least one.
+     */
+    GroupSubmissionException(final String msg, final Set<UUID> submittedGroups,
+                             final Map<UUID, JobClientException> failedGroups,
+                             final Map<UUID, JobClientException> failedJobs,
+                             final List<JobClientException> failures) {
+        super(msg, failures.get(0));
+        for (JobClientException failure : failures.subList(1, failures.size())) {
+            addSuppressed(failure);
+        }
+        _submittedGroups = ImmutableSet.copyOf(submittedGroups);
+        _failedGroups = ImmutableMap.copyOf(failedGroups);
+        _failedJobs = ImmutableMap.copyOf(failedJobs);
+    }
+
+    /**
+     * @return the UUIDs of the groups which have been successfully submitted along with all their jobs.
+     */
+    public Set<UUID> getSubmittedGroups() {
+        return _submittedGroups;
+    }
+
+    /**
+     * @return a map from the UUID of each group which failed to submit to the cause of the failure.
+     */
+    public Map<UUID, JobClientException> getFailedGroups() {
+        return _failedGroups;
+    }
+
+    /**
+     * @return a map from the UUID of each job which failed to submit to the cause of the failure.
+     */
+    public Map<UUID, JobClientException> getFailedJobs() {
+        return _failedJobs;
+    }
+}
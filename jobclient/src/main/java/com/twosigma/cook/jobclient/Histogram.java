@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A lock-free histogram of non-negative values with a bounded relative error, in the style of HdrHistogram.
+ * <p>
+ * Values below {@value #EXACT} are counted exactly. Larger values are counted in buckets which split every power of
+ * two into {@value #SUB_BUCKETS} equal parts, so that a value is reported with a relative error of at most 1/16 no
+ * matter its magnitude, e.g. both nanosecond latencies and batch sizes. The histogram takes 8 KB and recording a value
+ * costs a few atomic increments.
+ */
+public final class Histogram {
+
+    /**
+     * Values below this are counted exactly.
+     */
+    static final int EXACT = 32;
+
+    /**
+     * The number of buckets per power of two above {@link #EXACT}.
+     */
+    static final int SUB_BUCKETS = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of buckets: the exact values and the buckets of the powers of two from 2^5 to 2^62.
+     */
+    private static final int BUCKETS = EXACT + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray _counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _sum = new AtomicLong();
+    private final AtomicLong _max = new AtomicLong();
+
+    /**
+     * @param value specifies a value to record, which is clamped to 0 if negative.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        _counts.incrementAndGet(indexOf(value));
+        _count.incrementAndGet();
+        _sum.addAndGet(value);
+        long max = _max.get();
+        while (value > max && !_max.compareAndSet(max, value)) {
+            max = _max.get();
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return EXACT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @return the largest value which is counted in the bucket of the given index.
+     */
+    static long highestValueOf(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        final int shift = (index - EXACT) / SUB_BUCKETS + 1;
+        final long subBucket = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return _count.get();
+    }
+
+    /**
+     * @return the sum of the recorded values.
+     */
+    public long getSum() {
+        return _sum.get();
+    }
+
+    /**
+     * @return the largest recorded value, or 0 if no value has been recorded.
+     */
+    public long getMax() {
+        return _max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, or 0 if no value has been recorded.
+     */
+    public double getMean() {
+        final long count = _count.get();
+        return count == 0 ? 0.0 : (double) _sum.get() / count;
+    }
+
+    /**
+     * @param percentile specifies a percentile between 0 and 100, e.g. 99.9.
+     * @return an upper bound of the recorded value at the given percentile within the precision of the histogram, or
+     *         0 if no value has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        Preconditions.checkArgument(0.0 <= percentile && percentile <= 100.0, "percentile must be between 0 and 100");
+        long total = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            total += _counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += _counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram [count=" + getCount() + ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + "]";
+    }
+}
@@ -216,6 +216,46 @@ final public class HostPlacement {
         return hpBuilder.build();
     }
 
+    /**
+     * Write a HostPlacement with the same members as {@link #jsonize(HostPlacement)}.
+     */
+    static JsonWriter write(JsonWriter writer, HostPlacement hp) {
+        return writer.beginObject()
+                .name("type").value(hp.getType().toString().toLowerCase())
+                .name("parameters").value(hp.getParameters())
+                .endObject();
+    }
+
+    /**
+     * Read the next HostPlacement of a response of the scheduler, like {@link #parseFromJSON(JSONObject,
+     * InstanceDecorator)}.
+     */
+    static HostPlacement read(ValueReader reader)
+            throws JSONException {
+        Builder hpBuilder = new Builder();
+        boolean hasType = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("type".equals(name)) {
+                final String type = reader.nextString();
+                hpBuilder.setType(Type.fromString(type.substring(type.lastIndexOf("/") + 1).toUpperCase()));
+                hasType = true;
+            } else if ("parameters".equals(name) && !reader.nextNull()) {
+                for (Map.Entry<String, String> parameter : reader.nextStringMap().entrySet()) {
+                    hpBuilder.setParameter(parameter.getKey(), parameter.getValue());
+                }
+            } else if (!"parameters".equals(name)) {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!hasType) {
+            throw new JSONException("JSONObject[\"type\"] not found.");
+        }
+        return hpBuilder.build();
+    }
+
     @Override
     public String toString() {
         return ("HostPlacement [_type=" + _type + ", _parameters=" + _parameters.toString() + "]") + '\n';
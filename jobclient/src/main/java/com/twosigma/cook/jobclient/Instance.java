@@ -25,6 +25,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 /**
  * An immutable job instance implementation.
@@ -358,7 +359,10 @@ final public class Instance {
      * @throws JSONException
      */
     public static List<Instance> parseFromJSON(String listOfInstances) throws JSONException {
-        return parseFromJSON(new JSONArray(listOfInstances));
+        final JsonReader reader = new JsonReader(listOfInstances);
+        final List<Instance> instances = readInstances(reader, null);
+        reader.endDocument();
+        return instances;
     }
 
     /**
@@ -410,6 +414,96 @@ final public class Instance {
         return instances;
     }
 
+    /**
+     * The members which every instance returned by the scheduler must have.
+     */
+    private static final List<String> REQUIRED_MEMBERS = ImmutableList.of(
+            "task_id", "slave_id", "executor_id", "hostname", "status", "preempted", "start_time");
+
+    /**
+     * Read the next JSON array of instances of a response of the scheduler. Members which are {@code null} are
+     * treated as absent and unknown members are skipped.
+     *
+     * @param reader specifies the reader positioned at an array of instances.
+     * @param decorator specifies an instance decorator, or {@code null}.
+     * @return a list of {@link Instance}s.
+     * @throws JSONException
+     */
+    static List<Instance> readInstances(ValueReader reader, InstanceDecorator decorator)
+            throws JSONException {
+        final List<Instance> instances = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            instances.add(readInstance(reader, decorator));
+        }
+        reader.endArray();
+        return instances;
+    }
+
+    private static Instance readInstance(ValueReader reader, InstanceDecorator decorator)
+            throws JSONException {
+        Builder instanceBuilder = new Builder();
+        int found = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.nextNull()) {
+                continue;
+            }
+            switch (name) {
+                case "task_id":
+                    instanceBuilder.setTaskID(reader.nextUUID());
+                    break;
+                case "slave_id":
+                    instanceBuilder.setSlaveID(reader.nextInternedString());
+                    break;
+                case "executor_id":
+                    instanceBuilder.setExecutorID(reader.nextString());
+                    break;
+                case "hostname":
+                    instanceBuilder.setHostName(reader.nextInternedString());
+                    break;
+                case "executor":
+                    instanceBuilder.setExecutor(reader.nextInternedString());
+                    break;
+                case "status":
+                    instanceBuilder.setStatus(Status.fromString(reader.nextInternedString()));
+                    break;
+                case "progress":
+                    instanceBuilder.setProgress(reader.nextInt());
+                    break;
+                case "progress_message":
+                    instanceBuilder.setProgressMessage(reader.nextString());
+                    break;
+                case "preempted":
+                    instanceBuilder.setPreempted(reader.nextBoolean());
+                    break;
+                case "start_time":
+                    instanceBuilder.setStartTime(reader.nextLong());
+                    break;
+                case "end_time":
+                    instanceBuilder.setEndTime(reader.nextLong());
+                    break;
+                case "output_url":
+                    instanceBuilder.setOutputURL(reader.nextString());
+                    break;
+                case "reason_code":
+                    instanceBuilder.setReasonCode(reader.nextLong());
+                    break;
+                default:
+                    reader.skipValue();
+                    continue;
+            }
+            found = ValueReader.markMember(found, name, REQUIRED_MEMBERS);
+        }
+        reader.endObject();
+        ValueReader.checkMembers(found, REQUIRED_MEMBERS);
+        if (decorator != null) {
+            instanceBuilder = decorator.decorate(instanceBuilder);
+        }
+        return instanceBuilder.build();
+    }
+
     /**
      * Similar to {@code List<Instance> parseFromJSON(JSONArray listOfInstances, InstanceDecorator decorator)} with
      * {@code decorator} being null.
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * The immutable instances of a {@link Job}, indexed when the job is built so that the running, successful and
+ * latest instance and the instance of a task ID are found in constant time.
+ * <p>
+ * Jobs with hundreds of retries, e.g. due to preemptions, carry as many instances, and scanning them on every call to
+ * {@link Job#getRunningInstance()} or {@link Job#isSuccess()} adds up when polling many such jobs.
+ */
+final class InstanceList extends AbstractList<Instance> implements RandomAccess {
+
+    static final InstanceList EMPTY = new InstanceList(new Instance[0]);
+
+    final private Instance[] _instances;
+    final private Instance _running;
+    final private Instance _success;
+    final private Instance _latest;
+    /**
+     * The instances by task ID, or {@code null} if there are too few instances for an index to pay off.
+     */
+    final private Map<UUID, Instance> _byTaskID;
+
+    /**
+     * Below this number of instances, looking up a task ID scans the instances.
+     */
+    private static final int MIN_INDEXED_SIZE = 8;
+
+    private InstanceList(Instance[] instances) {
+        _instances = instances;
+        Instance running = null;
+        Instance success = null;
+        Instance latest = null;
+        for (Instance instance : instances) {
+            if (running == null && instance.getStatus() == Instance.Status.RUNNING) {
+                running = instance;
+            }
+            if (success == null && instance.getStatus() == Instance.Status.SUCCESS) {
+                success = instance;
+            }
+            if (latest == null || !startedBefore(instance, latest)) {
+                latest = instance;
+            }
+        }
+        _running = running;
+        _success = success;
+        _latest = latest;
+        if (instances.length < MIN_INDEXED_SIZE) {
+            _byTaskID = null;
+        } else {
+            _byTaskID = new HashMap<>(instances.length * 2);
+            for (Instance instance : instances) {
+                if (!_byTaskID.containsKey(instance.getTaskID())) {
+                    _byTaskID.put(instance.getTaskID(), instance);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param instances specifies the instances of a job in the order the scheduler listed them.
+     * @return an indexed copy of the instances.
+     */
+    static InstanceList copyOf(Collection<Instance> instances) {
+        if (instances instanceof InstanceList) {
+            return (InstanceList) instances;
+        }
+        if (instances.isEmpty()) {
+            return EMPTY;
+        }
+        final Instance[] array = instances.toArray(new Instance[instances.size()]);
+        for (Instance instance : array) {
+            if (instance == null) {
+                throw new NullPointerException("instances must not contain null");
+            }
+        }
+        return new InstanceList(array);
+    }
+
+    /**
+     * An instance without a start time has not been launched yet and is therefore considered to have started after
+     * every instance with a start time.
+     *
+     * @return whether {@code instance} started strictly before {@code other}.
+     */
+    private static boolean startedBefore(Instance instance, Instance other) {
+        final Long start = instance.getStartTime();
+        final Long otherStart = other.getStartTime();
+        if (start == null) {
+            return false;
+        }
+        return otherStart == null || start < otherStart;
+    }
+
+    @Override
+    public Instance get(int index) {
+        return _instances[index];
+    }
+
+    @Override
+    public int size() {
+        return _instances.length;
+    }
+
+    /**
+     * @return the first running instance or {@code null} if there is none.
+     */
+    Instance getRunning() {
+        return _running;
+    }
+
+    /**
+     * @return the first successful instance or {@code null} if there is none.
+     */
+    Instance getSuccess() {
+        return _success;
+    }
+
+    /**
+     * @return the instance which started last, the last listed one among those starting at the same time, or
+     *         {@code null} if there are no instances.
+     */
+    Instance getLatest() {
+        return _latest;
+    }
+
+    /**
+     * @return the first instance with the specified task ID or {@code null} if there is none.
+     */
+    Instance getByTaskID(UUID taskID) {
+        if (_byTaskID != null) {
+            return _byTaskID.get(taskID);
+        }
+        for (Instance instance : _instances) {
+            if (instance.getTaskID().equals(taskID)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+}
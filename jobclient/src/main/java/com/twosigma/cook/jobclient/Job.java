@@ -17,8 +17,11 @@
 package com.twosigma.cook.jobclient;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Pattern;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableSet;
 import com.twosigma.cook.jobclient.constraint.Constraints;
 import com.twosigma.cook.jobclient.constraint.Constraint;
@@ -73,6 +76,58 @@ final public class Job {
         }
     }
 
+    /**
+     * The members of a job which can be selected when parsing jobs, see
+     * {@link #parseFromJSON(String, InstanceDecorator, Set)}. The UUID and status of a job are always parsed.
+     */
+    public static enum Field {
+        NAME("name"),
+        COMMAND("command"),
+        EXECUTOR("executor"),
+        MEMORY("mem"),
+        CPUS("cpus"),
+        PRIORITY("priority"),
+        RETRIES("max_retries"),
+        MEA_CULPA_RETRIES("disable_mea_culpa_retries"),
+        MAX_RUNTIME("max_runtime"),
+        EXPECTED_RUNTIME("expected_runtime"),
+        USER("user"),
+        POOL("pool"),
+        ENV("env"),
+        LABELS("labels"),
+        URIS("uris"),
+        CONSTRAINTS("constraints"),
+        CONTAINER("container"),
+        GROUPS("groups"),
+        INSTANCES("instances"),
+        APPLICATION("application"),
+        PROGRESS("progress_output_file", "progress_regex_string"),
+        DATASETS("datasets");
+
+        private static final Map<String, Field> BY_MEMBER = new HashMap<>();
+
+        static {
+            for (Field field : values()) {
+                for (String member : field._members) {
+                    BY_MEMBER.put(member, field);
+                }
+            }
+        }
+
+        private final String[] _members;
+
+        private Field(String... members) {
+            _members = members;
+        }
+
+        /**
+         * @return the field of a member of a job, or {@code null} if the member is always parsed or unknown.
+         */
+        static Field forMember(String member) {
+            return BY_MEMBER.get(member);
+        }
+    }
+
     /**
      * Job builder
      */
@@ -103,6 +158,12 @@ final public class Job {
         private String _progressRegexString;
         private String _user;
         private JSONArray _datasets;
+        /**
+         * Whether {@code _container} and {@code _datasets} were just parsed from a response, so that no one else holds
+         * them and they can be handed to the job instead of being copied by {@code build()}.
+         */
+        private boolean _shareContainer;
+        private boolean _shareDatasets;
 
         /**
          * Prior to {@code build()}, command, memory and cpus for a job must be provided.<br>
@@ -139,13 +200,104 @@ final public class Job {
             if (_isMeaCulpaRetriesDisabled == null) {
                 _isMeaCulpaRetriesDisabled = false;
             }
+            return new Job(_uuid, _name, _command, _executor, _memory, _cpus, _retries, _maxRuntime,
+                    _expectedRuntime, _status, _priority, _pool, _isMeaCulpaRetriesDisabled, _instances, _env, _uris,
+                    containerForJob(), _labels, _constraints, _groups, _application, _progressOutputFile,
+                    _progressRegexString, _user, datasetsForJob());
+        }
+
+        /**
+         * Build a job from the members parsed from a response without checking for or defaulting any member other
+         * than the UUID and status, see {@link #parseFromJSON(String, InstanceDecorator, Set)}.
+         */
+        Job buildPartial() {
+            Preconditions.checkNotNull(_uuid, "uuid must be set!");
+            Preconditions.checkNotNull(_status, "status must be set!");
             return new Job(_uuid, _name, _command, _executor, _memory, _cpus, _retries, _maxRuntime, _expectedRuntime, _status,
-                    _priority, _pool, _isMeaCulpaRetriesDisabled, _instances, _env, _uris, _container, _labels, _constraints,
-                    _groups, _application, _progressOutputFile, _progressRegexString, _user, _datasets);
+                    _priority, _pool, _isMeaCulpaRetriesDisabled, _instances, _env, _uris, containerForJob(), _labels,
+                    _constraints, _groups, _application, _progressOutputFile, _progressRegexString, _user,
+                    datasetsForJob());
+        }
+
+        /**
+         * This takes the string representation of the container and then parses it again which is inefficient but
+         * that is most convenient way to deep copy a JSONObject and make a job immutable. Containers which are
+         * already private to jobs are shared.
+         */
+        private JSONObject containerForJob() {
+            if (_container == null || _shareContainer) {
+                return _container;
+            }
+            try {
+                return new JSONObject(_container.toString());
+            } catch (JSONException e) {
+                throw new RuntimeException("Failed to parse the container string", e);
+            }
+        }
+
+        private JSONArray datasetsForJob() {
+            if (_datasets == null || _shareDatasets) {
+                return _datasets;
+            }
+            try {
+                return new JSONArray(_datasets.toString());
+            } catch (JSONException e) {
+                throw new RuntimeException("Failed to parse datasets string", e);
+            }
+        }
+
+        /**
+         * Set the container of the job expected to build from a container which no one else holds, e.g. one which
+         * has just been parsed.
+         */
+        Builder setPrivateContainer(JSONObject container) {
+            setContainer(container);
+            _shareContainer = true;
+            return this;
+        }
+
+        /**
+         * Set the datasets of the job expected to build from datasets which no one else holds.
+         */
+        Builder setPrivateDatasets(JSONArray datasets) {
+            setDatasets(datasets);
+            _shareDatasets = true;
+            return this;
+        }
+
+        /**
+         * The collections taken from another job or set as a whole are immutable and shared with the jobs built. This
+         * is copy-on-write of whole collections rather than structural sharing: the first modification through this
+         * builder copies the collection and every job built afterwards gets its own immutable copy of it.
+         */
+        private Map<String, String> mutableEnv() {
+            if (_env instanceof ImmutableMap) {
+                _env = new HashMap<>(_env);
+            }
+            return _env;
+        }
+
+        private Map<String, String> mutableLabels() {
+            if (_labels instanceof ImmutableMap) {
+                _labels = new HashMap<>(_labels);
+            }
+            return _labels;
+        }
+
+        private List<FetchableURI> mutableUris() {
+            if (_uris instanceof ImmutableList) {
+                _uris = new ArrayList<>(_uris);
+            }
+            return _uris;
         }
 
         /**
          * Set command, memory, cpus, env vars, uris, pool and retries from a job.
+         * <p>
+         * The env vars, labels and uris are shared with the given job rather than copied, and so are the jobs built
+         * as long as a collection is not modified through this builder. Modifying a collection copies all of it, see
+         * {@link #addEnv(String, String)}. The container and datasets are mutable, so every job built gets its own deep
+         * copy of them.
          *
          * @param job {@link Job} specifies a job.
          * @return this builder.
@@ -157,11 +309,12 @@ final public class Job {
             setCpus(job.getCpus());
             setRetries(job.getRetries());
             setMaxRuntime(job.getMaxRuntime());
-            setEnv(job.getEnv());
-            setUris(job.getUris());
+            // The collections of a job are immutable, so they are shared rather than copied.
+            _env = job.getEnv();
+            _uris = job.getUris();
+            _labels = job.getLabels();
             setContainer(job.getContainer());
             setPool(job.getPool());
-            setLabels(job.getLabels());
             setDatasets(job.getDatasets());
             if (job.isMeaCulpaRetriesDisabled()) {
                 disableMeaCulpaRetries();
@@ -178,7 +331,7 @@ final public class Job {
          * @return this builder
          */
         public Builder addUri(FetchableURI uri) {
-            _uris.add(uri);
+            mutableUris().add(uri);
             return this;
         }
 
@@ -191,7 +344,7 @@ final public class Job {
          * @return this builder
          */
         public Builder addUris(Collection<FetchableURI> uris) {
-            _uris.addAll(uris);
+            mutableUris().addAll(uris);
             return this;
         }
 
@@ -247,20 +400,22 @@ final public class Job {
          * @return this builder
          */
         public Builder setUris(Collection<FetchableURI> uris) {
-            _uris.clear();
-            _uris.addAll(uris);
+            _uris = ImmutableList.copyOf(uris);
             return this;
         }
 
         /**
          * Add an env var to the job
+         * <p>
+         * The first env var added after the environment was set as a whole or taken from a job copies the whole
+         * environment, and every job built afterwards gets its own copy of it.
          *
          * @param name  specifies the name of the env var
          * @param value specifies the value of the env var
          * @return this builder
          */
         public Builder addEnv(String name, String value) {
-            _env.put(name, value);
+            mutableEnv().put(name, value);
             return this;
         }
 
@@ -273,7 +428,7 @@ final public class Job {
          * @return this builder
          */
         public Builder addEnv(Map<String, String> environment) {
-            _env.putAll(environment);
+            mutableEnv().putAll(environment);
             return this;
         }
 
@@ -298,7 +453,7 @@ final public class Job {
          * @return this builder
          */
         public Builder addLabel(String key, String value) {
-            _labels.put(key, value);
+            mutableLabels().put(key, value);
             return this;
         }
 
@@ -311,7 +466,7 @@ final public class Job {
          * @return this builder
          */
         public Builder addLabels(Map<String, String> labels) {
-            _labels.putAll(labels);
+            mutableLabels().putAll(labels);
             return this;
         }
 
@@ -401,6 +556,7 @@ final public class Job {
          */
         public Builder setContainer(JSONObject container) {
             _container = container;
+            _shareContainer = false;
             return this;
         }
 
@@ -591,6 +747,7 @@ final public class Job {
          */
         public Builder setDatasets(JSONArray datasets) {
             _datasets = datasets;
+            _shareDatasets = false;
             return this;
         }
     }
@@ -608,7 +765,7 @@ final public class Job {
     final private String _pool;
     final private Status _status;
     final private Boolean _isMeaCulpaRetriesDisabled;
-    final private List<Instance> _instances;
+    final private InstanceList _instances;
     final private Map<String, String> _env;
     final private List<FetchableURI> _uris;
     final private JSONObject _container;
@@ -622,6 +779,16 @@ final public class Job {
     final private String _progressRegexString;
     final private String _user;
     final private JSONArray _datasets;
+    /**
+     * The UTF-8 encoded JSON representation of this job. As a job is immutable, it is computed at most once on demand
+     * and then shared by every submission of this job, including retries.
+     */
+    private volatile byte[] _encoded;
+    /**
+     * The source of the remaining members of a job which was parsed lazily, see
+     * {@link #readLazyJob(JsonReader, InstanceDecorator)}, or {@code null} if this job holds all its members.
+     */
+    final private LazyDetails _details;
 
     private Job(UUID uuid, String name, String command, Executor executor, Double memory, Double cpus, Integer retries,
                 Long maxRuntime, Long expectedRuntime, Status status, Integer priority, String pool, Boolean isMeaCulpaRetriesDisabled,
@@ -641,36 +808,59 @@ final public class Job {
         _priority = priority;
         _pool = pool;
         _isMeaCulpaRetriesDisabled = isMeaCulpaRetriesDisabled;
-        _instances = ImmutableList.copyOf(instances);
+        _instances = InstanceList.copyOf(instances);
         _env = ImmutableMap.copyOf(env);
         _uris = ImmutableList.copyOf(uris);
         _application = application;
         _progressOutputFile = progressOutputFile;
         _progressRegexString = progressRegexString;
         _user = user;
-        // This take the string representation of the JSON object and then parses it again which is inefficient but
-        // that is most convenient way to deep copy a JSONObject and make this Job instance immutable.
-        if (container != null) {
-            try {
-                _container = new JSONObject(container.toString());
-            } catch (JSONException e) {
-                throw new RuntimeException("Failed to parse the container string", e);
-            }
-        } else {
-            _container = null;
-        }
-        if (datasets != null) {
-            try {
-                _datasets = new JSONArray(datasets.toString());
-            } catch (JSONException e) {
-                throw new RuntimeException("Failed to parse datasets string", e);
-            }
-        } else {
-            _datasets = null;
-        }
+        _container = container;
+        _datasets = datasets;
         _labels = ImmutableMap.copyOf(labels);
         _constraints = ImmutableSet.copyOf(constraints);
         _groups = groups;
+        _details = null;
+    }
+
+    /**
+     * Create a job whose members other than its UUID and status are decoded from {@code details} on first access.
+     */
+    private Job(UUID uuid, Status status, LazyDetails details) {
+        _uuid = uuid;
+        _status = status;
+        _details = details;
+        _name = null;
+        _command = null;
+        _executor = null;
+        _memory = null;
+        _cpus = null;
+        _retries = null;
+        _maxRuntime = null;
+        _expectedRuntime = null;
+        _priority = null;
+        _pool = null;
+        _isMeaCulpaRetriesDisabled = null;
+        _instances = null;
+        _env = null;
+        _uris = null;
+        _container = null;
+        _labels = null;
+        _constraints = null;
+        _groups = null;
+        _application = null;
+        _progressOutputFile = null;
+        _progressRegexString = null;
+        _user = null;
+        _datasets = null;
+    }
+
+    /**
+     * @return the job holding the members of this job other than those decoded separately by {@link LazyDetails},
+     *         i.e. this job unless it was parsed lazily.
+     */
+    private Job details() {
+        return _details == null ? this : _details.<Job>get(LazyDetails.OTHERS);
     }
 
     /**
@@ -684,76 +874,77 @@ final public class Job {
      * @return the job command.
      */
     public String getCommand() {
-        return _command;
+        return details()._command;
     }
 
     /**
      * @return the job executor.
      */
     public Executor getExecutor() {
-        return _executor;
+        return details()._executor;
     }
 
     /**
      * @return the job memory.
      */
     public Double getMemory() {
-        return _memory;
+        return details()._memory;
     }
 
     /**
      * @return the job cpus.
      */
     public Double getCpus() {
-        return _cpus;
+        return details()._cpus;
     }
 
     /**
      * @return the job retries.
      */
     public Integer getRetries() {
-        return _retries;
+        return details()._retries;
     }
 
     /**
      * @return the max runtime in milliseconds for this job.
      */
     public Long getMaxRuntime() {
-        return _maxRuntime;
+        return details()._maxRuntime;
     }
 
     /**
      * @return the expected runtime in milliseconds for this job.
      */
     public Long getExpectedRuntime() {
-        return _expectedRuntime;
+        return details()._expectedRuntime;
     }
 
     /**
      * @return the job's environment
      */
     public Map<String, String> getEnv() {
-        return _env;
+        return _details == null ? _env : _details.<Map<String, String>>get(LazyDetails.ENV);
     }
 
     /**
      * @return the job's labels
      */
     public Map<String, String> getLabels() {
-        return _labels;
+        return _details == null ? _labels : _details.<Map<String, String>>get(LazyDetails.LABELS);
     }
 
 
     public Set<Constraint> getConstraints() {
-        return _constraints;
+        return _details == null ? _constraints : _details.<Set<Constraint>>get(LazyDetails.CONSTRAINTS);
     }
 
     /**
      * @return the job's group, or null if the job does not belong to a group
      */
     public UUID getGroup() {
-        if (_groups.size() > 0) {
-            return _groups.get(0);
+        final List<UUID> groups = details()._groups;
+        if (groups.size() > 0) {
+            return groups.get(0);
         }
         return null;
     }
@@ -762,21 +953,21 @@ final public class Job {
      * @return the job's container
      */
     public JSONObject getContainer() {
-        return _container;
+        return _details == null ? _container : _details.<JSONObject>get(LazyDetails.CONTAINER);
     }
 
     /**
      * @return the job's uris
      */
     public List<FetchableURI> getUris() {
-        return _uris;
+        return _details == null ? _uris : _details.<List<FetchableURI>>get(LazyDetails.URIS);
     }
 
     /**
      * @return the job user.
      */
     public String getUser() {
-        return _user;
+        return details()._user;
     }
 
     /**
@@ -790,21 +981,21 @@ final public class Job {
      * @return the job name.
      */
     public String getName() {
-        return _name;
+        return details()._name;
     }
 
     /**
      * @return the job priority.
      */
     public Integer getPriority() {
-        return _priority;
+        return details()._priority;
     }
 
     /**
      * @return the job pool.
      */
     public String getPool() {
-        return _pool;
+        return details()._pool;
     }
 
     /**
@@ -814,21 +1005,25 @@ final public class Job {
      * </a>
      */
     public Boolean isMeaCulpaRetriesDisabled() {
-        return _isMeaCulpaRetriesDisabled;
+        return details()._isMeaCulpaRetriesDisabled;
     }
 
     /**
      * @return the job instances.
      */
     public List<Instance> getInstances() {
-        return _instances;
+        return instances();
+    }
+
+    private InstanceList instances() {
+        return _details == null ? _instances : _details.<InstanceList>get(LazyDetails.INSTANCES);
     }
 
     /**
      * @return the job application.
      */
     public Application getApplication() {
-        return _application;
+        return details()._application;
     }
 
     /**
@@ -838,7 +1033,7 @@ final public class Job {
      * @return the progress output file configured for the job. It returns null if not configured.
      */
     public String getProgressOutputFile() {
-        return _progressOutputFile;
+        return details()._progressOutputFile;
     }
 
     /**
@@ -849,26 +1044,37 @@ final public class Job {
      * @return the progress regex string configured for the job. It returns null if not configured.
      */
     public String getProgressRegexString() {
-        return _progressRegexString;
+        return details()._progressRegexString;
     }
 
     /**
      * @return the job's datasets
      */
     public JSONArray getDatasets() {
-        return _datasets;
+        return _details == null ? _datasets : _details.<JSONArray>get(LazyDetails.DATASETS);
     }
 
     /**
      * @return the job instance with the running state or {@code null} if can't find one.
      */
     public Instance getRunningInstance() {
-        for (Instance instance : _instances) {
-            if (Instance.Status.RUNNING.equals(instance.getStatus())) {
-                return instance;
-            }
-        }
-        return null;
+        return instances().getRunning();
+    }
+
+    /**
+     * @return the job instance which started last or {@code null} if the job has no instances. Instances which have
+     *         not started yet are considered to be the latest.
+     */
+    public Instance getLatestInstance() {
+        return instances().getLatest();
+    }
+
+    /**
+     * @param taskID specifies the task ID of an instance of the job.
+     * @return the job instance with the specified task ID or {@code null} if the job has no such instance.
+     */
+    public Instance getInstance(UUID taskID) {
+        return instances().getByTaskID(taskID);
     }
 
     /**
@@ -877,13 +1083,7 @@ final public class Job {
      * @return
      */
     public Boolean isSuccess() {
-        if (getStatus() == Job.Status.COMPLETED) {
-            for (Instance instance : getInstances()) {
-                if (instance.getStatus() == Instance.Status.SUCCESS)
-                    return true;
-            }
-        }
-        return false;
+        return getStatus() == Job.Status.COMPLETED && instances().getSuccess() != null;
     }
 
     /**
@@ -913,7 +1113,7 @@ final public class Job {
         final JSONObject labels = new JSONObject(job.getLabels());
         final JSONObject container = job.getContainer();
         final JSONObject object = new JSONObject();
-        object.put("uuid", job.getUUID().toString());
+        object.put("uuid", UUIDs.toString(job.getUUID()));
         object.put("name", job.getName());
         object.put("command", job.getCommand());
         if (job.getExecutor() != null) {
@@ -930,7 +1130,7 @@ final public class Job {
         // For now, only use one group
         UUID group = job.getGroup();
         if (group != null) {
-            object.put("group", job.getGroup().toString());
+            object.put("group", UUIDs.toString(group));
         }
         for (Constraint constraint : job.getConstraints()) {
             object.append("constraints", constraint.toJson());
@@ -941,27 +1141,118 @@ final public class Job {
         for (FetchableURI uri : job.getUris()) {
             object.append("uris", FetchableURI.jsonizeUri(uri));
         }
-        if (job._application != null) {
-            object.put("application", Application.jsonizeApplication(job._application));
+        if (job.getApplication() != null) {
+            object.put("application", Application.jsonizeApplication(job.getApplication()));
         }
-        if (job._progressOutputFile != null) {
-            object.put("progress_output_file", job._progressOutputFile);
+        if (job.getProgressOutputFile() != null) {
+            object.put("progress_output_file", job.getProgressOutputFile());
         }
-        if (job._progressRegexString != null) {
-            object.put("progress_regex_string", job._progressRegexString);
+        if (job.getProgressRegexString() != null) {
+            object.put("progress_regex_string", job.getProgressRegexString());
         }
-        if (job._expectedRuntime != null) {
-            object.put("expected_runtime", job._expectedRuntime);
+        if (job.getExpectedRuntime() != null) {
+            object.put("expected_runtime", job.getExpectedRuntime());
         }
-        if (job._datasets != null) {
-            object.put("datasets", job._datasets);
+        if (job.getDatasets() != null) {
+            object.put("datasets", job.getDatasets());
         }
-        if (job._pool != null) {
-            object.put("pool", job._pool);
+        if (job.getPool() != null) {
+            object.put("pool", job.getPool());
         }
         return object;
     }
 
+    /**
+     * Write a job with the same members as {@link #jsonizeJob(Job)} without building a {@link JSONObject}.
+     *
+     * @param writer specifies the writer to write the job to.
+     * @param job specifies a job.
+     * @return the given writer.
+     * @throws JSONException
+     */
+    static JsonWriter writeJob(JsonWriter writer, Job job)
+            throws JSONException {
+        writer.beginObject();
+        writer.name("uuid").value(job.getUUID());
+        if (job.getName() != null) {
+            writer.name("name").value(job.getName());
+        }
+        writer.name("command").value(job.getCommand());
+        if (job.getExecutor() != null) {
+            writer.name("executor").value(job.getExecutor().displayName());
+        }
+        writer.name("mem").value(job.getMemory());
+        writer.name("cpus").value(job.getCpus());
+        writer.name("priority").value(job.getPriority());
+        writer.name("max_retries").value(job.getRetries());
+        writer.name("disable_mea_culpa_retries").value(job.isMeaCulpaRetriesDisabled());
+        writer.name("max_runtime").value(job.getMaxRuntime());
+        writer.name("env").value(job.getEnv());
+        writer.name("labels").value(job.getLabels());
+        final UUID group = job.getGroup();
+        if (group != null) {
+            writer.name("group").value(group);
+        }
+        if (!job.getConstraints().isEmpty()) {
+            writer.name("constraints").beginArray();
+            for (Constraint constraint : job.getConstraints()) {
+                writer.rawValue(constraint.toJson().toString());
+            }
+            writer.endArray();
+        }
+        if (job.getContainer() != null) {
+            writer.name("container").rawValue(job.getContainer().toString());
+        }
+        if (!job.getUris().isEmpty()) {
+            writer.name("uris").beginArray();
+            for (FetchableURI uri : job.getUris()) {
+                writer.rawValue(uri.toJSONString());
+            }
+            writer.endArray();
+        }
+        if (job.getApplication() != null) {
+            writer.name("application");
+            Application.writeApplication(writer, job.getApplication());
+        }
+        if (job.getProgressOutputFile() != null) {
+            writer.name("progress_output_file").value(job.getProgressOutputFile());
+        }
+        if (job.getProgressRegexString() != null) {
+            writer.name("progress_regex_string").value(job.getProgressRegexString());
+        }
+        if (job.getExpectedRuntime() != null) {
+            writer.name("expected_runtime").value(job.getExpectedRuntime());
+        }
+        if (job.getDatasets() != null) {
+            writer.name("datasets").rawValue(job.getDatasets().toString());
+        }
+        if (job.getPool() != null) {
+            writer.name("pool").value(job.getPool());
+        }
+        return writer.endObject();
+    }
+
+    /**
+     * Returns the UTF-8 encoded JSON representation of this job, i.e. the members of {@code jsonizeJob(this)} as
+     * written by {@link #writeJob(JsonWriter, Job)}. The encoding is computed on first use and cached for the lifetime
+     * of this job. The returned array is shared and must not be modified.
+     * <p>
+     * Note that {@link #getContainer()} and {@link #getDatasets()} expose mutable JSON objects; modifying them after
+     * the job has been encoded will not be reflected in the encoding.
+     *
+     * @return the UTF-8 encoded JSON representation of this job.
+     * @throws JSONException
+     */
+    byte[] getEncoded()
+            throws JSONException {
+        byte[] encoded = _encoded;
+        if (encoded == null) {
+            encoded = writeJob(new JsonWriter(512), this).toString().getBytes(Charsets.UTF_8);
+            _encoded = encoded;
+        }
+        return encoded;
+    }
+
     /**
      * Convert a list of job to a JSON object, e.g.
      * <p>
@@ -1038,97 +1329,443 @@ final public class Job {
      */
     public static List<Job> parseFromJSON(String listOfJobs, InstanceDecorator decorator)
             throws JSONException {
-        JSONArray jsonArray = new JSONArray(listOfJobs);
-        List<Job> jobs = new ArrayList<Job>(jsonArray.length());
-        for (int i = 0; i < jsonArray.length(); ++i) {
-            JSONObject json = jsonArray.getJSONObject(i);
-            Builder jobBuilder = new Builder();
-            jobBuilder.setUUID(UUID.fromString(json.getString("uuid")));
-            jobBuilder.setMemory(json.getDouble("mem"));
-            jobBuilder.setCpus(json.getDouble("cpus"));
-            jobBuilder.setCommand(json.getString("command"));
-            if (json.has("executor")) {
-                jobBuilder.setExecutor(json.getString("executor"));
+        return parseFromJSON(listOfJobs, decorator, null);
+    }
+
+    /**
+     * Similar to {@link #parseFromJSON(String, InstanceDecorator)}, but only parse the selected fields of each job.
+     * The members of the other fields are skipped without being decoded, e.g. an unselected {@code env} neither
+     * allocates its keys nor its values, and they are not required to be present. The getters of fields which are not
+     * selected return {@code null} or an empty collection.
+     *
+     * @param listOfJobs {@link String} specifies a list of jobs.
+     * @param decorator specifies an instance decorator, or {@code null}.
+     * @param fields specifies the fields to parse in addition to the UUID and status, or {@code null} for all fields.
+     * @return a list of {@link Job}s.
+     * @throws JSONException
+     */
+    public static List<Job> parseFromJSON(String listOfJobs, InstanceDecorator decorator, Set<Field> fields)
+            throws JSONException {
+        return readJobs(new JsonReader(listOfJobs), decorator, fields);
+    }
+
+    /**
+     * Read a whole document holding a list of jobs, like {@link #parseFromJSON(String, InstanceDecorator, Set)}.
+     */
+    static List<Job> readJobs(ValueReader reader, InstanceDecorator decorator, Set<Field> fields)
+            throws JSONException {
+        return readJobs(reader, decorator, fields, null);
+    }
+
+    /**
+     * Read a whole document holding a list of jobs, decoding the jobs of large lists in parallel on the specified
+     * pool, see {@link ParallelArrayReader}. The decorator, if any, must be thread safe.
+     *
+     * @param pool specifies the pool to parse on, or {@code null} to parse sequentially.
+     */
+    static List<Job> readJobs(ValueReader reader, final InstanceDecorator decorator, final Set<Field> fields,
+                              ForkJoinPool pool)
+            throws JSONException {
+        return ParallelArrayReader.readArray(reader, new ParallelArrayReader.ElementReader<Job>() {
+            @Override
+            public Job read(ValueReader element)
+                    throws JSONException {
+                return readJob(element, decorator, fields);
             }
-            jobBuilder.setPriority(json.getInt("priority"));
-            jobBuilder.setStatus(Status.fromString(json.getString("status")));
-            if (json.has("disable_mea_culpa_retries") && json.getBoolean("disable_mea_culpa_retries")) {
-                jobBuilder.disableMeaCulpaRetries();
-            } else {
-                jobBuilder.enableMeaCulpaRetries();
+        }, pool);
+    }
+
+    /**
+     * The members which every job returned by the scheduler must have.
+     */
+    private static final List<String> REQUIRED_MEMBERS = ImmutableList.of(
+            "uuid", "mem", "cpus", "command", "priority", "status", "max_retries", "max_runtime", "instances");
+
+    /**
+     * Read the next job of a response of the scheduler, i.e. a JSON object as shown in
+     * {@link #parseFromJSON(String, InstanceDecorator)}. Members which are {@code null} are treated as absent and
+     * unknown members are skipped.
+     *
+     * @param reader specifies the reader positioned at a job.
+     * @param decorator specifies an instance decorator, or {@code null}.
+     * @return the {@link Job}.
+     * @throws JSONException
+     */
+    static Job readJob(ValueReader reader, InstanceDecorator decorator)
+            throws JSONException {
+        return readJob(reader, decorator, null);
+    }
+
+    /**
+     * Read the next job of a response like {@link #readJob(ValueReader, InstanceDecorator)}, but skip the members of
+     * the fields which are not selected.
+     *
+     * @param fields specifies the fields to read, or {@code null} for all fields.
+     */
+    static Job readJob(ValueReader reader, InstanceDecorator decorator, Set<Field> fields)
+            throws JSONException {
+        return readJob(reader, decorator, fields, fields == null);
+    }
+
+    /**
+     * @param complete specifies whether to apply the defaults of {@link Builder#build()} to the members which are
+     *        absent, as opposed to only setting the members which are present.
+     */
+    private static Job readJob(ValueReader reader, InstanceDecorator decorator, Set<Field> fields, boolean complete)
+            throws JSONException {
+        final Builder jobBuilder = new Builder();
+        // The required members of unselected fields are not required.
+        int found = fields == null ? 0 : unselectedMembers(fields, REQUIRED_MEMBERS);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.nextNull()) {
+                continue;
             }
-            if (json.has("name")) {
-                jobBuilder.setName(json.getString("name"));
+            if (fields != null) {
+                final Field field = Field.forMember(name);
+                if (field != null && !fields.contains(field)) {
+                    reader.skipValue();
+                    continue;
+                }
             }
-            if (json.has("user")) {
-                jobBuilder.setUser(json.getString("user"));
+            switch (name) {
+                case "uuid":
+                    jobBuilder.setUUID(reader.nextUUID());
+                    break;
+                case "mem":
+                    jobBuilder.setMemory(reader.nextDouble());
+                    break;
+                case "cpus":
+                    jobBuilder.setCpus(reader.nextDouble());
+                    break;
+                case "command":
+                    jobBuilder.setCommand(reader.nextString());
+                    break;
+                case "executor":
+                    jobBuilder.setExecutor(reader.nextInternedString());
+                    break;
+                case "priority":
+                    jobBuilder.setPriority(reader.nextInt());
+                    break;
+                case "status":
+                    jobBuilder.setStatus(Status.fromString(reader.nextInternedString()));
+                    break;
+                case "disable_mea_culpa_retries":
+                    if (reader.nextBoolean()) {
+                        jobBuilder.disableMeaCulpaRetries();
+                    } else {
+                        jobBuilder.enableMeaCulpaRetries();
+                    }
+                    break;
+                case "name":
+                    jobBuilder.setName(reader.nextString());
+                    break;
+                case "user":
+                    jobBuilder.setUser(reader.nextInternedString());
+                    break;
+                case "max_retries":
+                    jobBuilder.setRetries(reader.nextInt());
+                    break;
+                case "max_runtime":
+                    jobBuilder.setMaxRuntime(reader.nextLong());
+                    break;
+                case "container":
+                    jobBuilder.setPrivateContainer(new JSONObject(reader.nextRaw()));
+                    break;
+                case "env":
+                    jobBuilder.setEnv(reader.nextStringMap());
+                    break;
+                case "labels":
+                    jobBuilder.setLabels(reader.nextStringMap());
+                    break;
+                case "uris":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        jobBuilder.addUri(FetchableURI.readUri(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case "constraints":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        jobBuilder.addConstraint(Constraints.parseFrom(new JSONArray(reader.nextRaw())));
+                    }
+                    reader.endArray();
+                    break;
+                case "groups":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        jobBuilder._setGroupByUUID(reader.nextUUID());
+                    }
+                    reader.endArray();
+                    break;
+                case "instances":
+                    jobBuilder.addInstances(Instance.readInstances(reader, decorator));
+                    break;
+                case "application":
+                    jobBuilder.setApplication(Application.readApplication(reader));
+                    break;
+                case "expected_runtime":
+                    jobBuilder.setExpectedRuntime(reader.nextLong());
+                    break;
+                case "progress_output_file":
+                    jobBuilder.setProgressOutputFile(reader.nextString());
+                    break;
+                case "progress_regex_string":
+                    jobBuilder.setProgressRegexString(reader.nextString());
+                    break;
+                case "datasets":
+                    jobBuilder.setPrivateDatasets(new JSONArray(reader.nextRaw()));
+                    break;
+                case "pool":
+                    jobBuilder.setPool(reader.nextInternedString());
+                    break;
+                default:
+                    reader.skipValue();
+                    continue;
             }
-            jobBuilder.setRetries(json.getInt("max_retries"));
-            jobBuilder.setMaxRuntime(json.getLong("max_runtime"));
-            if (json.has("container")) {
-                jobBuilder.setContainer(json.getJSONObject("container"));
+            found = ValueReader.markMember(found, name, REQUIRED_MEMBERS);
+        }
+        reader.endObject();
+        ValueReader.checkMembers(found, REQUIRED_MEMBERS);
+        return complete ? jobBuilder.build() : jobBuilder.buildPartial();
+    }
+
+    /**
+     * @return a bit set of the indices of the members which belong to fields that are not selected.
+     */
+    private static int unselectedMembers(Set<Field> fields, List<String> members) {
+        int result = 0;
+        for (int i = 0; i < members.size(); ++i) {
+            final Field field = Field.forMember(members.get(i));
+            if (field != null && !fields.contains(field)) {
+                result |= 1 << i;
             }
-            if (json.has("env")) {
-                JSONObject envJson = json.getJSONObject("env");
-                Map<String, String> envMap = new HashMap<>();
-                if (envJson.length() > 0) {
-                    for (String varName : JSONObject.getNames(envJson)) {
-                        envMap.put(varName, envJson.getString(varName));
-                    }
-                }
-                jobBuilder.setEnv(envMap);
+        }
+        return result;
+    }
+
+    /**
+     * Similar to {@link #parseFromJSON(String, InstanceDecorator)}, but only the UUID and status of each job are decoded
+     * eagerly, which makes jobs that are only compared by {@link #equals(Object)} almost free. Every job keeps the
+     * offsets of its members into {@code listOfJobs} and decodes its environment, labels, URIs, constraints,
+     * container, instances and datasets each on first access to that member, and all its other members together on
+     * first access to any of them. Hence the text of the whole list is kept as long as any of its jobs is reachable.
+     * <p>
+     * Note that errors in the members decoded on access, e.g. a missing required member, are only detected on first
+     * access and then thrown as a {@link JSONException} from the accessors of the members concerned.
+     *
+     * @param listOfJobs {@link String} specifies a list of jobs.
+     * @param decorator specifies an instance decorator, or {@code null}.
+     * @return a list of {@link Job}s.
+     * @throws JSONException if the list is malformed or a job lacks its UUID or status.
+     */
+    static List<Job> parseLazilyFromJSON(String listOfJobs, InstanceDecorator decorator)
+            throws JSONException {
+        return readLazyJobs(new JsonReader(listOfJobs), decorator);
+    }
+
+    /**
+     * Read a whole document holding a list of jobs lazily, like
+     * {@link #parseLazilyFromJSON(String, InstanceDecorator)}.
+     */
+    static List<Job> readLazyJobs(JsonReader reader, InstanceDecorator decorator)
+            throws JSONException {
+        final List<Job> jobs = new ArrayList<Job>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            jobs.add(readLazyJob(reader, decorator));
+        }
+        reader.endArray();
+        reader.endDocument();
+        return jobs;
+    }
+
+    /**
+     * Read the next job of a response like {@link #readJob(ValueReader, InstanceDecorator)}, but only decode its UUID
+     * and status and keep the offsets of its other members to decode them on first access.
+     */
+    static Job readLazyJob(JsonReader reader, InstanceDecorator decorator)
+            throws JSONException {
+        final int[] spans = new int[2 * LazyDetails.MEMBERS.size()];
+        Arrays.fill(spans, -1);
+        UUID uuid = null;
+        Status status = null;
+        final int start = reader.getPosition();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.nextNull()) {
+                continue;
             }
-            if (json.has("labels")) {
-                JSONObject labelsJson = json.getJSONObject("labels");
-                Map<String, String> labelsMap = new HashMap<>();
-                if (labelsJson.length() > 0) {
-                    for (String varName : JSONObject.getNames(labelsJson)) {
-                        labelsMap.put(varName, labelsJson.getString(varName));
-                    }
+            if ("uuid".equals(name)) {
+                uuid = reader.nextUUID();
+            } else if ("status".equals(name)) {
+                status = Status.fromString(reader.nextInternedString());
+            } else {
+                final int member = LazyDetails.MEMBERS.indexOf(name);
+                if (member >= 0) {
+                    spans[2 * member] = reader.getPosition();
                 }
-                jobBuilder.setLabels(labelsMap);
-            }
-            JSONArray urisJson = json.optJSONArray("uris");
-            if (urisJson != null) {
-                for (int j = 0; j < urisJson.length(); j++) {
-                    jobBuilder.addUri(FetchableURI.parseFromJSON(urisJson.getJSONObject(j)));
+                reader.skipValue();
+                if (member >= 0) {
+                    spans[2 * member + 1] = reader.getPosition();
                 }
             }
-            if (json.has("constraints")) {
-                JSONArray constraintsJson = json.getJSONArray("constraints");
-                for (int j = 0; j < constraintsJson.length(); j++) {
-                    jobBuilder.addConstraint(Constraints.parseFrom(constraintsJson.getJSONArray(j)));
+        }
+        reader.endObject();
+        if (uuid == null) {
+            throw new JSONException("JSONObject[\"uuid\"] not found.");
+        }
+        if (status == null) {
+            throw new JSONException("JSONObject[\"status\"] not found.");
+        }
+        return new Job(uuid, status,
+                new LazyDetails(reader.toString(), start, reader.getPosition(), spans, decorator));
+    }
+
+    /**
+     * The members of a lazily parsed job, each decoded at most once from the text of the response holding the job.
+     * The members in {@link #MEMBERS} are decoded separately from their own spans of the text and the other members
+     * are decoded together into a {@link Job} from the whole text of the job.
+     */
+    private static final class LazyDetails {
+
+        /**
+         * The members decoded separately, in the order of their slots.
+         */
+        static final List<String> MEMBERS = ImmutableList.of(
+                "env", "labels", "uris", "constraints", "container", "instances", "datasets");
+
+        static final int ENV = 0;
+        static final int LABELS = 1;
+        static final int URIS = 2;
+        static final int CONSTRAINTS = 3;
+        static final int CONTAINER = 4;
+        static final int INSTANCES = 5;
+        static final int DATASETS = 6;
+        /**
+         * The slot of the {@link Job} holding the members which are not in {@link #MEMBERS}.
+         */
+        static final int OTHERS = 7;
+
+        private static final Set<Field> OTHER_FIELDS = EnumSet.complementOf(EnumSet.of(
+                Field.ENV, Field.LABELS, Field.URIS, Field.CONSTRAINTS, Field.CONTAINER, Field.INSTANCES,
+                Field.DATASETS));
+
+        /**
+         * Stands for a member which was decoded to {@code null}.
+         */
+        private static final Object NONE = new Object();
+
+        private final String _json;
+        private final int _start;
+        private final int _end;
+        /**
+         * The start and end offsets of the members in {@link #MEMBERS}, or -1 for the members which are absent.
+         */
+        private final int[] _spans;
+        private final InstanceDecorator _decorator;
+        private final AtomicReferenceArray<Object> _values = new AtomicReferenceArray<>(OTHERS + 1);
+
+        LazyDetails(String json, int start, int end, int[] spans, InstanceDecorator decorator) {
+            _json = json;
+            _start = start;
+            _end = end;
+            _spans = spans;
+            _decorator = decorator;
+        }
+
+        /**
+         * @return the member in {@code slot}, decoding it if this is the first access. Concurrent first accesses
+         *         may decode a member more than once, but all of them return the same value.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T get(int slot)
+                throws JSONException {
+            Object value = _values.get(slot);
+            if (value == null) {
+                value = decode(slot);
+                if (value == null) {
+                    value = NONE;
                 }
-            }
-            JSONArray groupsJson = json.optJSONArray("groups");
-            if (groupsJson != null) {
-                for (int j = 0; j < groupsJson.length(); j++) {
-                    jobBuilder._setGroupByUUID(UUID.fromString(groupsJson.getString(j)));
+                if (!_values.compareAndSet(slot, null, value)) {
+                    value = _values.get(slot);
                 }
             }
-            jobBuilder.addInstances(Instance.parseFromJSON(json.getJSONArray("instances"), decorator));
-            if (json.has("application")) {
-                JSONObject applicationJson = json.getJSONObject("application");
-                jobBuilder.setApplication(Application.parseFromJSON(applicationJson));
-            }
-            if (json.has("expected_runtime")) {
-                jobBuilder.setExpectedRuntime(json.getLong("expected_runtime"));
-            }
-            if (json.has("progress_output_file")) {
-                jobBuilder.setProgressOutputFile(json.getString("progress_output_file"));
+            return value == NONE ? null : (T) value;
+        }
+
+        private Object decode(int slot)
+                throws JSONException {
+            if (slot == OTHERS) {
+                final JsonReader reader = new JsonReader(_json, _start, _end);
+                final Job job = readJob(reader, _decorator, OTHER_FIELDS, true);
+                reader.endDocument();
+                return job;
             }
-            if (json.has("progress_regex_string")) {
-                jobBuilder.setProgressRegexString(json.getString("progress_regex_string"));
+            if (_spans[2 * slot] < 0) {
+                return absent(slot);
             }
-            if (json.has("datasets")) {
-                jobBuilder.setDatasets(json.getJSONArray("datasets"));
+            final JsonReader reader = new JsonReader(_json, _spans[2 * slot], _spans[2 * slot + 1]);
+            final Object value;
+            switch (slot) {
+                case ENV:
+                case LABELS:
+                    value = ImmutableMap.copyOf(reader.nextStringMap());
+                    break;
+                case URIS:
+                    final ImmutableList.Builder<FetchableURI> uris = ImmutableList.builder();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        uris.add(FetchableURI.readUri(reader));
+                    }
+                    reader.endArray();
+                    value = uris.build();
+                    break;
+                case CONSTRAINTS:
+                    final ImmutableSet.Builder<Constraint> constraints = ImmutableSet.builder();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        constraints.add(Constraints.parseFrom(new JSONArray(reader.nextRaw())));
+                    }
+                    reader.endArray();
+                    value = constraints.build();
+                    break;
+                case CONTAINER:
+                    value = new JSONObject(reader.nextRaw());
+                    break;
+                case INSTANCES:
+                    value = InstanceList.copyOf(Instance.readInstances(reader, _decorator));
+                    break;
+                default:
+                    value = new JSONArray(reader.nextRaw());
+                    break;
             }
-            if (json.has("pool")) {
-                jobBuilder.setPool(json.getString("pool"));
+            reader.endDocument();
+            return value;
+        }
+
+        /**
+         * @return the value of the member in {@code slot} of a job which lacks that member.
+         */
+        private static Object absent(int slot)
+                throws JSONException {
+            switch (slot) {
+                case ENV:
+                case LABELS:
+                    return ImmutableMap.of();
+                case URIS:
+                    return ImmutableList.of();
+                case CONSTRAINTS:
+                    return ImmutableSet.of();
+                case INSTANCES:
+                    throw new JSONException("JSONObject[\"instances\"] not found.");
+                default:
+                    return null;
             }
-            jobs.add(jobBuilder.build());
         }
-        return jobs;
     }
 
     /**
@@ -1145,13 +1782,14 @@ final public class Job {
 
     @Override
     public String toString() {
+        final Job job = details();
         StringBuilder stringBuilder = new StringBuilder(512);
         stringBuilder
-                .append("Job [_uuid=" + _uuid + ", _name=" + _name + ", _command=" + _command + ", _executor=" + _executor
-                    + ", _memory=" + _memory + ", _cpus=" + _cpus + ", _retries=" + _retries
-                    + ", _maxRuntime=" + _maxRuntime + ", _status=" + _status + ", _priority=" + _priority + ", _pool=" + _pool
-                    + ", _progressOutputFile=" + _progressOutputFile + ", _progressRegexString=" + _progressRegexString
-                    + ", _isMeaCulpaRetriesDisabled=" + _isMeaCulpaRetriesDisabled + ", _user=" + _user + "]");
+                .append("Job [_uuid=" + _uuid + ", _name=" + job._name + ", _command=" + job._command + ", _executor=" + job._executor
+                    + ", _memory=" + job._memory + ", _cpus=" + job._cpus + ", _retries=" + job._retries
+                    + ", _maxRuntime=" + job._maxRuntime + ", _status=" + _status + ", _priority=" + job._priority + ", _pool=" + job._pool
+                    + ", _progressOutputFile=" + job._progressOutputFile + ", _progressRegexString=" + job._progressRegexString
+                    + ", _isMeaCulpaRetriesDisabled=" + job._isMeaCulpaRetriesDisabled + ", _user=" + job._user + "]");
         stringBuilder.append('\n');
         for (Instance instance : getInstances()) {
             stringBuilder.append(instance.toString()).append('\n');
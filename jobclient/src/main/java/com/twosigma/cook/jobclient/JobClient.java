@@ -16,27 +16,43 @@
 
 package com.twosigma.cook.jobclient;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.security.Principal;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
@@ -55,19 +71,29 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.auth.SPNegoSchemeFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.StandardHttpRequestRetryHandler;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -121,6 +147,10 @@ public class JobClient implements Closeable, JobClientInterface {
 
         public static final int DEFAULT_SUBMIT_RETRY_INTERVAL_SECONDS = 10;
 
+        public static final int DEFAULT_REQUEST_PARALLELISM = 4;
+
+        public static final int DEFAULT_ADMISSION_TIMEOUT_SECONDS = 300;
+
         /**
          * An interval in seconds which will be used to query job status update periodically.
          */
@@ -141,10 +171,49 @@ public class JobClient implements Closeable, JobClientInterface {
          */
         private Integer _requestTimeoutSeconds;
 
+        /**
+         * The maximum number of requests of a single operation which are sent to the scheduler in parallel.
+         */
+        private Integer _requestParallelism;
+
+        /**
+         * The maximum number of submitted jobs which may be waiting to be scheduled, or {@code null} if submissions
+         * are not held back.
+         */
+        private Integer _maxOutstandingWaitingJobs;
+
+        /**
+         * The timeout in seconds for a submission which is held back by admission control.
+         */
+        private Integer _admissionTimeoutSeconds;
+
+        /**
+         * The minimum job priority of the high priority submission lane, or {@code null} if lanes are disabled.
+         */
+        private Integer _minHighPriority;
+
+        /**
+         * The number of in-flight requests reserved for the high priority submission lane.
+         */
+        private Integer _reservedHighPriorityRequests;
+
         private HttpClientBuilder _httpClientBuilder;
 
         private InstanceDecorator _instanceDecorator;
 
+        private boolean _binaryEncoding;
+
+        private Integer _parsingParallelism;
+
+        private JobClientMetrics _metrics = JobClientMetrics.NOOP;
+
+        private JobLifecycleTracker _lifecycleTracker;
+
+        /**
+         * The maximum total weight of the cache of completed jobs, or {@code null} if completed jobs are not cached.
+         */
+        private Long _completedJobCacheWeight;
+
         public Builder() {
             _httpClientBuilder = HttpClientBuilder.create();
         }
@@ -169,6 +238,23 @@ public class JobClient implements Closeable, JobClientInterface {
             if (_requestTimeoutSeconds == null) {
                 _requestTimeoutSeconds = DEFAULT_REQUEST_TIMEOUT_SECONDS;
             }
+            if (_requestParallelism == null) {
+                _requestParallelism = DEFAULT_REQUEST_PARALLELISM;
+            }
+            if (_admissionTimeoutSeconds == null) {
+                _admissionTimeoutSeconds = DEFAULT_ADMISSION_TIMEOUT_SECONDS;
+            }
+            AdmissionController admissionController = null;
+            if (_maxOutstandingWaitingJobs != null) {
+                admissionController = new AdmissionController(_maxOutstandingWaitingJobs, _admissionTimeoutSeconds);
+            }
+            SubmissionLanes lanes = null;
+            int maxRequestsInFlight = _requestParallelism;
+            if (_minHighPriority != null) {
+                lanes = new SubmissionLanes(_minHighPriority, _requestParallelism, _reservedHighPriorityRequests,
+                        _admissionTimeoutSeconds);
+                maxRequestsInFlight = lanes.getMaxInFlight();
+            }
             RequestConfig requestConfig = RequestConfig.custom()
                 .setSocketTimeout(_requestTimeoutSeconds * 1000)
                 .setConnectTimeout(_requestTimeoutSeconds * 1000)
@@ -176,6 +262,12 @@ public class JobClient implements Closeable, JobClientInterface {
                 .build();
             _httpClientBuilder.setDefaultRequestConfig(requestConfig);
             _httpClientBuilder.setRetryHandler(new StandardHttpRequestRetryHandler());
+            // Leave room for the status update poller and the calling thread next to the parallel requests. The pool
+            // is created here rather than by the HTTP client builder so that its usage can be reported.
+            final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setDefaultMaxPerRoute(maxRequestsInFlight + 2);
+            connectionManager.setMaxTotal(maxRequestsInFlight + 2);
+            _httpClientBuilder.setConnectionManager(connectionManager);
             return new JobClient(
                     Preconditions.checkNotNull(_host, "host must be set"),
                     Preconditions.checkNotNull(_port, "port must be set"),
@@ -184,7 +276,16 @@ public class JobClient implements Closeable, JobClientInterface {
                     _statusUpdateIntervalSeconds,
                     _submitRetryIntervalSeconds,
                     _batchRequestSize,
+                    _requestParallelism,
+                    admissionController,
+                    lanes,
                     _instanceDecorator,
+                    _binaryEncoding,
+                    _parsingParallelism,
+                    _metrics,
+                    _lifecycleTracker,
+                    _completedJobCacheWeight,
+                    connectionManager,
                     _httpClientBuilder.build());
         }
 
@@ -389,8 +490,184 @@ public class JobClient implements Closeable, JobClientInterface {
         }
 
         public  InstanceDecorator getInstanceDecorator() { return  _instanceDecorator; }
+
+        /**
+         * Set the maximum number of requests which the job client expected to build sends to the Cook scheduler in
+         * parallel when a single operation, e.g. a large submission of jobs and groups, is split into several
+         * requests.
+         *
+         * @param requestParallelism specifies the maximum number of parallel requests per operation.
+         * @return this builder.
+         */
+        public Builder setRequestParallelism(int requestParallelism) {
+            Preconditions.checkArgument(requestParallelism > 0, "The request parallelism must be > 0.");
+            _requestParallelism = requestParallelism;
+            return this;
+        }
+
+        public Integer getRequestParallelism() {
+            return _requestParallelism;
+        }
+
+        /**
+         * Enable admission control for the job client expected to build. Submissions are held back while the number
+         * of jobs submitted through the client which have not been observed to start running would exceed the given
+         * maximum, and are released as the status update poller sees jobs start. A submission which is held back for
+         * longer than the admission timeout fails with a {@link JobClientException}.
+         *
+         * @param maxOutstandingWaitingJobs specifies the maximum number of submitted jobs waiting to be scheduled.
+         * @return this builder.
+         */
+        public Builder setMaxOutstandingWaitingJobs(int maxOutstandingWaitingJobs) {
+            Preconditions.checkArgument(maxOutstandingWaitingJobs > 0, "The max outstanding waiting jobs must be > 0.");
+            _maxOutstandingWaitingJobs = maxOutstandingWaitingJobs;
+            return this;
+        }
+
+        public Integer getMaxOutstandingWaitingJobs() {
+            return _maxOutstandingWaitingJobs;
+        }
+
+        /**
+         * Set how long a submission may be held back by admission control before it fails.
+         *
+         * @param timeoutSeconds specifies the admission timeout in seconds.
+         * @return this builder.
+         * @see #setMaxOutstandingWaitingJobs(int)
+         */
+        public Builder setAdmissionTimeout(int timeoutSeconds) {
+            Preconditions.checkArgument(timeoutSeconds > 0, "The admission timeout seconds must be > 0.");
+            _admissionTimeoutSeconds = timeoutSeconds;
+            return this;
+        }
+
+        public Integer getAdmissionTimeout() {
+            return _admissionTimeoutSeconds;
+        }
+
+        /**
+         * Enable priority lanes for the submissions of the job client expected to build. A submission request is in
+         * the high priority lane if any of its jobs has a priority of at least {@code minHighPriority}. High priority
+         * requests are sent ahead of queued normal requests, are admitted first by admission control, and may use
+         * {@code reservedRequests} connections in addition to the request parallelism which normal requests can never
+         * occupy.
+         *
+         * @param minHighPriority specifies the minimum job priority of the high priority lane.
+         * @param reservedRequests specifies the number of in-flight requests reserved for the high priority lane.
+         * @return this builder.
+         * @see #setRequestParallelism(int)
+         */
+        public Builder setHighPriorityLane(int minHighPriority, int reservedRequests) {
+            Preconditions.checkArgument(reservedRequests >= 0, "The reserved requests must be >= 0.");
+            _minHighPriority = minHighPriority;
+            _reservedHighPriorityRequests = reservedRequests;
+            return this;
+        }
+
+        public Integer getMinHighPriority() {
+            return _minHighPriority;
+        }
+
+        public Integer getReservedHighPriorityRequests() {
+            return _reservedHighPriorityRequests;
+        }
+
+        /**
+         * Enable binary encoding of the responses to job and group queries for the job client expected to build. The
+         * client then asks for CBOR, a binary encoding of the same schema, and still accepts JSON, so it transparently
+         * falls back to JSON if the scheduler does not support CBOR. Requests are always sent as JSON.
+         *
+         * @param binaryEncoding specifies whether to ask for binary responses.
+         * @return this builder.
+         */
+        public Builder setBinaryEncoding(boolean binaryEncoding) {
+            _binaryEncoding = binaryEncoding;
+            return this;
+        }
+
+        public boolean getBinaryEncoding() {
+            return _binaryEncoding;
+        }
+
+        /**
+         * Enable parallel parsing of large responses to job and group queries for the job client expected to build.
+         * The jobs or groups of a JSON response are then split by a fast structural scan and decoded on a dedicated
+         * fork-join pool of the specified parallelism, in their original order. Small responses and binary responses
+         * are still parsed on the calling thread. If set, the instance decorator must be thread safe.
+         *
+         * @param parsingParallelism specifies the number of threads parsing a response, e.g. the number of cores.
+         * @return this builder.
+         */
+        public Builder setParsingParallelism(int parsingParallelism) {
+            Preconditions.checkArgument(parsingParallelism > 0, "The parsing parallelism must be > 0.");
+            _parsingParallelism = parsingParallelism;
+            return this;
+        }
+
+        public Integer getParsingParallelism() {
+            return _parsingParallelism;
+        }
+
+        /**
+         * Set the metrics to report the requests, parsing and status polling of the job client expected to build to,
+         * e.g. a {@link DefaultJobClientMetrics}. By default, no metrics are recorded.
+         *
+         * @param metrics specifies the metrics, which must be thread safe.
+         * @return this builder.
+         */
+        public Builder setMetrics(JobClientMetrics metrics) {
+            _metrics = Preconditions.checkNotNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public JobClientMetrics getMetrics() {
+            return _metrics;
+        }
+
+        /**
+         * Record the timeline of every tracked job of the job client expected to build, from its submission to
+         * observing it running and completed, see {@link JobLifecycleTracker}. By default, no timelines are recorded.
+         *
+         * @param lifecycleTracker specifies the tracker to record the timelines in.
+         * @return this builder.
+         */
+        public Builder setLifecycleTracker(JobLifecycleTracker lifecycleTracker) {
+            _lifecycleTracker = Preconditions.checkNotNull(lifecycleTracker, "lifecycleTracker must not be null");
+            return this;
+        }
+
+        public JobLifecycleTracker getLifecycleTracker() {
+            return _lifecycleTracker;
+        }
+
+        /**
+         * Cache the completed jobs which queries of the job client expected to build return, so that querying them
+         * again is answered from the cache rather than by the scheduler, as completed jobs never change. Only queries
+         * of whole jobs fill the cache, e.g. {@link JobClient#queryJobs(Collection)} and
+         * {@link JobClient#queryGroupJobs(Group)}. The weight of a job is one plus its number of instances, and the
+         * least recently used jobs are evicted when the total weight exceeds the maximum. Note that a cached job which
+         * is retried through the {@code /retry} endpoint of the scheduler keeps being returned as completed until it is
+         * evicted. By default, no jobs are cached.
+         *
+         * @param maxWeight specifies the maximum total weight of the cached jobs.
+         * @return this builder.
+         */
+        public Builder setCompletedJobCacheWeight(long maxWeight) {
+            Preconditions.checkArgument(maxWeight > 0, "The maximum weight of the completed job cache must be > 0.");
+            _completedJobCacheWeight = maxWeight;
+            return this;
+        }
+
+        public Long getCompletedJobCacheWeight() {
+            return _completedJobCacheWeight;
+        }
     }
 
+    /**
+     * The value of the {@code Accept} header of queries when binary encoding is enabled.
+     */
+    static final String BINARY_ACCEPT = CborReader.MIME_TYPE + ", application/json;q=0.9";
+
     /**
      * The URI for the Cook scheduler job endpoint.
      */
@@ -406,18 +683,71 @@ public class JobClient implements Closeable, JobClientInterface {
      */
     private final CloseableHttpClient _httpClient;
 
+    /**
+     * The pool of connections of {@code _httpClient}.
+     */
+    private final PoolingHttpClientConnectionManager _connectionManager;
+
+    /**
+     * The number of requests waiting for a response per {@link JobClientMetrics.Operation}.
+     */
+    private final AtomicIntegerArray _inFlightRequests =
+            new AtomicIntegerArray(JobClientMetrics.Operation.values().length);
+
+    /**
+     * The number of tracked jobs per {@link Job.Status} and of tracked groups per {@link Group.Status}, kept up to
+     * date whenever a job or group is tracked, updated or untracked.
+     */
+    private final AtomicIntegerArray _trackedJobCounts = new AtomicIntegerArray(Job.Status.values().length);
+
+    private final AtomicIntegerArray _trackedGroupCounts = new AtomicIntegerArray(Group.Status.values().length);
+
+    /**
+     * The duration in milliseconds of the last status update cycle, or -1 if none has run yet.
+     */
+    private volatile long _lastPollCycleMillis = -1;
+
+    /**
+     * The time in milliseconds when the last successful status update cycle ended, or 0 if none has.
+     */
+    private volatile long _lastSuccessfulPollMillis;
+
     /**
      * A {@link ScheduledExecutorService} for pulling job status and invoking listener.
      */
     private final ScheduledExecutorService _listenerService;
 
     /**
-     * A map from job UUID to job which is an internal map for tracking active jobs, i.e. non successfully completed
-     * jobs. Note that this map will be modified when<br>
+     * An {@link ExecutorService} for sending the independent requests of a single submission in parallel.
+     */
+    private final ThreadPoolExecutor _requestService;
+
+    /**
+     * An {@link ExecutorService} for sending the partitions of an abort in parallel. Its threads are separate from
+     * those of {@code _requestService}, which may all be blocked by admission control or the submission lanes, so
+     * that aborting jobs never waits for submissions.
+     */
+    private final ThreadPoolExecutor _abortService;
+
+    /**
+     * The admission controller holding back submissions while too many submitted jobs are waiting, or {@code null}
+     * if admission control is disabled.
+     */
+    private final AdmissionController _admissionController;
+
+    /**
+     * The priority lanes of outgoing submission requests, or {@code null} if all submissions are treated equally.
+     */
+    private final SubmissionLanes _lanes;
+
+    /**
+     * A map from job UUID to a {@link JobSnapshot} of the job which is an internal map for tracking active jobs, i.e.
+     * non successfully completed jobs. Full {@link Job}s are only materialized by status queries and handed to
+     * listeners. Note that this map will be modified when<br>
      * -- a job is successfully submitted to Cook scheduler where a new map entry is added;<br>
      * -- and a job is successfully completed where old map entry is removed.
      */
-    private final Map<UUID, Job> _activeUUIDToJob;
+    private final Map<UUID, JobSnapshot> _activeUUIDToJob;
 
     /**
      * A map from job UUID to its associated {@link JobListener}. Note that the keys of the following map should be a
@@ -461,9 +791,43 @@ public class JobClient implements Closeable, JobClientInterface {
      */
     private InstanceDecorator _instanceDecorator;
 
+    /**
+     * Whether to ask for binary responses to queries, see {@link Builder#setBinaryEncoding(boolean)}.
+     */
+    private final boolean _binaryEncoding;
+
+    /**
+     * The pool to parse large responses on, or {@code null} to parse on the calling thread, see
+     * {@link Builder#setParsingParallelism(int)}.
+     */
+    private final ForkJoinPool _parsePool;
+
+    /**
+     * The metrics to report to, see {@link Builder#setMetrics(JobClientMetrics)}.
+     */
+    private final JobClientMetrics _metrics;
+
+    /**
+     * The tracker to record the timelines of jobs in, or {@code null} to record none, see
+     * {@link Builder#setLifecycleTracker(JobLifecycleTracker)}.
+     */
+    private final JobLifecycleTracker _lifecycleTracker;
+
+    /**
+     * The completed jobs returned by queries, or {@code null} if they are not cached, see
+     * {@link Builder#setCompletedJobCacheWeight(long)}.
+     */
+    private final Cache<UUID, Job> _completedJobCache;
+
     private JobClient(String host, int port, String jobEndpoint, String groupEndpoint, int statusUpdateInterval,
-                      int submitRetryInterval, int batchSubmissionLimit, InstanceDecorator instanceDecorator,
-                      CloseableHttpClient httpClient) throws URISyntaxException {
+                      int submitRetryInterval, int batchSubmissionLimit, int requestParallelism,
+                      AdmissionController admissionController, SubmissionLanes lanes,
+                      InstanceDecorator instanceDecorator, boolean binaryEncoding, Integer parsingParallelism,
+                      JobClientMetrics metrics, JobLifecycleTracker lifecycleTracker, Long completedJobCacheWeight,
+                      PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient)
+        throws URISyntaxException {
+        _metrics = metrics;
+        _lifecycleTracker = lifecycleTracker;
         _statusUpdateInterval = statusUpdateInterval;
         _submitRetryInterval = submitRetryInterval;
         _batchRequestSize = batchSubmissionLimit;
@@ -478,15 +842,175 @@ public class JobClient implements Closeable, JobClientInterface {
             _groupURI = null;
         }
         _httpClient = httpClient;
+        _connectionManager = connectionManager;
+        _admissionController = admissionController;
+        _lanes = lanes;
         _log.info("Open ScheduledExecutorService for listener.");
         _listenerService = startListenService();
+        final ThreadFactory requestThreadFactory =
+                new ThreadFactoryBuilder().setNameFormat("cook-jobclient-request-%d").setDaemon(true).build();
+        if (lanes != null) {
+            _requestService = lanes.newRequestExecutor(requestThreadFactory);
+        } else {
+            _requestService = new ThreadPoolExecutor(requestParallelism, requestParallelism, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(), requestThreadFactory);
+        }
+        _abortService = new ThreadPoolExecutor(requestParallelism, requestParallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("cook-jobclient-abort-%d").setDaemon(true).build());
         _instanceDecorator = instanceDecorator;
+        _binaryEncoding = binaryEncoding;
+        _parsePool = parsingParallelism == null ? null : new ForkJoinPool(parsingParallelism);
+        if (completedJobCacheWeight != null) {
+            _completedJobCache = CacheBuilder.newBuilder()
+                    .maximumWeight(completedJobCacheWeight)
+                    .weigher(new Weigher<UUID, Job>() {
+                        @Override
+                        public int weigh(UUID uuid, Job job) {
+                            return 1 + job.getInstances().size();
+                        }
+                    })
+                    .recordStats()
+                    .build();
+        } else {
+            _completedJobCache = null;
+        }
+    }
+
+    /**
+     * Create a GET request for a query, asking for a binary response if binary encoding is enabled.
+     */
+    private HttpGet newQuery(URI uri) {
+        final HttpGet request = new HttpGet(uri);
+        if (_binaryEncoding) {
+            request.setHeader(HttpHeaders.ACCEPT, BINARY_ACCEPT);
+        }
+        return request;
+    }
+
+    /**
+     * Create a reader for the body of a response to a query in the encoding chosen by the scheduler, i.e. CBOR if
+     * the content type says so and JSON otherwise. The entity is fully consumed and its size reported.
+     */
+    private ValueReader newResponseReader(JobClientMetrics.Operation operation, HttpEntity entity)
+        throws IOException {
+        final ContentType contentType = ContentType.get(entity);
+        final byte[] body = EntityUtils.toByteArray(entity);
+        _metrics.onBytesReceived(operation, body.length);
+        if (contentType != null && CborReader.MIME_TYPE.equalsIgnoreCase(contentType.getMimeType())) {
+            return new CborReader(body);
+        }
+        // Decode as EntityUtils.toString(HttpEntity) does.
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        if (charset == null) {
+            charset = HTTP.DEF_CONTENT_CHARSET;
+        }
+        return new JsonReader(new String(body, charset));
+    }
+
+    /**
+     * Execute a request for the given number of jobs, groups or UUIDs once and report its outcome and latency.
+     */
+    private HttpResponse execute(JobClientMetrics.Operation operation, HttpRequestBase request, int batchSize)
+        throws IOException {
+        _metrics.onBatch(operation, batchSize);
+        final Object event = ClientEvents.beginRequest();
+        final long start = System.nanoTime();
+        final HttpResponse response;
+        try {
+            response = send(operation, request);
+        } catch (IOException e) {
+            _metrics.onRequest(operation, JobClientMetrics.Outcome.FAILED, System.nanoTime() - start);
+            ClientEvents.endRequest(event, request, batchSize, 0);
+            throw e;
+        }
+        _metrics.onRequest(operation, outcomeOf(response), System.nanoTime() - start);
+        ClientEvents.endRequest(event, request, batchSize, statusCodeOf(response));
+        return response;
+    }
+
+    /**
+     * Send a request once, counting it as in flight until the response arrives.
+     */
+    private HttpResponse send(JobClientMetrics.Operation operation, HttpRequestBase request)
+        throws IOException {
+        _inFlightRequests.incrementAndGet(operation.ordinal());
+        try {
+            return _httpClient.execute(request);
+        } finally {
+            _inFlightRequests.decrementAndGet(operation.ordinal());
+        }
+    }
+
+    /**
+     * Execute a request for the given number of jobs or UUIDs with retries, see
+     * {@link #executeWithRetries(HttpRequestBase, int, long)}.
+     */
+    private HttpResponse executeBatchWithRetries(HttpRequestBase request, int batchSize, int maxRetries,
+                                                 long baseIntervalSeconds)
+        throws IOException {
+        _metrics.onBatch(operationOf(request), batchSize);
+        final Object event = ClientEvents.beginRequest();
+        HttpResponse response = null;
+        try {
+            response = executeWithRetries(request, maxRetries, baseIntervalSeconds);
+            return response;
+        } finally {
+            ClientEvents.endRequest(event, request, batchSize, statusCodeOf(response));
+        }
+    }
+
+    /**
+     * @return the status code of a response, or 0 if there is no response.
+     */
+    private static int statusCodeOf(HttpResponse response) {
+        final StatusLine statusLine = response == null ? null : response.getStatusLine();
+        return statusLine == null ? 0 : statusLine.getStatusCode();
+    }
+
+    /**
+     * @return the operation which a request to the scheduler belongs to, judging by its method and endpoint.
+     */
+    private JobClientMetrics.Operation operationOf(HttpRequestBase request) {
+        switch (request.getMethod()) {
+            case HttpPost.METHOD_NAME:
+                return JobClientMetrics.Operation.SUBMIT;
+            case HttpDelete.METHOD_NAME:
+                return JobClientMetrics.Operation.ABORT;
+            default:
+                final URI uri = request.getURI();
+                return _groupURI != null && uri != null && _groupURI.getPath().equals(uri.getPath())
+                        ? JobClientMetrics.Operation.QUERY_GROUPS
+                        : JobClientMetrics.Operation.QUERY_JOBS;
+        }
+    }
+
+    private static JobClientMetrics.Outcome outcomeOf(HttpResponse response) {
+        final StatusLine statusLine = response.getStatusLine();
+        if (statusLine != null && statusLine.getStatusCode() / 100 == 2) {
+            return JobClientMetrics.Outcome.SUCCESS;
+        }
+        return JobClientMetrics.Outcome.REJECTED;
+    }
+
+    /**
+     * Report the size of the body of a response to a submission or abort, if known.
+     */
+    private void reportBytesReceived(JobClientMetrics.Operation operation, HttpEntity entity) {
+        if (entity != null && entity.getContentLength() >= 0) {
+            _metrics.onBytesReceived(operation, entity.getContentLength());
+        }
     }
 
     @Override
     public void close() {
         _log.info("Close ScheduledExecutorService for listener.");
         _listenerService.shutdownNow();
+        _requestService.shutdownNow();
+        _abortService.shutdownNow();
+        if (_parsePool != null) {
+            _parsePool.shutdownNow();
+        }
     }
 
     private ScheduledExecutorService startListenService() {
@@ -502,91 +1026,151 @@ public class JobClient implements Closeable, JobClientInterface {
         scheduledExecutorService.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
-                // Process Jobs and JobListeners first
-                // Simply return if there is no listener.
-                if (!_jobUUIDToListener.isEmpty()) {
-                    // Query active jobs
-                    Map<UUID, Job> currentUUIDToJob;
+                final Object event = ClientEvents.beginPollCycle();
+                final long start = System.nanoTime();
+                try {
+                    if (pollStatus()) {
+                        _lastSuccessfulPollMillis = System.currentTimeMillis();
+                    }
+                } catch (RuntimeException e) {
+                    // An exception escaping this runnable would cancel all later status update cycles.
+                    _log.error("Failed to update the status of jobs and groups.", e);
+                } finally {
+                    final long elapsed = System.nanoTime() - start;
+                    _lastPollCycleMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                    _metrics.onPollCycle(elapsed, _activeUUIDToJob.size(), _activeUUIDToGroup.size());
+                    ClientEvents.endPollCycle(event, _activeUUIDToJob.size(), _activeUUIDToGroup.size());
+                }
+            }
+        }, _statusUpdateInterval, _statusUpdateInterval, TimeUnit.SECONDS);
+        return scheduledExecutorService;
+    }
+
+    /**
+     * Poll the status of the tracked jobs and groups once, invoking the listeners of those which changed.
+     *
+     * @return whether the status of all tracked jobs and groups which need polling was queried successfully.
+     */
+    private boolean pollStatus() {
+        // Process Jobs and JobListeners first
+        // Simply return if there is no listener and no admission control waiting for jobs to start.
+        if (!_jobUUIDToListener.isEmpty()
+                || (_admissionController != null && _admissionController.getOutstanding() > 0)) {
+            // Query active jobs
+            Map<UUID, Job> currentUUIDToJob;
+            try {
+                currentUUIDToJob = queryJobs(_activeUUIDToJob.keySet(), null, true);
+            } catch (JobClientException e) {
+                // Catch and log
+                _log.warn("Failed to query job status for jobs " + _activeUUIDToJob.keySet(), e);
+                return false;
+            }
+            final long receivedNanos = System.nanoTime();
+            final long receivedMillis = System.currentTimeMillis();
+
+            // Invoke listeners and update maps for job
+            for (Map.Entry<UUID, Job> entry : currentUUIDToJob.entrySet()) {
+                UUID juuid = entry.getKey();
+                Job currentJob = entry.getValue();
+                final JobSnapshot previousJob = _activeUUIDToJob.get(juuid);
+                if (previousJob.getStatus() != currentJob.getStatus()) {
+                    // The job was parsed lazily, so decode it before acting on it and skip it if it is malformed. It
+                    // stays tracked with its previous status and is queried again in the next cycle.
+                    final JobSnapshot currentSnapshot;
                     try {
-                        currentUUIDToJob = queryJobs(_activeUUIDToJob.keySet());
-                    } catch (JobClientException e) {
-                        // Catch and log
-                        _log.warn("Failed to query job status for jobs " + _activeUUIDToJob.keySet(), e);
-                        return;
+                        currentSnapshot = JobSnapshot.of(currentJob);
+                    } catch (RuntimeException e) {
+                        _log.warn("Failed to decode the status update of job " + juuid + ", skipping it.", e);
+                        continue;
+                    }
+                    if (_lifecycleTracker != null) {
+                        _lifecycleTracker.onObserved(currentJob, receivedMillis);
+                    }
+                    // Release the admission of jobs which are no longer waiting to be scheduled.
+                    if (isWaiting(previousJob.getStatus()) && !isWaiting(currentJob.getStatus())) {
+                        releaseAdmission(1);
                     }
 
-                    // Invoke listeners and update maps for job
-                    for (Map.Entry<UUID, Job> entry : currentUUIDToJob.entrySet()) {
-                        UUID juuid = entry.getKey();
-                        Job currentJob = entry.getValue();
-                        if (!_activeUUIDToJob.get(juuid).equals(currentJob)) {
-                            // Firstly, invoke job listener if there is a listener associated to this job.
-                            final JobListener listener = _jobUUIDToListener.get(juuid);
-                            if (listener != null) {
-                                // XXX It is completely debatable what should be the correct behavior here
-                                // when a listener throws an exception. We have the following possible options:
-                                // 1. simply propagate the exception;
-                                // 2. keep {@code _activeUUIDToJob} being unchanged and retrying in the next cycle;
-                                // 3. simply log the error but the listener will miss this status
-                                // update (which is the current behavior).
-                                try {
-                                    listener.onStatusUpdate(currentJob);
-                                } catch (Exception e) {
-                                    _log.warn("Failed to invoke listener onStatusUpdate() for " + currentJob
-                                            + ". The listener service won't deliver this message again.", e);
-                                }
-                            }
+                    // Firstly, invoke job listener if there is a listener associated to this job.
+                    final JobListener listener = _jobUUIDToListener.get(juuid);
+                    if (listener != null) {
+                        // XXX It is completely debatable what should be the correct behavior here
+                        // when a listener throws an exception. We have the following possible options:
+                        // 1. simply propagate the exception;
+                        // 2. keep {@code _activeUUIDToJob} being unchanged and retrying in the next cycle;
+                        // 3. simply log the error but the listener will miss this status
+                        // update (which is the current behavior).
+                        _metrics.onListenerDispatch(System.nanoTime() - receivedNanos);
+                        if (_lifecycleTracker != null) {
+                            _lifecycleTracker.onNotified(currentJob, System.currentTimeMillis());
+                        }
+                        final Object event = ClientEvents.beginListener();
+                        try {
+                            listener.onStatusUpdate(currentJob);
+                        } catch (Exception e) {
+                            _log.warn("Failed to invoke listener onStatusUpdate() for job " + juuid
+                                    + ". The listener service won't deliver this message again.", e);
+                        } finally {
+                            ClientEvents.endListener(event, juuid, currentJob.getStatus());
+                        }
+                    }
 
-                            // Secondly, update internal maps if necessary.
-                            if (currentJob.getStatus() != Job.Status.COMPLETED) {
-                                _activeUUIDToJob.put(juuid, currentJob);
-                            } else {
-                                _activeUUIDToJob.remove(juuid);
-                                _jobUUIDToListener.remove(juuid);
-                            }
+                    // Secondly, update internal maps if necessary.
+                    if (currentJob.getStatus() != Job.Status.COMPLETED) {
+                        trackJob(currentSnapshot);
+                    } else {
+                        untrackJob(juuid);
+                        _jobUUIDToListener.remove(juuid);
+                        if (_lifecycleTracker != null) {
+                            _lifecycleTracker.onUntracked(juuid);
                         }
                     }
                 }
-                if (!_groupUUIDToListener.isEmpty()) {
-                    // Now process Groups and GroupListeners
-                    // Query active groups
-                    Map<UUID, Group> currentUUIDToGroup;
-                    try {
-                        currentUUIDToGroup = queryGroups(_activeUUIDToGroup.keySet());
-                    } catch (JobClientException e) {
-                        // Catch and log
-                        _log.warn("Failed to query group status for groups " + _activeUUIDToGroup.keySet(), e);
-                        return;
+            }
+        }
+        if (!_groupUUIDToListener.isEmpty()) {
+            // Now process Groups and GroupListeners
+            // Query active groups
+            Map<UUID, Group> currentUUIDToGroup;
+            try {
+                currentUUIDToGroup = queryGroups(_activeUUIDToGroup.keySet());
+            } catch (JobClientException e) {
+                // Catch and log
+                _log.warn("Failed to query group status for groups " + _activeUUIDToGroup.keySet(), e);
+                return false;
+            }
+            final long receivedNanos = System.nanoTime();
+            // Invoke listeners and update maps for groups
+            for (Map.Entry<UUID, Group> entry : currentUUIDToGroup.entrySet()) {
+                UUID guuid = entry.getKey();
+                Group currentGroup = entry.getValue();
+                if (!_activeUUIDToGroup.get(guuid).equals(currentGroup)) {
+                    final GroupListener listener = _groupUUIDToListener.get(guuid);
+                    if (listener != null) {
+                    // Invoke group listeners
+                        _metrics.onListenerDispatch(System.nanoTime() - receivedNanos);
+                        final Object event = ClientEvents.beginListener();
+                        try {
+                            listener.onStatusUpdate(currentGroup);
+                        } catch (Exception e) {
+                            _log.warn("Failed to invoke listener onStatusUpdate() for " + currentGroup
+                                    + ". The listener service won't deliver this message again.", e);
+                        } finally {
+                            ClientEvents.endListener(event, guuid, currentGroup.getStatus());
+                        }
                     }
-                    // Invoke listeners and update maps for groups
-                    for (Map.Entry<UUID, Group> entry : currentUUIDToGroup.entrySet()) {
-                        UUID guuid = entry.getKey();
-                        Group currentGroup = entry.getValue();
-                        if (!_activeUUIDToGroup.get(guuid).equals(currentGroup)) {
-                            final GroupListener listener = _groupUUIDToListener.get(guuid);
-                            if (listener != null) {
-                            // Invoke group listeners
-                                try {
-                                    listener.onStatusUpdate(currentGroup);
-                                } catch (Exception e) {
-                                    _log.warn("Failed to invoke listener onStatusUpdate() for " + currentGroup
-                                            + ". The listener service won't deliver this message again.", e);
-                                }
-                            }
 
-                            // Secondly, update internal maps if necessary.
-                            if (currentGroup.getStatus() != Group.Status.COMPLETED) {
-                                _activeUUIDToGroup.put(guuid, currentGroup);
-                            } else {
-                                _activeUUIDToGroup.remove(guuid);
-                                _groupUUIDToListener.remove(guuid);
-                            }
-                        }
+                    // Secondly, update internal maps if necessary.
+                    if (currentGroup.getStatus() != Group.Status.COMPLETED) {
+                        trackGroup(currentGroup);
+                    } else {
+                        untrackGroup(guuid);
+                        _groupUUIDToListener.remove(guuid);
                     }
                 }
             }
-        }, _statusUpdateInterval, _statusUpdateInterval, TimeUnit.SECONDS);
-        return scheduledExecutorService;
+        }
+        return true;
     }
 
     @Override
@@ -604,7 +1188,8 @@ public class JobClient implements Closeable, JobClientInterface {
     /**
      * @see #submitWithGroups(List, List, GroupListener)
      */
-    private void submitWithGroups(List<Job> jobs, List<Group> groups, GroupListener listener, String impersonatedUser)
+    private void submitWithGroups(List<Job> jobs, List<Group> groups, GroupListener listener,
+                                  final String impersonatedUser)
         throws JobClientException {
         // It is ok to change the listeners map even if the actual submission fails because it won't
         // update the internal status map {@code _activeUUIDTOJob}.
@@ -614,22 +1199,106 @@ public class JobClient implements Closeable, JobClientInterface {
             }
         }
 
-        JSONObject json = new JSONObject();
+        // Pack whole groups into requests of bounded size and send them in parallel.
+        final List<SubmissionPlanner.Chunk> chunks = SubmissionPlanner.plan(jobs, groups, _batchRequestSize);
+        if (chunks.size() == 1) {
+            submitChunk(chunks.get(0).getJobs(), chunks.get(0).getGroups(), impersonatedUser);
+            return;
+        }
+        final List<Future<Void>> futures = new ArrayList<>(chunks.size());
+        for (final SubmissionPlanner.Chunk chunk : chunks) {
+            futures.add(_requestService.submit(SubmissionLanes.task(laneOf(chunk.getJobs()), new Callable<Void>() {
+                @Override
+                public Void call() throws JobClientException {
+                    submitChunk(chunk.getJobs(), chunk.getGroups(), impersonatedUser);
+                    return null;
+                }
+            })));
+        }
+        final Set<UUID> submittedGroups = new HashSet<>();
+        final Map<UUID, JobClientException> failedGroups = new HashMap<>();
+        final Map<UUID, JobClientException> failedJobs = new HashMap<>();
+        final List<JobClientException> failures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); ++i) {
+            final SubmissionPlanner.Chunk chunk = chunks.get(i);
+            JobClientException failure = null;
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new JobClientException("Interrupted while waiting for the submission of " + chunk, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof JobClientException) {
+                    failure = (JobClientException) e.getCause();
+                } else {
+                    failure = new JobClientException("Failed to submit " + chunk, e.getCause());
+                }
+            }
+            for (Group group : chunk.getGroups()) {
+                if (failure == null) {
+                    submittedGroups.add(group.getUUID());
+                } else {
+                    failedGroups.put(group.getUUID(), failure);
+                }
+            }
+            if (failure != null) {
+                failures.add(failure);
+                for (Job job : chunk.getJobs()) {
+                    failedJobs.put(job.getUUID(), failure);
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            final String msg = "Failed to submit " + failures.size() + " of " + chunks.size() + " requests with "
+                    + failedGroups.size() + " of " + groups.size() + " groups and " + failedJobs.size() + " of "
+                    + jobs.size() + " jobs via uri " + _jobURI;
+            _log.error(msg + ", failed groups are " + failedGroups.keySet());
+            throw new GroupSubmissionException(msg, submittedGroups, failedGroups, failedJobs, failures);
+        }
+    }
+
+    /**
+     * Submit jobs and groups to Cook scheduler in a single request once they are admitted.
+     *
+     * @see #submitWithGroups(List, List, GroupListener)
+     */
+    private void submitChunk(List<Job> jobs, List<Group> groups, String impersonatedUser)
+        throws JobClientException {
+        final SubmissionLanes.Lane lane = laneOf(jobs);
+        acquireAdmission(jobs.size(), lane);
         try {
-            JSONObject groupsJSON = Group.jsonizeGroups(groups);
-            JSONObject jobsJSON = Job.jsonizeJob(jobs);
-            json.put("groups", groupsJSON.getJSONArray("groups"));
-            json.put("jobs", jobsJSON.getJSONArray("jobs"));
+            acquireLane(lane);
+            try {
+                postJobsAndGroups(jobs, groups, impersonatedUser);
+            } finally {
+                releaseLane(lane);
+            }
+        } catch (JobClientException | RuntimeException e) {
+            releaseAdmission(jobs.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Submit jobs and groups to Cook scheduler in a single request and start to track them on success.
+     */
+    private void postJobsAndGroups(List<Job> jobs, List<Group> groups, String impersonatedUser)
+        throws JobClientException {
+        final byte[] body;
+        try {
+            body = encodeSubmission(jobs, groups);
         } catch (JSONException e) {
             throw new JobClientException("Can not jsonize jobs or groups to submit.", e);
         }
         HttpResponse httpResponse;
-        HttpRequestBase httpRequest = makeHttpPost(_jobURI, json, impersonatedUser);
+        HttpRequestBase httpRequest = makeHttpPost(_jobURI, body, impersonatedUser);
+        _metrics.onBytesSent(JobClientMetrics.Operation.SUBMIT, body.length);
+        final long submittedMillis = System.currentTimeMillis();
 
         try {
-            httpResponse = executeWithRetries(httpRequest, 5, 10);
+            httpResponse = executeBatchWithRetries(httpRequest, jobs.size(), 5, 10);
         } catch (IOException e) {
-            throw releaseAndCreateException(httpRequest, null, "Can not submit POST request " + json + " via uri " + _jobURI, e);
+            throw releaseAndCreateException(httpRequest, null, "Can not submit POST request " + asString(body) + " via uri " + _jobURI, e);
         }
 
         // Get the response string.
@@ -638,17 +1307,18 @@ public class JobClient implements Closeable, JobClientInterface {
         if (entity == null) {
             throw releaseAndCreateException(httpRequest, null, "The response entity is null!", null);
         }
+        reportBytesReceived(JobClientMetrics.Operation.SUBMIT, entity);
         String response = null;
         try {
             response = EntityUtils.toString(entity);
             // Ensure that the entity content has been fully consumed and the underlying stream has been closed.
             EntityUtils.consume(entity);
         } catch (ParseException | IOException e) {
-            throw releaseAndCreateException(httpRequest, null, "Can not parse the response for POST request " + json +
+            throw releaseAndCreateException(httpRequest, null, "Can not parse the response for POST request " + asString(body) +
                     " via uri " + _jobURI, e);
         }
         if (_log.isDebugEnabled()) {
-            _log.debug("Response String for submitting jobs and groups" + json.toString() + " is " + response);
+            _log.debug("Response String for submitting jobs and groups" + asString(body) + " is " + response);
         }
 
         // Base on the decision graph
@@ -663,31 +1333,37 @@ public class JobClient implements Closeable, JobClientInterface {
         boolean isSuccess = false;
         if (null != statusLine && statusLine.getStatusCode() == HttpStatus.SC_CREATED) {
             isSuccess = true;
-            _log.info("Successfully execute POST request with data " + json + " via uri " + _jobURI);
+            _log.info("Successfully execute POST request with " + jobs.size() + " jobs and " + groups.size()
+                    + " groups via uri " + _jobURI);
         } else if (null != statusLine && statusLine.getStatusCode() >= HttpStatus.SC_BAD_REQUEST) {
             final Pattern patternUUID =
                    Pattern.compile("([a-f0-9]{8}-[a-f0-9]{4}-4[a-f0-9]{3}-[89aAbB][a-f0-9]{3}-[a-f0-9]{12} already used)");
             final Matcher matchUUID = patternUUID.matcher(response);
             if (matchUUID.find()) {
-                _log.info("Successfully execute POST request with several retries " + json + " via uri " + _jobURI);
+                _log.info("Successfully execute POST request with several retries with " + jobs.size() + " jobs and "
+                        + groups.size() + " groups via uri " + _jobURI);
                 isSuccess = true;
             } else {
-                _log.warn("Failed to execute POST request with several retries " + json + " via uri " + _jobURI);
+                _log.warn("Failed to execute POST request with several retries " + asString(body) + " via uri " + _jobURI);
             }
         }
         if (null != httpRequest) {
             httpRequest.releaseConnection();
         }
         if (isSuccess) {
+            if (_lifecycleTracker != null) {
+                _lifecycleTracker.onSubmitted(jobs, submittedMillis, System.currentTimeMillis());
+            }
             // Update status map.
             for (Job job : jobs) {
-                _activeUUIDToJob.put(job.getUUID(), job);
+                trackJob(JobSnapshot.of(job));
             }
             for (Group group : groups) {
-                _activeUUIDToGroup.put(group.getUUID(), group);
+                trackGroup(group);
             }
         } else {
-            _log.error("Failed to submit jobs " + json.toString());
+            final String json = asString(body);
+            _log.error("Failed to submit jobs " + json);
             throw releaseAndCreateException(httpRequest, httpResponse, "The response of POST request " + json + " via uri " + _jobURI + ": "
                     + statusLine.getReasonPhrase() + ", " + statusLine.getStatusCode() + " Body is " + response, null);
         }
@@ -717,6 +1393,52 @@ public class JobClient implements Closeable, JobClientInterface {
         }
     }
 
+    /**
+     * Block until the given number of jobs may be submitted if admission control is enabled.
+     */
+    private void acquireAdmission(int jobs, SubmissionLanes.Lane lane)
+        throws JobClientException {
+        if (_admissionController != null) {
+            _admissionController.acquire(jobs, lane == SubmissionLanes.Lane.HIGH);
+        }
+    }
+
+    /**
+     * Release the admission of the given number of jobs if admission control is enabled.
+     */
+    private void releaseAdmission(int jobs) {
+        if (_admissionController != null) {
+            _admissionController.release(jobs);
+        }
+    }
+
+    /**
+     * @return the lane of a request submitting the given jobs, which is always the normal lane if lanes are disabled.
+     */
+    private SubmissionLanes.Lane laneOf(Collection<Job> jobs) {
+        return _lanes == null ? SubmissionLanes.Lane.NORMAL : _lanes.laneOf(jobs);
+    }
+
+    /**
+     * Block until a submission request of the given lane may be sent if priority lanes are enabled.
+     */
+    private void acquireLane(SubmissionLanes.Lane lane)
+        throws JobClientException {
+        if (_lanes != null) {
+            _lanes.acquire(lane);
+        }
+    }
+
+    private void releaseLane(SubmissionLanes.Lane lane) {
+        if (_lanes != null) {
+            _lanes.release(lane);
+        }
+    }
+
+    private static boolean isWaiting(Job.Status status) {
+        return status == Job.Status.INITIALIZED || status == Job.Status.WAITING;
+    }
+
     private JobClientException groupEndpointMissingException(final String msg) {
         return new JobClientException(msg);
     }
@@ -756,6 +1478,81 @@ public class JobClient implements Closeable, JobClientInterface {
         }
     }
 
+    /**
+     * Generate a HTTP POST request for a given uri and an already encoded UTF-8 JSON body. The resulting entity is
+     * repeatable, so retries resend the same bytes without encoding the payload again.
+     *
+     * @see #makeHttpPost(URI, JSONObject)
+     */
+    private static HttpPost makeHttpPost(URI uri, byte[] body, String impersonatedUser) {
+        HttpPost request = new HttpPost(uri);
+        request.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        addImpersonation(request, impersonatedUser);
+        return request;
+    }
+
+    /**
+     * Assemble the body of a submission request from the memoized encodings of the given jobs and groups, e.g.
+     * <code>{"groups":[...],"jobs":[...]}</code>. Groups are omitted if {@code groups} is {@code null}.
+     *
+     * @param jobs specifies the jobs to submit.
+     * @param groups specifies the groups to submit, or {@code null}.
+     * @return the UTF-8 encoded request body.
+     * @throws JSONException
+     */
+    static byte[] encodeSubmission(Collection<Job> jobs, Collection<Group> groups)
+        throws JSONException {
+        int size = 32;
+        for (Job job : jobs) {
+            size += job.getEncoded().length + 1;
+        }
+        if (groups != null) {
+            for (Group group : groups) {
+                size += group.getEncoded().length + 1;
+            }
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('{');
+        if (groups != null) {
+            writeAscii(out, "\"groups\":[");
+            boolean first = true;
+            for (Group group : groups) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                final byte[] encoded = group.getEncoded();
+                out.write(encoded, 0, encoded.length);
+            }
+            writeAscii(out, "],");
+        }
+        writeAscii(out, "\"jobs\":[");
+        boolean first = true;
+        for (Job job : jobs) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            final byte[] encoded = job.getEncoded();
+            out.write(encoded, 0, encoded.length);
+        }
+        writeAscii(out, "]}");
+        return out.toByteArray();
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            out.write(s.charAt(i));
+        }
+    }
+
+    /**
+     * @return the given UTF-8 encoded request body as a string, for logging and error messages.
+     */
+    private static String asString(byte[] body) {
+        return new String(body, Charsets.UTF_8);
+    }
+
     @Override
     public void submit(List<Job> jobs)
         throws JobClientException {
@@ -775,19 +1572,41 @@ public class JobClient implements Closeable, JobClientInterface {
             }
         }
 
-        JSONObject json;
+        final SubmissionLanes.Lane lane = laneOf(jobs);
+        acquireAdmission(jobs.size(), lane);
         try {
-            json = Job.jsonizeJob(jobs);
+            acquireLane(lane);
+            try {
+                postJobs(jobs, impersonatedUser);
+            } finally {
+                releaseLane(lane);
+            }
+        } catch (JobClientException | RuntimeException e) {
+            releaseAdmission(jobs.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Submit jobs to Cook scheduler in a single request and start to track them on success.
+     */
+    private void postJobs(List<Job> jobs, String impersonatedUser)
+        throws JobClientException {
+        final byte[] body;
+        try {
+            body = encodeSubmission(jobs, null);
         } catch (JSONException e) {
             throw new JobClientException("Can not jsonize jobs to submit.", e);
         }
         HttpResponse httpResponse;
-        HttpRequestBase httpRequest = makeHttpPost(_jobURI, json, impersonatedUser);
+        HttpRequestBase httpRequest = makeHttpPost(_jobURI, body, impersonatedUser);
+        _metrics.onBytesSent(JobClientMetrics.Operation.SUBMIT, body.length);
+        final long submittedMillis = System.currentTimeMillis();
 
         try {
-            httpResponse = executeWithRetries(httpRequest, 5, _submitRetryInterval);
+            httpResponse = executeBatchWithRetries(httpRequest, jobs.size(), 5, _submitRetryInterval);
         } catch (IOException e) {
-            throw releaseAndCreateException(httpRequest, null, "Can not submit POST request " + json + " via uri " + _jobURI, e);
+            throw releaseAndCreateException(httpRequest, null, "Can not submit POST request " + asString(body) + " via uri " + _jobURI, e);
         }
 
         // Get the response string.
@@ -796,17 +1615,18 @@ public class JobClient implements Closeable, JobClientInterface {
         if (entity == null) {
             throw releaseAndCreateException(httpRequest, null, "The response entity is null!", null);
         }
+        reportBytesReceived(JobClientMetrics.Operation.SUBMIT, entity);
         String response = null;
         try {
             response = EntityUtils.toString(entity);
             // Ensure that the entity content has been fully consumed and the underlying stream has been closed.
             EntityUtils.consume(entity);
         } catch (ParseException | IOException e) {
-            throw releaseAndCreateException(httpRequest, null, "Can not parse the response for POST request " + json +
+            throw releaseAndCreateException(httpRequest, null, "Can not parse the response for POST request " + asString(body) +
                     " via uri " + _jobURI, e);
         }
         if (_log.isDebugEnabled()) {
-            _log.debug("Response String for submitting jobs" + json.toString() + " is " + response);
+            _log.debug("Response String for submitting jobs" + asString(body) + " is " + response);
         }
 
         // Base on the decision graph
@@ -821,7 +1641,7 @@ public class JobClient implements Closeable, JobClientInterface {
         boolean isSuccess = false;
         if (null != statusLine && statusLine.getStatusCode() == HttpStatus.SC_CREATED) {
             isSuccess = true;
-            _log.info("Successfully execute POST request with data " + json + " via uri " + _jobURI);
+            _log.info("Successfully execute POST request with " + jobs.size() + " jobs via uri " + _jobURI);
         } else if (null != statusLine && statusLine.getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
             final String transactionTimeoutMessage = "Transaction timed out.";
             if (String.valueOf(response).contains(transactionTimeoutMessage)) {
@@ -856,22 +1676,27 @@ public class JobClient implements Closeable, JobClientInterface {
                 Pattern.compile("[a-f0-9]{8}-[a-f0-9]{4}-4[a-f0-9]{3}-[89aAbB][a-f0-9]{3}-[a-f0-9]{12} already used");
             final Matcher matchUUID = patternUUID.matcher(response);
             if (matchUUID.find()) {
-                _log.info("Successfully execute POST request with several retries " + json + " via uri " + _jobURI);
+                _log.info("Successfully execute POST request with several retries with " + jobs.size() + " jobs via uri "
+                        + _jobURI);
                 isSuccess = true;
             } else {
-                _log.warn("Failed to execute POST request with several retries " + json + " via uri " + _jobURI);
+                _log.warn("Failed to execute POST request with several retries " + asString(body) + " via uri " + _jobURI);
             }
         }
         if (null != httpRequest) {
             httpRequest.releaseConnection();
         }
         if (isSuccess) {
+            if (_lifecycleTracker != null) {
+                _lifecycleTracker.onSubmitted(jobs, submittedMillis, System.currentTimeMillis());
+            }
             // Update status map.
             for (Job job : jobs) {
-                _activeUUIDToJob.put(job.getUUID(), job);
+                trackJob(JobSnapshot.of(job));
             }
         } else {
-            _log.error("Failed to submit jobs " + json.toString());
+            final String json = asString(body);
+            _log.error("Failed to submit jobs " + json);
             throw new JobClientException("The response of POST request " + json + " via uri " + _jobURI + ": "
                     + statusLine.getReasonPhrase() + ", " + statusLine.getStatusCode() + ", response is: " + response);
         }
@@ -880,11 +1705,48 @@ public class JobClient implements Closeable, JobClientInterface {
     @Override
     public Map<UUID, Job> queryJobs(Collection<UUID> uuids)
         throws JobClientException {
+        return queryJobs(uuids, null, false);
+    }
+
+    /**
+     * Query jobs, parsing only the given fields of each job in addition to its UUID and status. The members of the
+     * other fields are skipped while parsing the response, which makes querying a few fields of wide jobs, e.g. jobs
+     * with a large environment or container, much cheaper. The getters of fields which are not selected return
+     * {@code null} or an empty collection.
+     *
+     * @param uuids specifies a list of job {@link UUID}s expected to query.
+     * @param fields specifies the fields to parse, e.g. {@code EnumSet.of(Job.Field.NAME, Job.Field.POOL)}.
+     * @return a {@link ImmutableMap} from job {@link UUID} to {@link Job}.
+     * @throws JobClientException
+     */
+    public Map<UUID, Job> queryJobs(Collection<UUID> uuids, Set<Job.Field> fields)
+        throws JobClientException {
+        Preconditions.checkNotNull(fields, "fields must not be null");
+        return queryJobs(uuids, fields, false);
+    }
+
+    /**
+     * Query jobs, optionally parsing them lazily, i.e. decoding only the UUID and status of each job up front and the
+     * remaining members on first access, see {@link Job#parseLazilyFromJSON(String, InstanceDecorator)}. The listener
+     * service uses lazy parsing as most polled jobs are discarded after comparing their status.
+     *
+     * @param fields specifies the fields to parse, or {@code null} for all fields. It is ignored by lazy parsing.
+     */
+    private Map<UUID, Job> queryJobs(Collection<UUID> uuids, Set<Job.Field> fields, boolean lazy)
+        throws JobClientException {
+        final ImmutableMap.Builder<UUID, Job> UUIDToJob = ImmutableMap.builder();
+        // The status update poller only queries jobs which have not completed yet, so it skips the cache.
+        final boolean cached = _completedJobCache != null && !lazy;
         final List<NameValuePair> allParams = new ArrayList<NameValuePair>(uuids.size());
-        for (UUID uuid : uuids) {
-            allParams.add(new BasicNameValuePair("job", uuid.toString()));
+        // A UUID given more than once is only queried once, and must not be put into the map twice.
+        for (UUID uuid : new LinkedHashSet<>(uuids)) {
+            final Job job = cached ? _completedJobCache.getIfPresent(uuid) : null;
+            if (job != null) {
+                UUIDToJob.put(uuid, job);
+            } else {
+                allParams.add(new BasicNameValuePair("job", UUIDs.toString(uuid)));
+            }
         }
-        final ImmutableMap.Builder<UUID, Job> UUIDToJob = ImmutableMap.builder();
         // Partition a large query into small queries.
         for (final List<NameValuePair> params : Lists.partition(allParams, _batchRequestSize)) {
             HttpResponse httpResponse;
@@ -892,8 +1754,8 @@ public class JobClient implements Closeable, JobClientInterface {
             try {
                 URIBuilder uriBuilder = new URIBuilder(_jobURI);
                 uriBuilder.addParameters(params);
-                httpRequest = new HttpGet(uriBuilder.build());
-                httpResponse = _httpClient.execute(httpRequest);
+                httpRequest = newQuery(uriBuilder.build());
+                httpResponse = execute(JobClientMetrics.Operation.QUERY_JOBS, httpRequest, params.size());
             } catch (IOException | URISyntaxException e) {
                 throw releaseAndCreateException(null, null, "Can not submit GET request " + params + " via uri " + _jobURI, e);
             }
@@ -911,11 +1773,24 @@ public class JobClient implements Closeable, JobClientInterface {
             try {
                 // parse the response to string.
                 final HttpEntity entity = httpResponse.getEntity();
-                response = EntityUtils.toString(entity);
+                final ValueReader reader = newResponseReader(JobClientMetrics.Operation.QUERY_JOBS, entity);
+                response = reader.toString();
                 // Ensure that the entity content has been fully consumed and the underlying stream has been closed.
                 EntityUtils.consume(entity);
-                for (Job job : Job.parseFromJSON(response, _instanceDecorator)) {
+                final Object event = ClientEvents.beginParse();
+                final long parseStart = System.nanoTime();
+                // Binary responses are cheap to decode eagerly, so only JSON responses are parsed lazily.
+                final List<Job> jobs = lazy && reader instanceof JsonReader
+                        ? Job.readLazyJobs((JsonReader) reader, _instanceDecorator)
+                        : Job.readJobs(reader, _instanceDecorator, fields, _parsePool);
+                _metrics.onParse(JobClientMetrics.Operation.QUERY_JOBS, jobs.size(), System.nanoTime() - parseStart);
+                ClientEvents.endParse(event, _jobURI, jobs.size());
+                for (Job job : jobs) {
                     UUIDToJob.put(job.getUUID(), job);
+                    // Jobs with only some fields parsed must not answer later queries of whole jobs.
+                    if (cached && fields == null && job.getStatus() == Job.Status.COMPLETED) {
+                        _completedJobCache.put(job.getUUID(), job);
+                    }
                 }
             } catch (JSONException | ParseException | IOException e) {
                 throw new JobClientException("Can not parse the response = " + response + " for GET request " + params +
@@ -957,7 +1832,7 @@ public class JobClient implements Closeable, JobClientInterface {
         }
         final List<NameValuePair> allParams = new ArrayList<NameValuePair>();
         allParams.add(new BasicNameValuePair("detailed", "true"));
-        allParams.add(new BasicNameValuePair("uuid", guuid.toString()));
+        allParams.add(new BasicNameValuePair("uuid", UUIDs.toString(guuid)));
 
         Group result;
         HttpResponse httpResponse;
@@ -965,8 +1840,8 @@ public class JobClient implements Closeable, JobClientInterface {
         try {
             URIBuilder uriBuilder = new URIBuilder(_groupURI);
             uriBuilder.addParameters(allParams);
-            httpRequest = new HttpGet(uriBuilder.build());
-            httpResponse = _httpClient.execute(httpRequest);
+            httpRequest = newQuery(uriBuilder.build());
+            httpResponse = execute(JobClientMetrics.Operation.QUERY_GROUPS, httpRequest, 1);
         } catch (IOException | URISyntaxException e) {
             throw releaseAndCreateException(null, null, "Can not submit GET request " + allParams + " via uri " + _jobURI, e);
         }
@@ -985,10 +1860,16 @@ public class JobClient implements Closeable, JobClientInterface {
         try {
             // parse the response to string.
             final HttpEntity entity = httpResponse.getEntity();
-            response = EntityUtils.toString(entity);
+            final ValueReader reader = newResponseReader(JobClientMetrics.Operation.QUERY_GROUPS, entity);
+            response = reader.toString();
             // Ensure that the entity content has been fully consumed and the underlying stream has been closed.
             EntityUtils.consume(entity);
-            result = Group.parseFromJSON(response, _instanceDecorator).get(0);
+            final Object event = ClientEvents.beginParse();
+            final long parseStart = System.nanoTime();
+            final List<Group> groups = Group.readGroups(reader, _instanceDecorator);
+            _metrics.onParse(JobClientMetrics.Operation.QUERY_GROUPS, groups.size(), System.nanoTime() - parseStart);
+            ClientEvents.endParse(event, _groupURI, groups.size());
+            result = groups.get(0);
         } catch (JSONException | ParseException | IOException | IndexOutOfBoundsException e) {
             throw new JobClientException("Can not parse the response = " + response + " for GET request " + allParams +
                     " via uri " + _jobURI, e);
@@ -1006,7 +1887,7 @@ public class JobClient implements Closeable, JobClientInterface {
         }
         final List<NameValuePair> allParams = new ArrayList<NameValuePair>(guuids.size());
         for (UUID guuid : guuids) {
-            allParams.add(new BasicNameValuePair("uuid", guuid.toString()));
+            allParams.add(new BasicNameValuePair("uuid", UUIDs.toString(guuid)));
         }
         allParams.add(new BasicNameValuePair("detailed", "true"));
         final ImmutableMap.Builder<UUID, Group> UUIDToGroup = ImmutableMap.builder();
@@ -1017,8 +1898,8 @@ public class JobClient implements Closeable, JobClientInterface {
             try {
                 URIBuilder uriBuilder = new URIBuilder(_groupURI);
                 uriBuilder.addParameters(params);
-                httpRequest = new HttpGet(uriBuilder.build());
-                httpResponse = _httpClient.execute(httpRequest);
+                httpRequest = newQuery(uriBuilder.build());
+                httpResponse = execute(JobClientMetrics.Operation.QUERY_GROUPS, httpRequest, params.size());
             } catch (IOException | URISyntaxException e) {
                 throw releaseAndCreateException(null, null, "Can not submit GET request " + params + " via uri " + _jobURI, e);
             }
@@ -1036,10 +1917,17 @@ public class JobClient implements Closeable, JobClientInterface {
             try {
                 // parse the response to string.
                 final HttpEntity entity = httpResponse.getEntity();
-                response = EntityUtils.toString(entity);
+                final ValueReader reader = newResponseReader(JobClientMetrics.Operation.QUERY_GROUPS, entity);
+                response = reader.toString();
                 // Ensure that the entity content has been fully consumed and the underlying stream has been closed.
                 EntityUtils.consume(entity);
-                for (Group group : Group.parseFromJSON(response, _instanceDecorator)) {
+                final Object event = ClientEvents.beginParse();
+                final long parseStart = System.nanoTime();
+                final List<Group> groups = Group.readGroups(reader, _instanceDecorator, _parsePool);
+                _metrics.onParse(JobClientMetrics.Operation.QUERY_GROUPS, groups.size(),
+                        System.nanoTime() - parseStart);
+                ClientEvents.endParse(event, _groupURI, groups.size());
+                for (Group group : groups) {
                     UUIDToGroup.put(group.getUUID(), group);
                 }
             } catch (JSONException | ParseException | IOException e) {
@@ -1064,52 +1952,166 @@ public class JobClient implements Closeable, JobClientInterface {
      */
     private void abort(Collection<UUID> uuids, String impersonatedUser)
         throws JobClientException {
-        final List<NameValuePair> allParams = new ArrayList<NameValuePair>(uuids.size());
-        for (UUID uuid : uuids) {
-            allParams.add(new BasicNameValuePair("job", uuid.toString()));
-        }
         // Partition a large query into small queries.
-        for (final List<NameValuePair> params : Lists.partition(allParams, _batchRequestSize)) {
-            HttpRequestBase httpRequest;
-            try {
-                URIBuilder uriBuilder = new URIBuilder(_jobURI);
-                uriBuilder.addParameters(params);
-                httpRequest =  new HttpDelete(uriBuilder.build());
-                addImpersonation(httpRequest, impersonatedUser);
-            } catch (URISyntaxException e) {
-                throw releaseAndCreateException(null, null, "Can not submit DELETE request " + params + " via uri " + _jobURI, e);
+        for (final List<NameValuePair> params : Lists.partition(makeJobParams(uuids), _batchRequestSize)) {
+            abortPartition(params, impersonatedUser);
+        }
+    }
+
+    @Override
+    public AbortSummary abortGroup(UUID guuid)
+        throws JobClientException {
+        return abortGroup(guuid, null);
+    }
+
+    /**
+     * @see #abortGroup(UUID)
+     */
+    private AbortSummary abortGroup(final UUID guuid, String impersonatedUser)
+        throws JobClientException {
+        final Set<UUID> juuids = new LinkedHashSet<>(selectTrackedJobs(new Predicate<JobSnapshot>() {
+            @Override
+            public boolean apply(JobSnapshot job) {
+                return guuid.equals(job.getGroup());
             }
-            HttpResponse httpResponse;
+        }));
+        final Group tracked = _activeUUIDToGroup.get(guuid);
+        if (tracked != null && !tracked.getJobs().isEmpty()) {
+            // The group has been polled, so its members include the jobs this client does not track.
+            juuids.addAll(tracked.getJobs());
+        } else if (_groupURI != null || juuids.isEmpty()) {
+            juuids.addAll(queryGroup(guuid).getJobs());
+        }
+        return abortAll(juuids, impersonatedUser);
+    }
+
+    @Override
+    public AbortSummary abortWhere(Predicate<JobSnapshot> predicate) {
+        return abortWhere(predicate, null);
+    }
+
+    /**
+     * @see #abortWhere(Predicate)
+     */
+    private AbortSummary abortWhere(Predicate<JobSnapshot> predicate, String impersonatedUser) {
+        return abortAll(selectTrackedJobs(predicate), impersonatedUser);
+    }
+
+    /**
+     * @return the UUIDs of the tracked jobs matching the predicate.
+     */
+    private List<UUID> selectTrackedJobs(Predicate<JobSnapshot> predicate) {
+        final List<UUID> juuids = new ArrayList<>();
+        for (JobSnapshot job : _activeUUIDToJob.values()) {
+            if (predicate.apply(job)) {
+                juuids.add(job.getUUID());
+            }
+        }
+        return juuids;
+    }
+
+    /**
+     * Abort jobs in partitions which are sent in parallel, collecting the outcome of each partition.
+     */
+    private AbortSummary abortAll(Collection<UUID> juuids, final String impersonatedUser) {
+        final long start = System.currentTimeMillis();
+        final List<List<UUID>> partitions = Lists.partition(new ArrayList<>(juuids), _batchRequestSize);
+        final List<Future<Void>> futures = new ArrayList<>(partitions.size());
+        for (final List<UUID> partition : partitions) {
+            futures.add(_abortService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws JobClientException {
+                    abortPartition(makeJobParams(partition), impersonatedUser);
+                    return null;
+                }
+            }));
+        }
+        final Set<UUID> aborted = new HashSet<>();
+        final Map<UUID, JobClientException> failed = new HashMap<>();
+        for (int i = 0; i < partitions.size(); ++i) {
+            JobClientException failure = null;
             try {
-                httpResponse = executeWithRetries(httpRequest, 5, 10);
-            } catch (IOException e) {
-                throw releaseAndCreateException(httpRequest, null, "Can not submit DELETE request " + params + " via uri " + _jobURI, e);
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new JobClientException("Interrupted while waiting to abort jobs " + partitions.get(i), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof JobClientException) {
+                    failure = (JobClientException) e.getCause();
+                } else {
+                    failure = new JobClientException("Failed to abort jobs " + partitions.get(i), e.getCause());
+                }
             }
-            // Check status code.
-            final StatusLine statusLine = httpResponse.getStatusLine();
-            // Base on the decision graph
-            // http://clojure-liberator.github.io/liberator/tutorial/decision-graph.html
-            // If jobs are aborted successfully, the returned status code is 204.
-            if (statusLine.getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-                throw releaseAndCreateException(httpRequest, httpResponse, "The response of DELETE request " + params + " via uri " + _jobURI + ": "
-                        + statusLine.getReasonPhrase() + ", " + statusLine.getStatusCode(), null);
+            for (UUID juuid : partitions.get(i)) {
+                if (failure == null) {
+                    aborted.add(juuid);
+                } else {
+                    failed.put(juuid, failure);
+                }
             }
-            // Parse the response.
-            try {
-                // Parse the response to string.
-                final HttpEntity entity = httpResponse.getEntity();
-                if (null != entity) {
-                    final String response = EntityUtils.toString(entity);
-                    if (_log.isDebugEnabled()) {
-                        _log.debug("Response String for aborting jobs " + uuids + " is " + response);
-                    }
+        }
+        final AbortSummary summary = new AbortSummary(aborted, failed, System.currentTimeMillis() - start);
+        if (summary.isComplete()) {
+            _log.info("Aborted " + aborted.size() + " jobs via uri " + _jobURI + " in " + summary.getElapsedMillis() + " ms");
+        } else {
+            _log.warn("Failed to abort " + failed.size() + " of " + juuids.size() + " jobs via uri " + _jobURI);
+        }
+        return summary;
+    }
+
+    private static List<NameValuePair> makeJobParams(Collection<UUID> uuids) {
+        final List<NameValuePair> params = new ArrayList<NameValuePair>(uuids.size());
+        for (UUID uuid : uuids) {
+            params.add(new BasicNameValuePair("job", UUIDs.toString(uuid)));
+        }
+        return params;
+    }
+
+    /**
+     * Abort the jobs given by a single partition of query parameters in a single DELETE request.
+     */
+    private void abortPartition(List<NameValuePair> params, String impersonatedUser)
+        throws JobClientException {
+        HttpRequestBase httpRequest;
+        try {
+            URIBuilder uriBuilder = new URIBuilder(_jobURI);
+            uriBuilder.addParameters(params);
+            httpRequest =  new HttpDelete(uriBuilder.build());
+            addImpersonation(httpRequest, impersonatedUser);
+        } catch (URISyntaxException e) {
+            throw releaseAndCreateException(null, null, "Can not submit DELETE request " + params + " via uri " + _jobURI, e);
+        }
+        HttpResponse httpResponse;
+        try {
+            httpResponse = executeBatchWithRetries(httpRequest, params.size(), 5, 10);
+        } catch (IOException e) {
+            throw releaseAndCreateException(httpRequest, null, "Can not submit DELETE request " + params + " via uri " + _jobURI, e);
+        }
+        // Check status code.
+        final StatusLine statusLine = httpResponse.getStatusLine();
+        // Base on the decision graph
+        // http://clojure-liberator.github.io/liberator/tutorial/decision-graph.html
+        // If jobs are aborted successfully, the returned status code is 204.
+        if (statusLine.getStatusCode() != HttpStatus.SC_NO_CONTENT) {
+            throw releaseAndCreateException(httpRequest, httpResponse, "The response of DELETE request " + params + " via uri " + _jobURI + ": "
+                    + statusLine.getReasonPhrase() + ", " + statusLine.getStatusCode(), null);
+        }
+        // Parse the response.
+        try {
+            // Parse the response to string.
+            final HttpEntity entity = httpResponse.getEntity();
+            reportBytesReceived(JobClientMetrics.Operation.ABORT, entity);
+            if (null != entity) {
+                final String response = EntityUtils.toString(entity);
+                if (_log.isDebugEnabled()) {
+                    _log.debug("Response String for aborting jobs " + params + " is " + response);
                 }
-            } catch (ParseException | IOException e) {
-                throw new JobClientException("Can not parse the response for DELETE request " + params + " via uri "
-                        + _jobURI, e);
-            } finally {
-                httpRequest.releaseConnection();
             }
+        } catch (ParseException | IOException e) {
+            throw new JobClientException("Can not parse the response for DELETE request " + params + " via uri "
+                    + _jobURI, e);
+        } finally {
+            httpRequest.releaseConnection();
         }
     }
 
@@ -1117,6 +2119,7 @@ public class JobClient implements Closeable, JobClientInterface {
      * A wrapper for the function {@code execute(HttpRequestBase request)}. It retries using
      * exponential retry strategy with the following intervals:<br>
      * {@code baseIntervalSeconds, baseIntervalSeconds * 2, baseIntervalSeconds * 2^2, baseIntervalSeconds * 2^3 ...}
+     * The outcome, latency and retries of the request are reported to the metrics of this client.
      *
      * @param request {@link HttpRequestBase} specifies the HTTP request expected to execute.
      * @param maxRetries specifies the maximum number of retries.
@@ -1133,31 +2136,117 @@ public class JobClient implements Closeable, JobClientInterface {
         HttpResponse response = null;
         IOException exception = null;
         long sleepMillis = TimeUnit.SECONDS.toMillis(baseIntervalSeconds);
+        final JobClientMetrics.Operation operation = operationOf(request);
+        final long start = System.nanoTime();
         for (int i = 0; i < maxRetries; ++i) {
             try {
-                response = _httpClient.execute(request);
+                response = send(operation, request);
             } catch (IOException e) {
                 exception = e;
                 response = null;
+                final Object event = ClientEvents.beginRetrySleep();
                 try {
                     Thread.sleep(sleepMillis);
                     sleepMillis *= 2;
                 } catch (InterruptedException ie) {
                     // no-op
+                } finally {
+                    ClientEvents.endRetrySleep(event, request, i + 1);
                 }
             }
             if (null != response) {
+                _metrics.onRequest(operation, outcomeOf(response), System.nanoTime() - start);
+                if (i > 0) {
+                    _metrics.onRetries(operation, i);
+                }
                 return response;
             }
         }
+        _metrics.onRequest(operation, JobClientMetrics.Outcome.FAILED, System.nanoTime() - start);
+        if (maxRetries > 1) {
+            _metrics.onRetries(operation, maxRetries - 1);
+        }
         // If it can not get any response after several retries, re-throw the the exception.
         throw new IOException(exception);
     }
 
+    /**
+     * Track a job, or update the snapshot of a tracked job, and count it by its status.
+     */
+    private void trackJob(JobSnapshot job) {
+        final JobSnapshot previous = _activeUUIDToJob.put(job.getUUID(), job);
+        if (previous != null) {
+            _trackedJobCounts.decrementAndGet(previous.getStatus().ordinal());
+        }
+        _trackedJobCounts.incrementAndGet(job.getStatus().ordinal());
+    }
+
+    private void untrackJob(UUID juuid) {
+        final JobSnapshot previous = _activeUUIDToJob.remove(juuid);
+        if (previous != null) {
+            _trackedJobCounts.decrementAndGet(previous.getStatus().ordinal());
+        }
+    }
+
+    private void trackGroup(Group group) {
+        final Group previous = _activeUUIDToGroup.put(group.getUUID(), group);
+        if (previous != null) {
+            _trackedGroupCounts.decrementAndGet(previous.getStatus().ordinal());
+        }
+        _trackedGroupCounts.incrementAndGet(group.getStatus().ordinal());
+    }
+
+    private void untrackGroup(UUID guuid) {
+        final Group previous = _activeUUIDToGroup.remove(guuid);
+        if (previous != null) {
+            _trackedGroupCounts.decrementAndGet(previous.getStatus().ordinal());
+        }
+    }
+
+    /**
+     * Take a snapshot of the tracked jobs and groups, the listeners, the requests and connections in use, the status
+     * update cycles and the cache of completed jobs of this client. The tracked jobs and groups are counted by status
+     * as they are tracked and updated, and the blocked submissions are read without taking the locks of the
+     * admission controller and the submission lanes, so the snapshot takes constant time and does not contend with
+     * submissions. Only the connection pool is briefly locked to read its counts.
+     *
+     * @return a snapshot of the internal state of this client.
+     */
+    public JobClientStats getStats() {
+        final Map<Job.Status, Integer> trackedJobs = new EnumMap<>(Job.Status.class);
+        for (Job.Status status : Job.Status.values()) {
+            trackedJobs.put(status, _trackedJobCounts.get(status.ordinal()));
+        }
+        final Map<Group.Status, Integer> trackedGroups = new EnumMap<>(Group.Status.class);
+        for (Group.Status status : Group.Status.values()) {
+            trackedGroups.put(status, _trackedGroupCounts.get(status.ordinal()));
+        }
+        final Map<JobClientMetrics.Operation, Integer> inFlightRequests =
+                new EnumMap<>(JobClientMetrics.Operation.class);
+        for (JobClientMetrics.Operation operation : JobClientMetrics.Operation.values()) {
+            inFlightRequests.put(operation, _inFlightRequests.get(operation.ordinal()));
+        }
+        final PoolStats pool = _connectionManager.getTotalStats();
+        int blockedSubmissions = 0;
+        if (_admissionController != null) {
+            blockedSubmissions += _admissionController.getBlocked();
+        }
+        if (_lanes != null) {
+            blockedSubmissions += _lanes.getWaiting();
+        }
+        final long lastSuccessfulPoll = _lastSuccessfulPollMillis;
+        return new JobClientStats(trackedJobs, trackedGroups, _jobUUIDToListener.size(), _groupUUIDToListener.size(),
+                inFlightRequests, pool.getLeased(), pool.getAvailable(), pool.getPending(), pool.getMax(),
+                _requestService.getQueue().size() + _abortService.getQueue().size(), blockedSubmissions, _lastPollCycleMillis,
+                lastSuccessfulPoll == 0 ? -1 : System.currentTimeMillis() - lastSuccessfulPoll,
+                _completedJobCache == null ? 0 : _completedJobCache.size(),
+                _completedJobCache == null ? 0 : _completedJobCache.stats().hitCount());
+    }
+
     @Override
     public String toString() {
-        return "JobClient [_jobURI=" + _jobURI + ", _httpClient=" + _httpClient + ", _listenerService=" + _listenerService
-                + ", _activeUUIDToJob=" + _activeUUIDToJob + ", _batchSubmissionLimit=" + _batchRequestSize
+        return "JobClient [_jobURI=" + _jobURI + ", _activeJobs=" + _activeUUIDToJob.size() + ", _activeGroups="
+                + _activeUUIDToGroup.size() + ", _batchSubmissionLimit=" + _batchRequestSize
                 + ", _statusUpdateInterval=" + _statusUpdateInterval + "]";
     }
 
@@ -1235,6 +2324,17 @@ public class JobClient implements Closeable, JobClientInterface {
             throws JobClientException {
             JobClient.this.abort(uuids, _impersonatedUser);
         }
+
+        @Override
+        public AbortSummary abortGroup(UUID guuid)
+            throws JobClientException {
+            return JobClient.this.abortGroup(guuid, _impersonatedUser);
+        }
+
+        @Override
+        public AbortSummary abortWhere(Predicate<JobSnapshot> predicate) {
+            return JobClient.this.abortWhere(predicate, _impersonatedUser);
+        }
     }
 
     /** If UUID's are generated purely randomly, they have poor locality. This code generates random (variant 4, RFC4122)
@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import com.google.common.base.Predicate;
+
 /**
  * An interface for the Cook job client.
  */
@@ -42,6 +44,10 @@ public interface JobClientInterface {
     /**
      * Submits jobs and groups to Cook scheduler and start to track the jobs until they complete. Note that jobs
      * submitted through this API will not be listened by any listener.
+     * <p>
+     * A large submission may be split into several requests, each of which carries whole groups along with all of
+     * their jobs. If only some of these requests fail, a {@link GroupSubmissionException} reports the outcome of
+     * each group.
      *
      * @param jobs specifies a list of {@link Job}s to be submitted.
      * @param groups specifies a list of {@link Group}s to be submitted.
@@ -56,7 +62,8 @@ public interface JobClientInterface {
      * -- firstly associate each group with the provided {@link JobListener}<br>
      * -- secondly submit these jobs to Cook scheduler and track them until they complete.<br>
      * Behaves identically to {@link #submitWithGroups(List, List) submit(jobs, groups)}
-     * if <code>listener</code> is <code>null</code>.
+     * if <code>listener</code> is <code>null</code>. See {@link #submitWithGroups(List, List)} for how large
+     * submissions are split into several requests.
      *
      * @param jobs The list of jobs to be submitted.
      * @param groups The list of groups to be submitted.
@@ -126,4 +133,29 @@ public interface JobClientInterface {
     public void abort(Collection<UUID> uuids)
         throws JobClientException;
 
+    /**
+     * Abort all jobs of a group. The members of the group are the jobs of the group tracked by this client together
+     * with the members listed by the Cook scheduler, which include jobs submitted by other clients. The members
+     * listed by the scheduler are taken from the last status update of the group if it is tracked and has been
+     * updated, and are queried otherwise. Without a group endpoint, only the tracked jobs of a tracked group are
+     * aborted. The jobs are aborted in partitions of at most {@code _batchRequestSize} jobs which are sent in
+     * parallel.
+     *
+     * @param guuid specifies the {@link UUID} of the group to abort.
+     * @return an {@link AbortSummary} of the aborted jobs.
+     * @throws JobClientException if the members of the group can not be resolved.
+     */
+    public AbortSummary abortGroup(UUID guuid)
+        throws JobClientException;
+
+    /**
+     * Abort all jobs tracked by this client, i.e. jobs submitted through this client which have not been observed to
+     * complete, that match a predicate. The jobs are aborted in partitions of at most {@code _batchRequestSize} jobs
+     * which are sent in parallel.
+     *
+     * @param predicate specifies which of the tracked jobs to abort.
+     * @return an {@link AbortSummary} of the aborted jobs.
+     */
+    public AbortSummary abortWhere(Predicate<JobSnapshot> predicate);
+
 }
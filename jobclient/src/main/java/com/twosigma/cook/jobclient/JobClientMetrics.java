@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+/**
+ * The instrumentation of a {@link JobClient}, see {@link JobClient.Builder#setMetrics(JobClientMetrics)}.
+ * <p>
+ * The job client calls these methods on the threads doing the work, i.e. the calling threads, the request threads
+ * and the listener thread, so implementations must be thread safe and should not block. {@link #NOOP} ignores all
+ * events and is used unless metrics are set; {@link DefaultJobClientMetrics} records them in lock-free counters and
+ * histograms.
+ * <p>
+ * Durations are in nanoseconds as measured by {@link System#nanoTime()}.
+ */
+public interface JobClientMetrics {
+
+    /**
+     * The operations of the job client which send requests, each of which uses one endpoint of the scheduler.
+     */
+    enum Operation {
+        /**
+         * Submit jobs and possibly groups, a POST to the job endpoint.
+         */
+        SUBMIT,
+        /**
+         * Query jobs, a GET from the job endpoint.
+         */
+        QUERY_JOBS,
+        /**
+         * Query groups, a GET from the group endpoint.
+         */
+        QUERY_GROUPS,
+        /**
+         * Abort jobs, a DELETE on the job endpoint.
+         */
+        ABORT
+    }
+
+    /**
+     * The outcome of a request.
+     */
+    enum Outcome {
+        /**
+         * The scheduler answered with a 2xx status.
+         */
+        SUCCESS,
+        /**
+         * The scheduler answered with any other status.
+         */
+        REJECTED,
+        /**
+         * The request failed without a response, e.g. because the connection failed or timed out.
+         */
+        FAILED
+    }
+
+    /**
+     * A request completed, including any retries after I/O errors.
+     *
+     * @param latencyNanos specifies the time from sending the request to receiving the response headers.
+     */
+    void onRequest(Operation operation, Outcome outcome, long latencyNanos);
+
+    /**
+     * A request for the given number of jobs, groups or job and group UUIDs is about to be sent.
+     */
+    void onBatch(Operation operation, int size);
+
+    /**
+     * A request was retried the given number of times after I/O errors. It is only reported for requests which
+     * were retried.
+     */
+    void onRetries(Operation operation, int retries);
+
+    /**
+     * The body of a request of the given number of bytes was sent.
+     */
+    void onBytesSent(Operation operation, long bytes);
+
+    /**
+     * The body of a response of the given number of bytes was received.
+     */
+    void onBytesReceived(Operation operation, long bytes);
+
+    /**
+     * The given number of jobs or groups were parsed from a response.
+     */
+    void onParse(Operation operation, int elements, long nanos);
+
+    /**
+     * The listener service completed a cycle of polling the status of the tracked jobs and groups.
+     *
+     * @param trackedJobs specifies the number of jobs tracked after the cycle.
+     * @param trackedGroups specifies the number of groups tracked after the cycle.
+     */
+    void onPollCycle(long nanos, int trackedJobs, int trackedGroups);
+
+    /**
+     * A job or group listener is about to be invoked for a status update.
+     *
+     * @param lagNanos specifies the time since the query carrying the update returned, i.e. the time spent on the
+     *        listeners and bookkeeping of earlier updates of the same cycle.
+     */
+    void onListenerDispatch(long lagNanos);
+
+    /**
+     * Metrics which ignore all events.
+     */
+    JobClientMetrics NOOP = new JobClientMetrics() {
+        @Override
+        public void onRequest(Operation operation, Outcome outcome, long latencyNanos) {
+        }
+
+        @Override
+        public void onBatch(Operation operation, int size) {
+        }
+
+        @Override
+        public void onRetries(Operation operation, int retries) {
+        }
+
+        @Override
+        public void onBytesSent(Operation operation, long bytes) {
+        }
+
+        @Override
+        public void onBytesReceived(Operation operation, long bytes) {
+        }
+
+        @Override
+        public void onParse(Operation operation, int elements, long nanos) {
+        }
+
+        @Override
+        public void onPollCycle(long nanos, int trackedJobs, int trackedGroups) {
+        }
+
+        @Override
+        public void onListenerDispatch(long lagNanos) {
+        }
+
+        @Override
+        public String toString() {
+            return "JobClientMetrics.NOOP";
+        }
+    };
+}
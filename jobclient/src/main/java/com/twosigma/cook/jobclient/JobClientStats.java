@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * An immutable snapshot of the internal state of a {@link JobClient}, see {@link JobClient#getStats()}, e.g. for a
+ * health check or a status page.
+ * <p>
+ * The members are read one after the other without stopping the client, so they need not be consistent with each
+ * other while the client is busy.
+ */
+final public class JobClientStats {
+
+    final private Map<Job.Status, Integer> _trackedJobs;
+    final private Map<Group.Status, Integer> _trackedGroups;
+    final private int _jobListeners;
+    final private int _groupListeners;
+    final private Map<JobClientMetrics.Operation, Integer> _inFlightRequests;
+    final private int _leasedConnections;
+    final private int _availableConnections;
+    final private int _pendingConnections;
+    final private int _maxConnections;
+    final private int _queuedRequests;
+    final private int _blockedSubmissions;
+    final private long _lastPollCycleMillis;
+    final private long _millisSinceSuccessfulPoll;
+    final private long _cachedCompletedJobs;
+    final private long _completedJobCacheHits;
+
+    JobClientStats(Map<Job.Status, Integer> trackedJobs, Map<Group.Status, Integer> trackedGroups, int jobListeners,
+                   int groupListeners, Map<JobClientMetrics.Operation, Integer> inFlightRequests,
+                   int leasedConnections, int availableConnections, int pendingConnections, int maxConnections,
+                   int queuedRequests, int blockedSubmissions, long lastPollCycleMillis,
+                   long millisSinceSuccessfulPoll, long cachedCompletedJobs, long completedJobCacheHits) {
+        _trackedJobs = ImmutableMap.copyOf(trackedJobs);
+        _trackedGroups = ImmutableMap.copyOf(trackedGroups);
+        _jobListeners = jobListeners;
+        _groupListeners = groupListeners;
+        _inFlightRequests = ImmutableMap.copyOf(inFlightRequests);
+        _leasedConnections = leasedConnections;
+        _availableConnections = availableConnections;
+        _pendingConnections = pendingConnections;
+        _maxConnections = maxConnections;
+        _queuedRequests = queuedRequests;
+        _blockedSubmissions = blockedSubmissions;
+        _lastPollCycleMillis = lastPollCycleMillis;
+        _millisSinceSuccessfulPoll = millisSinceSuccessfulPoll;
+        _cachedCompletedJobs = cachedCompletedJobs;
+        _completedJobCacheHits = completedJobCacheHits;
+    }
+
+    /**
+     * @return a map from every status to the number of tracked jobs in that status, as last observed.
+     */
+    public Map<Job.Status, Integer> getTrackedJobs() {
+        return _trackedJobs;
+    }
+
+    /**
+     * @return a map from every status to the number of tracked groups in that status, as last observed.
+     */
+    public Map<Group.Status, Integer> getTrackedGroups() {
+        return _trackedGroups;
+    }
+
+    /**
+     * @return the number of tracked jobs with a {@link JobListener}.
+     */
+    public int getJobListeners() {
+        return _jobListeners;
+    }
+
+    /**
+     * @return the number of tracked groups with a {@link GroupListener}.
+     */
+    public int getGroupListeners() {
+        return _groupListeners;
+    }
+
+    /**
+     * @return a map from every operation to the number of its requests waiting for a response of the scheduler.
+     */
+    public Map<JobClientMetrics.Operation, Integer> getInFlightRequests() {
+        return _inFlightRequests;
+    }
+
+    /**
+     * @return the number of pooled connections to the scheduler which are in use.
+     */
+    public int getLeasedConnections() {
+        return _leasedConnections;
+    }
+
+    /**
+     * @return the number of pooled connections to the scheduler which are idle.
+     */
+    public int getAvailableConnections() {
+        return _availableConnections;
+    }
+
+    /**
+     * @return the number of requests waiting for a pooled connection.
+     */
+    public int getPendingConnections() {
+        return _pendingConnections;
+    }
+
+    /**
+     * @return the maximum number of pooled connections.
+     */
+    public int getMaxConnections() {
+        return _maxConnections;
+    }
+
+    /**
+     * @return the number of requests of submissions and aborts queued for a request thread.
+     */
+    public int getQueuedRequests() {
+        return _queuedRequests;
+    }
+
+    /**
+     * @return the number of submissions held back by admission control or waiting for a slot of their lane.
+     */
+    public int getBlockedSubmissions() {
+        return _blockedSubmissions;
+    }
+
+    /**
+     * @return the duration in milliseconds of the last status update cycle, or -1 if none has run yet.
+     */
+    public long getLastPollCycleMillis() {
+        return _lastPollCycleMillis;
+    }
+
+    /**
+     * @return the milliseconds since the last status update cycle which queried all tracked jobs and groups
+     *         successfully ended, or -1 if none has.
+     */
+    public long getMillisSinceSuccessfulPoll() {
+        return _millisSinceSuccessfulPoll;
+    }
+
+    /**
+     * @return the number of completed jobs in the cache of completed jobs, or 0 if it is disabled.
+     */
+    public long getCachedCompletedJobs() {
+        return _cachedCompletedJobs;
+    }
+
+    /**
+     * @return the number of queried jobs which were answered from the cache of completed jobs.
+     */
+    public long getCompletedJobCacheHits() {
+        return _completedJobCacheHits;
+    }
+
+    @Override
+    public String toString() {
+        return "JobClientStats [_trackedJobs=" + _trackedJobs + ", _trackedGroups=" + _trackedGroups
+                + ", _jobListeners=" + _jobListeners + ", _groupListeners=" + _groupListeners
+                + ", _inFlightRequests=" + _inFlightRequests + ", _leasedConnections=" + _leasedConnections
+                + ", _availableConnections=" + _availableConnections + ", _pendingConnections=" + _pendingConnections
+                + ", _maxConnections=" + _maxConnections + ", _queuedRequests=" + _queuedRequests
+                + ", _blockedSubmissions=" + _blockedSubmissions + ", _lastPollCycleMillis=" + _lastPollCycleMillis
+                + ", _millisSinceSuccessfulPoll=" + _millisSinceSuccessfulPoll + ", _cachedCompletedJobs="
+                + _cachedCompletedJobs + ", _completedJobCacheHits=" + _completedJobCacheHits + "]";
+    }
+}
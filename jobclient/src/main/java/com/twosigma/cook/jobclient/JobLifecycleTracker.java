@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the timeline of every job which a {@link JobClient} tracks, from its submission to the first observation
+ * of each of its statuses by the listener service, and publishes the end-to-end latencies of the jobs as
+ * {@link Histogram}s, see {@link JobClient.Builder#setLifecycleTracker(JobLifecycleTracker)}.
+ * <p>
+ * The timeline of a job is correlated with the start and end times of its instances as reported by the scheduler,
+ * which splits the time until a job is observed running into the time it is queued by the scheduler and the lag of
+ * polling its status. All times are in milliseconds since the epoch, so durations mixing the clocks of the scheduler
+ * and the client are only as accurate as the clocks are synchronized, and negative durations are counted as 0.
+ * <p>
+ * A job is tracked from its successful submission until it is observed completed, i.e. as long as the job client
+ * polls its status.
+ */
+public final class JobLifecycleTracker {
+
+    /**
+     * The timeline of a job. Times are in milliseconds since the epoch, or 0 if not known yet.
+     */
+    public static final class Timeline {
+
+        private final UUID _uuid;
+        private final long _submitted;
+        private final long _acknowledged;
+        private final long _started;
+        private final long _observedRunning;
+        private final long _observedCompleted;
+
+        private Timeline(UUID uuid, long submitted, long acknowledged, long started, long observedRunning,
+                         long observedCompleted) {
+            _uuid = uuid;
+            _submitted = submitted;
+            _acknowledged = acknowledged;
+            _started = started;
+            _observedRunning = observedRunning;
+            _observedCompleted = observedCompleted;
+        }
+
+        public UUID getUUID() {
+            return _uuid;
+        }
+
+        /**
+         * @return when the request submitting the job was sent.
+         */
+        public long getSubmitted() {
+            return _submitted;
+        }
+
+        /**
+         * @return when the scheduler acknowledged the submission of the job.
+         */
+        public long getAcknowledged() {
+            return _acknowledged;
+        }
+
+        /**
+         * @return when the first instance of the job started according to the scheduler.
+         */
+        public long getStarted() {
+            return _started;
+        }
+
+        /**
+         * @return when the job was first observed running.
+         */
+        public long getObservedRunning() {
+            return _observedRunning;
+        }
+
+        /**
+         * @return when the job was first observed completed.
+         */
+        public long getObservedCompleted() {
+            return _observedCompleted;
+        }
+
+        @Override
+        public String toString() {
+            return "Timeline [_uuid=" + _uuid + ", _submitted=" + _submitted + ", _acknowledged=" + _acknowledged
+                    + ", _started=" + _started + ", _observedRunning=" + _observedRunning
+                    + ", _observedCompleted=" + _observedCompleted + "]";
+        }
+    }
+
+    /**
+     * The mutable timeline of a tracked job. It is updated by the listener service and read by any thread.
+     */
+    private static final class Entry {
+
+        private final long _submitted;
+        private final long _acknowledged;
+        private long _started;
+        private long _observedRunning;
+        private long _observedCompleted;
+
+        Entry(long submitted, long acknowledged) {
+            _submitted = submitted;
+            _acknowledged = acknowledged;
+        }
+
+        synchronized Timeline toTimeline(UUID uuid) {
+            return new Timeline(uuid, _submitted, _acknowledged, _started, _observedRunning, _observedCompleted);
+        }
+    }
+
+    private final Map<UUID, Entry> _entries = new ConcurrentHashMap<>();
+    private final Histogram _submitLatencies = new Histogram();
+    private final Histogram _queueTimes = new Histogram();
+    private final Histogram _pollLags = new Histogram();
+    private final Histogram _notificationLags = new Histogram();
+    private final Histogram _timesToRunning = new Histogram();
+    private final Histogram _timesToCompleted = new Histogram();
+
+    /**
+     * The given jobs were submitted by a request sent and acknowledged at the given times.
+     */
+    void onSubmitted(Collection<Job> jobs, long submitted, long acknowledged) {
+        for (Job job : jobs) {
+            _entries.put(job.getUUID(), new Entry(submitted, acknowledged));
+            _submitLatencies.record(acknowledged - submitted);
+        }
+    }
+
+    /**
+     * The given job was observed with a new status at the given time.
+     */
+    void onObserved(Job job, long observed) {
+        final Entry entry = _entries.get(job.getUUID());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry._started == 0) {
+                final Long started = getFirstStartTime(job);
+                if (started != null) {
+                    entry._started = started;
+                    _queueTimes.record(started - entry._acknowledged);
+                }
+            }
+            if (job.getStatus() == Job.Status.RUNNING && entry._observedRunning == 0) {
+                entry._observedRunning = observed;
+                _timesToRunning.record(observed - entry._acknowledged);
+                final Instance instance = job.getRunningInstance();
+                if (instance != null && instance.getStartTime() != null) {
+                    _pollLags.record(observed - instance.getStartTime());
+                }
+            } else if (job.getStatus() == Job.Status.COMPLETED && entry._observedCompleted == 0) {
+                entry._observedCompleted = observed;
+                _timesToCompleted.record(observed - entry._acknowledged);
+                final Instance instance = job.getLatestInstance();
+                if (instance != null && instance.getEndTime() != null) {
+                    _pollLags.record(observed - instance.getEndTime());
+                }
+            }
+        }
+    }
+
+    /**
+     * The listener of the given job is about to be invoked at the given time for the status observed before.
+     */
+    void onNotified(Job job, long notified) {
+        final Entry entry = _entries.get(job.getUUID());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            final long observed =
+                    job.getStatus() == Job.Status.COMPLETED ? entry._observedCompleted : entry._observedRunning;
+            if (observed != 0) {
+                _notificationLags.record(notified - observed);
+            }
+        }
+    }
+
+    /**
+     * The given job is no longer tracked.
+     */
+    void onUntracked(UUID uuid) {
+        _entries.remove(uuid);
+    }
+
+    private static Long getFirstStartTime(Job job) {
+        Long first = null;
+        for (Instance instance : job.getInstances()) {
+            final Long started = instance.getStartTime();
+            if (started != null && (first == null || started < first)) {
+                first = started;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @return the timeline of a tracked job, or {@code null} if the job is not tracked.
+     */
+    public Timeline getTimeline(UUID uuid) {
+        final Entry entry = _entries.get(uuid);
+        return entry == null ? null : entry.toTimeline(uuid);
+    }
+
+    /**
+     * @return the number of tracked jobs.
+     */
+    public int getTrackedJobs() {
+        return _entries.size();
+    }
+
+    /**
+     * @return the time in milliseconds from sending a submission to its acknowledgement.
+     */
+    public Histogram getSubmitLatencies() {
+        return _submitLatencies;
+    }
+
+    /**
+     * @return the time in milliseconds from the acknowledgement of a submission to the start of the first instance
+     *         of a job, i.e. the time the job was queued by the scheduler.
+     */
+    public Histogram getQueueTimes() {
+        return _queueTimes;
+    }
+
+    /**
+     * @return the time in milliseconds from an instance starting or ending, according to the scheduler, to the job
+     *         being observed running or completed, i.e. the lag of polling the status of jobs.
+     */
+    public Histogram getPollLags() {
+        return _pollLags;
+    }
+
+    /**
+     * @return the time in milliseconds from observing a job running or completed to invoking its listener.
+     */
+    public Histogram getNotificationLags() {
+        return _notificationLags;
+    }
+
+    /**
+     * @return the time in milliseconds from the acknowledgement of a submission to observing a job running.
+     */
+    public Histogram getTimesToRunning() {
+        return _timesToRunning;
+    }
+
+    /**
+     * @return the time in milliseconds from the acknowledgement of a submission to observing a job completed.
+     */
+    public Histogram getTimesToCompleted() {
+        return _timesToCompleted;
+    }
+
+    @Override
+    public String toString() {
+        return "JobLifecycleTracker [trackedJobs=" + getTrackedJobs() + ", submitLatencies=" + _submitLatencies
+                + ", queueTimes=" + _queueTimes + ", pollLags=" + _pollLags + ", notificationLags="
+                + _notificationLags + ", timesToRunning=" + _timesToRunning + ", timesToCompleted="
+                + _timesToCompleted + "]";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable, compact snapshot of the state of a job which {@link JobClient} tracks between status updates.
+ * <p>
+ * A {@link Job} carries its command, environment, labels, container, URIs and instances, which add up to several
+ * KB, while tracking a job only requires its UUID, group, status and a few facts about its instances. A snapshot
+ * holds those in primitive fields and shares the UUIDs of the job it was taken from, so it takes about 32 bytes.
+ */
+final public class JobSnapshot {
+
+    private static final Job.Status[] JOB_STATUSES = Job.Status.values();
+
+    private static final Instance.Status[] INSTANCE_STATUSES = Instance.Status.values();
+
+    /**
+     * The ordinal stored when a job has no instances.
+     */
+    private static final byte NO_INSTANCE = -1;
+
+    final private UUID _uuid;
+    final private UUID _group;
+    final private int _priority;
+    final private int _instanceCount;
+    final private byte _status;
+    final private byte _lastInstanceStatus;
+
+    private JobSnapshot(UUID uuid, UUID group, int priority, int instanceCount, byte status, byte lastInstanceStatus) {
+        _uuid = uuid;
+        _group = group;
+        _priority = priority;
+        _instanceCount = instanceCount;
+        _status = status;
+        _lastInstanceStatus = lastInstanceStatus;
+    }
+
+    /**
+     * @param job specifies the job to take a snapshot of.
+     * @return a snapshot of the current state of the job.
+     */
+    static JobSnapshot of(Job job) {
+        final Integer priority = job.getPriority();
+        final List<Instance> instances = job.getInstances();
+        final int instanceCount = instances == null ? 0 : instances.size();
+        final Instance latest = instanceCount == 0 ? null : job.getLatestInstance();
+        final byte lastInstanceStatus = latest == null ? NO_INSTANCE : (byte) latest.getStatus().ordinal();
+        final Job.Status status = job.getStatus();
+        return new JobSnapshot(job.getUUID(), job.getGroup(), priority == null ? 0 : priority, instanceCount,
+                (byte) (status == null ? Job.Status.INITIALIZED : status).ordinal(), lastInstanceStatus);
+    }
+
+    /**
+     * @return the UUID of the job.
+     */
+    public UUID getUUID() {
+        return _uuid;
+    }
+
+    /**
+     * @return the UUID of the group of the job, or {@code null} if the job is not in a group.
+     */
+    public UUID getGroup() {
+        return _group;
+    }
+
+    /**
+     * @return the status of the job.
+     */
+    public Job.Status getStatus() {
+        return JOB_STATUSES[_status];
+    }
+
+    /**
+     * @return the priority of the job.
+     */
+    public int getPriority() {
+        return _priority;
+    }
+
+    /**
+     * @return the number of instances of the job.
+     */
+    public int getInstanceCount() {
+        return _instanceCount;
+    }
+
+    /**
+     * @return the status of the latest instance of the job, or {@code null} if the job has no instances.
+     */
+    public Instance.Status getLastInstanceStatus() {
+        return _lastInstanceStatus == NO_INSTANCE ? null : INSTANCE_STATUSES[_lastInstanceStatus];
+    }
+
+    @Override
+    public String toString() {
+        return "JobSnapshot [_uuid=" + _uuid + ", _group=" + _group + ", _status=" + getStatus() + ", _priority="
+                + _priority + ", _instanceCount=" + _instanceCount + ", _lastInstanceStatus=" + getLastInstanceStatus()
+                + "]";
+    }
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.json.JSONException;
+
+/**
+ * A {@link ValueReader} for JSON text, which decodes responses of the Cook scheduler without building an intermediate
+ * {@link org.json.JSONObject} tree.
+ * <p>
+ * Malformed input is reported with a {@link JSONException} like the parser of org.json.
+ */
+final class JsonReader extends ValueReader {
+
+    /**
+     * The state of the innermost array or object.
+     */
+    private static final byte EMPTY = 0;
+    private static final byte NONEMPTY = 1;
+    private static final byte READY = 2;
+    private static final byte NAME = 3;
+
+    private final String _json;
+
+    private final int _length;
+
+    private int _pos;
+
+    /**
+     * The state and kind of each enclosing array or object where index 0 is the document itself.
+     */
+    private byte[] _states = new byte[16];
+
+    private boolean[] _objects = new boolean[16];
+
+    private int _depth;
+
+    JsonReader(String json) {
+        this(json, 0, json.length());
+    }
+
+    /**
+     * Create a reader of the document {@code json.substring(start, end)}. Positions in error messages are relative
+     * to the whole text.
+     */
+    JsonReader(String json, int start, int end) {
+        _json = json;
+        _pos = start;
+        _length = end;
+    }
+
+    /**
+     * @return the JSON text, e.g. to report a malformed document.
+     */
+    @Override
+    public String toString() {
+        return _json;
+    }
+
+    /**
+     * @return the index of the next character to read.
+     */
+    int getPosition() {
+        return _pos;
+    }
+
+    @Override
+    void beginArray()
+        throws JSONException {
+        beforeValue();
+        expect('[');
+        push(false);
+    }
+
+    @Override
+    void endArray()
+        throws JSONException {
+        skipWhitespace();
+        expect(']');
+        pop(false);
+        afterValue();
+    }
+
+    @Override
+    void beginObject()
+        throws JSONException {
+        beforeValue();
+        expect('{');
+        push(true);
+    }
+
+    @Override
+    void endObject()
+        throws JSONException {
+        skipWhitespace();
+        expect('}');
+        pop(true);
+        afterValue();
+    }
+
+    /**
+     * Assert that the whole input has been consumed.
+     */
+    @Override
+    void endDocument()
+        throws JSONException {
+        skipWhitespace();
+        if (_pos < _length) {
+            throw syntaxError("Unexpected trailing characters");
+        }
+    }
+
+    /**
+     * @return whether the current array or object has another element.
+     */
+    @Override
+    boolean hasNext()
+        throws JSONException {
+        final byte state = _states[_depth];
+        if (state == READY || state == NAME) {
+            return true;
+        }
+        skipWhitespace();
+        final char c = peekChar();
+        if (c == ']' || c == '}') {
+            return false;
+        }
+        if (state == NONEMPTY) {
+            expect(',');
+            skipWhitespace();
+        }
+        _states[_depth] = READY;
+        return true;
+    }
+
+    /**
+     * @return the name of the next member of the current object.
+     */
+    @Override
+    String nextName()
+        throws JSONException {
+        if (!_objects[_depth] || _states[_depth] == NAME) {
+            throw syntaxError("Expected a value");
+        }
+        if (!hasNext()) {
+            throw syntaxError("Expected a name");
+        }
+        skipWhitespace();
+        if (peekChar() != '"') {
+            throw syntaxError("Expected a name");
+        }
+        final String name = readString(NAMES);
+        skipWhitespace();
+        expect(':');
+        _states[_depth] = NAME;
+        return name;
+    }
+
+    /**
+     * Consume the next value if it is {@code null}.
+     *
+     * @return whether the next value was {@code null}.
+     */
+    @Override
+    boolean nextNull()
+        throws JSONException {
+        beforeValue();
+        if (_json.startsWith("null", _pos)) {
+            _pos += 4;
+            afterValue();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    String nextString()
+        throws JSONException {
+        beforeValue();
+        if (peekChar() != '"') {
+            throw syntaxError("Expected a string");
+        }
+        final String result = readString(null);
+        afterValue();
+        return result;
+    }
+
+    /**
+     * Read a string of a member with few distinct values, e.g. a host name, pool or status. The result is shared
+     * with equal strings read before, so repeated values neither allocate nor retain additional strings.
+     */
+    @Override
+    String nextInternedString()
+        throws JSONException {
+        beforeValue();
+        if (peekChar() != '"') {
+            throw syntaxError("Expected a string");
+        }
+        final String result = readString(VALUES);
+        afterValue();
+        return result;
+    }
+
+    /**
+     * Read a string holding a UUID. UUIDs in canonical form are decoded straight from the input.
+     *
+     * @throws IllegalArgumentException if the string is not a UUID, like {@link UUID#fromString(String)}.
+     */
+    @Override
+    UUID nextUUID()
+        throws JSONException {
+        beforeValue();
+        if (peekChar() != '"') {
+            throw syntaxError("Expected a string");
+        }
+        final int start = _pos + 1;
+        final int end = start + UUIDs.LENGTH;
+        if (end < _length && _json.charAt(end) == '"') {
+            final UUID uuid = UUIDs.parse(_json, start);
+            if (uuid != null) {
+                _pos = end + 1;
+                afterValue();
+                return uuid;
+            }
+        }
+        final String value = readString(null);
+        afterValue();
+        return UUID.fromString(value);
+    }
+
+    @Override
+    boolean nextBoolean()
+        throws JSONException {
+        beforeValue();
+        final boolean result;
+        if (_json.startsWith("true", _pos)) {
+            _pos += 4;
+            result = true;
+        } else if (_json.startsWith("false", _pos)) {
+            _pos += 5;
+            result = false;
+        } else if (peekChar() == '"') {
+            // Like org.json, accept booleans in strings.
+            final String value = readString(null);
+            if ("true".equalsIgnoreCase(value)) {
+                result = true;
+            } else if ("false".equalsIgnoreCase(value)) {
+                result = false;
+            } else {
+                throw syntaxError("Expected a boolean");
+            }
+        } else {
+            throw syntaxError("Expected a boolean");
+        }
+        afterValue();
+        return result;
+    }
+
+    @Override
+    long nextLong()
+        throws JSONException {
+        beforeValue();
+        final int start = _pos;
+        long result = 0;
+        boolean negative = false;
+        if (_pos < _length && _json.charAt(_pos) == '-') {
+            negative = true;
+            _pos++;
+        }
+        final int digitsStart = _pos;
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            result = result * 10 + (c - '0');
+            _pos++;
+        }
+        final int digits = _pos - digitsStart;
+        if (digits == 0 || isNumberChar(peekCharOrEnd())) {
+            // Leave fractions, exponents and strings to the general path.
+            _pos = start;
+            result = (long) readDouble();
+        } else if (digits > 18) {
+            // The value may overflow, e.g. Long.MAX_VALUE.
+            try {
+                result = Long.parseLong(_json.substring(start, _pos));
+            } catch (NumberFormatException e) {
+                _pos = start;
+                result = (long) readDouble();
+            }
+        } else if (negative) {
+            result = -result;
+        }
+        afterValue();
+        return result;
+    }
+
+    @Override
+    double nextDouble()
+        throws JSONException {
+        beforeValue();
+        final double result = readDouble();
+        afterValue();
+        return result;
+    }
+
+    /**
+     * Skip the next value including all values nested in it.
+     */
+    @Override
+    void skipValue()
+        throws JSONException {
+        beforeValue();
+        scanValue();
+        afterValue();
+    }
+
+    /**
+     * Read the next value, which must be an array, by a structural scan of its elements without decoding them.
+     *
+     * @return a reader of each element as a separate document, which may be used by another thread.
+     */
+    List<JsonReader> nextElements()
+        throws JSONException {
+        final List<JsonReader> elements = new ArrayList<>();
+        beginArray();
+        while (hasNext()) {
+            beforeValue();
+            final int start = _pos;
+            scanValue();
+            afterValue();
+            elements.add(new JsonReader(_json, start, _pos));
+        }
+        endArray();
+        return elements;
+    }
+
+    /**
+     * Skip the next value and return its JSON text, e.g. to parse it with org.json.
+     */
+    @Override
+    String nextRaw()
+        throws JSONException {
+        beforeValue();
+        final int start = _pos;
+        scanValue();
+        afterValue();
+        return _json.substring(start, _pos);
+    }
+
+    private void beforeValue()
+        throws JSONException {
+        if (_depth > 0) {
+            if (_objects[_depth]) {
+                if (_states[_depth] != NAME) {
+                    throw syntaxError("Expected a name");
+                }
+            } else if (!hasNext()) {
+                throw syntaxError("Expected a value");
+            }
+        }
+        skipWhitespace();
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+    }
+
+    private void afterValue() {
+        _states[_depth] = NONEMPTY;
+    }
+
+    private void push(boolean object) {
+        if (++_depth == _states.length) {
+            _states = Arrays.copyOf(_states, _depth * 2);
+            _objects = Arrays.copyOf(_objects, _depth * 2);
+        }
+        _states[_depth] = EMPTY;
+        _objects[_depth] = object;
+    }
+
+    private void pop(boolean object)
+        throws JSONException {
+        if (_depth == 0 || _objects[_depth] != object) {
+            throw syntaxError("Mismatched " + (object ? "'}'" : "']'"));
+        }
+        _depth--;
+    }
+
+    private double readDouble()
+        throws JSONException {
+        final String token;
+        if (peekChar() == '"') {
+            // Like org.json, accept numbers in strings.
+            token = readString(null);
+        } else {
+            final int start = _pos;
+            while (_pos < _length && isNumberChar(_json.charAt(_pos))) {
+                _pos++;
+            }
+            token = _json.substring(start, _pos);
+        }
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected a number but found \"" + token + "\"");
+        }
+    }
+
+    /**
+     * Read a string starting at the opening quote.
+     *
+     * @param interner specifies the interner of the string, or {@code null}.
+     */
+    private String readString(StringInterner interner)
+        throws JSONException {
+        int start = ++_pos;
+        // Fast path for strings without escapes.
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos);
+            if (c == '"') {
+                final int end = _pos++;
+                return interner == null ? _json.substring(start, end) : interner.intern(_json, start, end);
+            }
+            if (c == '\\') {
+                break;
+            }
+            _pos++;
+        }
+        final StringBuilder builder = new StringBuilder(_pos - start + 16);
+        builder.append(_json, start, _pos);
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos++);
+            if (c == '"') {
+                return interner == null ? builder.toString() : interner.intern(builder.toString());
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (_pos >= _length) {
+                break;
+            }
+            final char escaped = _json.charAt(_pos++);
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 'u':
+                    if (_pos + 4 > _length) {
+                        throw syntaxError("Illegal escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(_json.substring(_pos, _pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw syntaxError("Illegal escape");
+                    }
+                    _pos += 4;
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escaped);
+                    break;
+                default:
+                    throw syntaxError("Illegal escape");
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    /**
+     * Advance past the string starting at the opening quote without decoding it.
+     */
+    private void skipString()
+        throws JSONException {
+        _pos++;
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos++);
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                _pos++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    /**
+     * Advance past the value starting at the current position.
+     */
+    private void scanValue()
+        throws JSONException {
+        final char first = peekChar();
+        if (first == '"') {
+            skipString();
+            return;
+        }
+        if (first != '{' && first != '[') {
+            final int start = _pos;
+            while (_pos < _length && isNumberChar(_json.charAt(_pos))
+                    || _pos < _length && Character.isLetter(_json.charAt(_pos))) {
+                _pos++;
+            }
+            if (start == _pos) {
+                throw syntaxError("Expected a value");
+            }
+            return;
+        }
+        int depth = 0;
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos);
+            if (c == '"') {
+                skipString();
+                continue;
+            }
+            _pos++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    return;
+                }
+            }
+        }
+        throw syntaxError("Unterminated " + (first == '{' ? "object" : "array"));
+    }
+
+    private void skipWhitespace() {
+        while (_pos < _length) {
+            final char c = _json.charAt(_pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            _pos++;
+        }
+    }
+
+    private void expect(char expected)
+        throws JSONException {
+        if (_pos >= _length || _json.charAt(_pos) != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+        _pos++;
+    }
+
+    private char peekChar()
+        throws JSONException {
+        if (_pos >= _length) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return _json.charAt(_pos);
+    }
+
+    private char peekCharOrEnd() {
+        return _pos < _length ? _json.charAt(_pos) : ' ';
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + _pos);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.json.JSONException;
+
+/**
+ * Writes JSON text directly into a {@link StringBuilder}. It is the counterpart of {@link JsonReader} and is used by
+ * the schema specific writers of {@link Job}, {@link Group} and {@link FetchableURI} to encode submissions without
+ * building an intermediate {@link org.json.JSONObject} tree.
+ * <p>
+ * The writer only inserts separators; it is up to the caller to produce a well-formed document.
+ */
+final class JsonWriter {
+
+    private final StringBuilder _out;
+
+    /**
+     * Whether a separator is required before the next member or element.
+     */
+    private boolean _needsComma;
+
+    JsonWriter(int capacity) {
+        _out = new StringBuilder(capacity);
+    }
+
+    JsonWriter beginObject() {
+        separate();
+        _out.append('{');
+        _needsComma = false;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        _out.append('}');
+        _needsComma = true;
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        separate();
+        _out.append('[');
+        _needsComma = false;
+        return this;
+    }
+
+    JsonWriter endArray() {
+        _out.append(']');
+        _needsComma = true;
+        return this;
+    }
+
+    JsonWriter name(String name) {
+        separate();
+        quote(name);
+        _out.append(':');
+        _needsComma = false;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            _out.append("null");
+        } else {
+            quote(value);
+        }
+        _needsComma = true;
+        return this;
+    }
+
+    /**
+     * Write a UUID as a string in canonical form without creating an intermediate string.
+     */
+    JsonWriter value(UUID value) {
+        separate();
+        _out.append('"');
+        UUIDs.append(_out, value);
+        _out.append('"');
+        _needsComma = true;
+        return this;
+    }
+
+    JsonWriter value(boolean value) {
+        separate();
+        _out.append(value);
+        _needsComma = true;
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        separate();
+        _out.append(value);
+        _needsComma = true;
+        return this;
+    }
+
+    /**
+     * Write a number the way org.json does, i.e. integral values are written without a fraction.
+     */
+    JsonWriter value(double value)
+        throws JSONException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        separate();
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            _out.append((long) value);
+        } else {
+            _out.append(value);
+        }
+        _needsComma = true;
+        return this;
+    }
+
+    /**
+     * Write an object whose values are all strings.
+     */
+    JsonWriter value(Map<String, String> map) {
+        beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            name(entry.getKey()).value(entry.getValue());
+        }
+        return endObject();
+    }
+
+    /**
+     * Write a value which is already encoded as JSON text, e.g. the {@code toString()} of a
+     * {@link org.json.JSONObject}.
+     */
+    JsonWriter rawValue(String json) {
+        separate();
+        _out.append(json);
+        _needsComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return _out.toString();
+    }
+
+    private void separate() {
+        if (_needsComma) {
+            _out.append(',');
+        }
+    }
+
+    /**
+     * Write a quoted string using the escapes of org.json.
+     */
+    private void quote(String string) {
+        final StringBuilder out = _out;
+        out.append('"');
+        final int length = string.length();
+        char previous = 0;
+        for (int i = 0; i < length; ++i) {
+            final char c = string.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    out.append('\\').append(c);
+                    break;
+                case '/':
+                    if (previous == '<') {
+                        out.append('\\');
+                    }
+                    out.append(c);
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                default:
+                    if (c < 0x20 || (c >= 0x80 && c < 0xa0) || (c >= 0x2000 && c < 0x2100)) {
+                        final String hex = Integer.toHexString(c);
+                        out.append("\\u");
+                        for (int j = hex.length(); j < 4; ++j) {
+                            out.append('0');
+                        }
+                        out.append(hex);
+                    } else {
+                        out.append(c);
+                    }
+            }
+            previous = c;
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.json.JSONException;
+
+/**
+ * Reads a document holding an array, e.g. the jobs or groups of a response, and decodes its elements on a
+ * {@link ForkJoinPool}.
+ * <p>
+ * The array is first split into its elements by a structural scan which only matches brackets, braces and quotes,
+ * see {@link JsonReader#nextElements()}. The elements are then decoded in parallel by independent readers and
+ * returned in document order. Small arrays, arrays of binary documents and reads without a pool are decoded
+ * sequentially as usual.
+ */
+final class ParallelArrayReader {
+
+    /**
+     * Decodes one element of an array. When reading in parallel, it is called from the threads of the pool and must
+     * therefore be thread safe, as must be any {@link InstanceDecorator} it applies.
+     */
+    interface ElementReader<T> {
+        /**
+         * @param reader specifies a reader positioned at the element.
+         */
+        T read(ValueReader reader)
+            throws JSONException;
+    }
+
+    /**
+     * Below this number of elements, the array is decoded sequentially as forking would not pay off.
+     */
+    static final int MIN_PARALLEL_ELEMENTS = 64;
+
+    /**
+     * The number of elements which a single task decodes.
+     */
+    private static final int ELEMENTS_PER_TASK = 16;
+
+    private ParallelArrayReader() {
+    }
+
+    /**
+     * Read a whole document holding an array.
+     *
+     * @param reader specifies a reader positioned at the start of the document.
+     * @param elementReader specifies how to decode each element.
+     * @param pool specifies the pool to decode the elements on, or {@code null} to decode them sequentially.
+     * @return the decoded elements in document order.
+     * @throws JSONException if the document or any of its elements is malformed.
+     */
+    static <T> List<T> readArray(ValueReader reader, ElementReader<T> elementReader, ForkJoinPool pool)
+        throws JSONException {
+        if (pool == null || !(reader instanceof JsonReader)) {
+            final List<T> result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(elementReader.read(reader));
+            }
+            reader.endArray();
+            reader.endDocument();
+            return result;
+        }
+        final List<JsonReader> elements = ((JsonReader) reader).nextElements();
+        reader.endDocument();
+        final Object[] result = new Object[elements.size()];
+        if (elements.size() < MIN_PARALLEL_ELEMENTS) {
+            readElements(elements, elementReader, result, 0, result.length);
+        } else {
+            pool.invoke(new ReadTask<>(elements, elementReader, result, 0, result.length));
+        }
+        @SuppressWarnings("unchecked")
+        final List<T> list = (List<T>) Arrays.asList(result);
+        return new ArrayList<>(list);
+    }
+
+    private static <T> void readElements(List<JsonReader> elements, ElementReader<T> elementReader, Object[] result,
+                                         int from, int to)
+        throws JSONException {
+        for (int i = from; i < to; ++i) {
+            final JsonReader element = elements.get(i);
+            result[i] = elementReader.read(element);
+            element.endDocument();
+        }
+    }
+
+    /**
+     * Decodes the elements in {@code [from, to)} into {@code result}, splitting the range in halves until it holds
+     * at most {@link #ELEMENTS_PER_TASK} elements.
+     */
+    private static final class ReadTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<JsonReader> _elements;
+        private final ElementReader<T> _elementReader;
+        private final Object[] _result;
+        private final int _from;
+        private final int _to;
+
+        ReadTask(List<JsonReader> elements, ElementReader<T> elementReader, Object[] result, int from, int to) {
+            _elements = elements;
+            _elementReader = elementReader;
+            _result = result;
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (_to - _from > ELEMENTS_PER_TASK) {
+                final int middle = (_from + _to) >>> 1;
+                invokeAll(new ReadTask<>(_elements, _elementReader, _result, _from, middle),
+                        new ReadTask<>(_elements, _elementReader, _result, middle, _to));
+            } else {
+                readElements(_elements, _elementReader, _result, _from, _to);
+            }
+        }
+    }
+}
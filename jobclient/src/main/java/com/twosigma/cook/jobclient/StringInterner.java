@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A bounded, lock-free interner for the low-cardinality strings of scheduler responses, e.g. member names, host
+ * names, slave ids, pools, users and statuses.
+ * <p>
+ * Strings are looked up straight from a region of the input, so a hit allocates nothing, and stored in a fixed number
+ * of slots indexed by their hash. A string evicts whatever previously occupied its slot, which keeps the interner
+ * bounded no matter how many distinct values pass through it while values that repeat stay resident. Slots are read
+ * and written without synchronization; this is safe because {@link String}s are immutable, and the worst case of a
+ * race is a duplicate string.
+ */
+final class StringInterner {
+
+    /**
+     * Longer strings are unlikely to repeat and are never interned.
+     */
+    static final int MAX_LENGTH = 128;
+
+    private final String[] _slots;
+
+    private final int _mask;
+
+    /**
+     * @param capacity specifies the number of slots, a power of two.
+     */
+    StringInterner(int capacity) {
+        Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "capacity must be a power of 2");
+        _slots = new String[capacity];
+        _mask = capacity - 1;
+    }
+
+    /**
+     * @return a string equal to {@code chars.subSequence(start, end)}, shared with earlier calls where possible.
+     */
+    String intern(String chars, int start, int end) {
+        final int length = end - start;
+        if (length > MAX_LENGTH) {
+            return chars.substring(start, end);
+        }
+        int hash = 0;
+        for (int i = start; i < end; ++i) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        final int slot = (hash ^ (hash >>> 16)) & _mask;
+        final String candidate = _slots[slot];
+        if (candidate != null && candidate.length() == length && candidate.regionMatches(0, chars, start, length)) {
+            return candidate;
+        }
+        final String result = chars.substring(start, end);
+        _slots[slot] = result;
+        return result;
+    }
+
+    /**
+     * @return a string equal to {@code string}, shared with earlier calls where possible.
+     */
+    String intern(String string) {
+        return intern(string, 0, string.length());
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Priority lanes for the outgoing submission requests of a {@link JobClient}.
+ * <p>
+ * A submission request travels in the high lane if any of its jobs has a priority of at least the configured
+ * threshold, and in the normal lane otherwise. At most {@code requestParallelism} normal requests are in flight at
+ * any time while high requests may additionally use {@code reservedRequests} slots, so bulk submissions can never
+ * occupy all connections. Whenever a slot frees up, waiting high requests are served before normal ones, and the
+ * request pool created by {@link #newRequestExecutor(ThreadFactory)} runs queued high lane tasks first.
+ */
+final class SubmissionLanes {
+
+    enum Lane {
+        HIGH, NORMAL
+    }
+
+    private final int _minHighPriority;
+
+    private final int _requestParallelism;
+
+    private final int _reservedRequests;
+
+    private final long _timeoutMillis;
+
+    /**
+     * The number of requests in flight per lane.
+     */
+    private int _inFlightHigh;
+
+    private int _inFlightNormal;
+
+    /**
+     * The number of high lane requests waiting for a slot.
+     */
+    private int _waitingHigh;
+
+    /**
+     * The number of requests of both lanes waiting for a slot. It is only modified while holding the lock, but
+     * volatile so that {@link #getWaiting()} can read it without taking the lock.
+     */
+    private volatile int _waiting;
+
+    /**
+     * @param minHighPriority specifies the minimum job priority of the high lane.
+     * @param requestParallelism specifies the maximum number of normal lane requests in flight.
+     * @param reservedRequests specifies the number of additional requests in flight reserved for the high lane.
+     * @param timeoutSeconds specifies how long a request may wait for a slot before it fails.
+     */
+    SubmissionLanes(int minHighPriority, int requestParallelism, int reservedRequests, int timeoutSeconds) {
+        Preconditions.checkArgument(requestParallelism > 0, "requestParallelism must be > 0");
+        Preconditions.checkArgument(reservedRequests >= 0, "reservedRequests must be >= 0");
+        Preconditions.checkArgument(timeoutSeconds > 0, "timeoutSeconds must be > 0");
+        _minHighPriority = minHighPriority;
+        _requestParallelism = requestParallelism;
+        _reservedRequests = reservedRequests;
+        _timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    /**
+     * @return the lane of a request submitting the given jobs.
+     */
+    Lane laneOf(Collection<Job> jobs) {
+        for (Job job : jobs) {
+            final Integer priority = job.getPriority();
+            if (priority != null && priority >= _minHighPriority) {
+                return Lane.HIGH;
+            }
+        }
+        return Lane.NORMAL;
+    }
+
+    /**
+     * @return the maximum number of requests in flight across both lanes.
+     */
+    int getMaxInFlight() {
+        return _requestParallelism + _reservedRequests;
+    }
+
+    /**
+     * Block until a request of the given lane may be sent.
+     *
+     * @param lane specifies the lane of the request.
+     * @throws JobClientException if no slot was available within the timeout or the thread was interrupted.
+     */
+    synchronized void acquire(Lane lane)
+        throws JobClientException {
+        final long deadline = System.currentTimeMillis() + _timeoutMillis;
+        if (lane == Lane.HIGH) {
+            _waitingHigh++;
+        }
+        _waiting++;
+        try {
+            while (!canSend(lane)) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new JobClientException("Timed out after " + _timeoutMillis + " ms waiting to send a "
+                            + lane + " lane request while " + (_inFlightHigh + _inFlightNormal)
+                            + " requests are in flight");
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobClientException("Interrupted while waiting to send a " + lane + " lane request", e);
+        } finally {
+            if (lane == Lane.HIGH) {
+                _waitingHigh--;
+                // Normal requests may have been held back only by this one.
+                notifyAll();
+            }
+            _waiting--;
+        }
+        if (lane == Lane.HIGH) {
+            _inFlightHigh++;
+        } else {
+            _inFlightNormal++;
+        }
+    }
+
+    /**
+     * Release the slot of a request of the given lane which completed or failed.
+     */
+    synchronized void release(Lane lane) {
+        if (lane == Lane.HIGH) {
+            _inFlightHigh = Math.max(0, _inFlightHigh - 1);
+        } else {
+            _inFlightNormal = Math.max(0, _inFlightNormal - 1);
+        }
+        notifyAll();
+    }
+
+    synchronized int getInFlight(Lane lane) {
+        return lane == Lane.HIGH ? _inFlightHigh : _inFlightNormal;
+    }
+
+    /**
+     * @return the number of requests of both lanes waiting for a slot, read without taking the lock.
+     */
+    int getWaiting() {
+        return _waiting;
+    }
+
+    private boolean canSend(Lane lane) {
+        final int inFlight = _inFlightHigh + _inFlightNormal;
+        if (lane == Lane.HIGH) {
+            return inFlight < getMaxInFlight();
+        }
+        return _waitingHigh == 0 && _inFlightNormal < _requestParallelism && inFlight < getMaxInFlight();
+    }
+
+    /**
+     * Create a fixed request pool with one thread per slot which runs queued high lane tasks before normal lane
+     * tasks, and tasks of the same lane in submission order. Tasks which are not submitted through
+     * {@link #task(Lane, Callable)} run in the normal lane.
+     */
+    ThreadPoolExecutor newRequestExecutor(ThreadFactory threadFactory) {
+        final int threads = getMaxInFlight();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), threadFactory) {
+            @Override
+            protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+                final Lane lane = callable instanceof LaneTask ? ((LaneTask<T>) callable)._lane : Lane.NORMAL;
+                return new LaneFuture<>(callable, lane);
+            }
+
+            @Override
+            protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+                return new LaneFuture<>(Executors.callable(runnable, value), Lane.NORMAL);
+            }
+        };
+    }
+
+    /**
+     * Tag a task submitted to a request pool with its lane.
+     */
+    static <T> Callable<T> task(Lane lane, Callable<T> callable) {
+        return new LaneTask<>(lane, callable);
+    }
+
+    private static final class LaneTask<T> implements Callable<T> {
+        private final Lane _lane;
+        private final Callable<T> _callable;
+
+        LaneTask(Lane lane, Callable<T> callable) {
+            _lane = lane;
+            _callable = callable;
+        }
+
+        @Override
+        public T call() throws Exception {
+            return _callable.call();
+        }
+    }
+
+    private static final AtomicLong _sequence = new AtomicLong();
+
+    private static final class LaneFuture<T> extends FutureTask<T> implements Comparable<LaneFuture<?>> {
+        private final Lane _lane;
+        private final long _sequenceNumber;
+
+        LaneFuture(Callable<T> callable, Lane lane) {
+            super(callable);
+            _lane = lane;
+            _sequenceNumber = _sequence.getAndIncrement();
+        }
+
+        @Override
+        public int compareTo(LaneFuture<?> other) {
+            final int result = _lane.compareTo(other._lane);
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(_sequenceNumber, other._sequenceNumber);
+        }
+    }
+}
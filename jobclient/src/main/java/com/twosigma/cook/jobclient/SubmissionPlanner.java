@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Splits a submission of jobs and groups into bounded requests.
+ * <p>
+ * The unit of packing is a group: a group definition is always sent in the same request as all of the submitted jobs
+ * which belong to it. Jobs referencing a group which is not part of the submission (e.g. a group created by an
+ * earlier submission) are kept together as well, so the scheduler never sees the same group from two concurrent
+ * transactions. Whole units are packed into requests of at most {@code maxJobsPerRequest} jobs; a unit which is
+ * larger than the bound is sent on its own. Jobs without a group fill up the remaining space.
+ */
+final class SubmissionPlanner {
+
+    /**
+     * A single request of a submission plan.
+     */
+    static final class Chunk {
+        private final List<Group> _groups = new ArrayList<>();
+        private final List<Job> _jobs = new ArrayList<>();
+
+        /**
+         * @return the groups to submit in this request.
+         */
+        List<Group> getGroups() {
+            return _groups;
+        }
+
+        /**
+         * @return the jobs to submit in this request.
+         */
+        List<Job> getJobs() {
+            return _jobs;
+        }
+
+        @Override
+        public String toString() {
+            return "Chunk [_groups=" + _groups.size() + ", _jobs=" + _jobs.size() + "]";
+        }
+    }
+
+    private SubmissionPlanner() {}
+
+    /**
+     * @param jobs specifies the jobs to submit.
+     * @param groups specifies the groups to submit.
+     * @param maxJobsPerRequest specifies the maximum number of jobs per request unless a single group is larger.
+     * @return the requests to send, each holding whole groups together with their jobs.
+     */
+    static List<Chunk> plan(List<Job> jobs, List<Group> groups, int maxJobsPerRequest) {
+        Preconditions.checkArgument(maxJobsPerRequest > 0, "maxJobsPerRequest must be > 0");
+        // Group UUID to the jobs of the group, in submission order of the groups and then of the jobs.
+        final Map<UUID, List<Job>> groupToJobs = new LinkedHashMap<>();
+        final Map<UUID, Group> uuidToGroup = new LinkedHashMap<>();
+        for (Group group : groups) {
+            uuidToGroup.put(group.getUUID(), group);
+            groupToJobs.put(group.getUUID(), new ArrayList<Job>());
+        }
+        final List<Job> ungroupedJobs = new ArrayList<>();
+        for (Job job : jobs) {
+            final UUID guuid = job.getGroup();
+            if (guuid == null) {
+                ungroupedJobs.add(job);
+            } else {
+                List<Job> groupJobs = groupToJobs.get(guuid);
+                if (groupJobs == null) {
+                    groupJobs = new ArrayList<>();
+                    groupToJobs.put(guuid, groupJobs);
+                }
+                groupJobs.add(job);
+            }
+        }
+        if (groupToJobs.isEmpty() && ungroupedJobs.size() <= maxJobsPerRequest) {
+            final Chunk chunk = new Chunk();
+            chunk._jobs.addAll(ungroupedJobs);
+            return Collections.singletonList(chunk);
+        }
+
+        final List<Chunk> chunks = new ArrayList<>();
+        Chunk current = new Chunk();
+        for (Map.Entry<UUID, List<Job>> entry : groupToJobs.entrySet()) {
+            final List<Job> groupJobs = entry.getValue();
+            if (!current._jobs.isEmpty() && current._jobs.size() + groupJobs.size() > maxJobsPerRequest) {
+                chunks.add(current);
+                current = new Chunk();
+            }
+            final Group group = uuidToGroup.get(entry.getKey());
+            if (group != null) {
+                current._groups.add(group);
+            }
+            current._jobs.addAll(groupJobs);
+        }
+        for (Job job : ungroupedJobs) {
+            if (current._jobs.size() >= maxJobsPerRequest) {
+                chunks.add(current);
+                current = new Chunk();
+            }
+            current._jobs.add(job);
+        }
+        if (!current._jobs.isEmpty() || !current._groups.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
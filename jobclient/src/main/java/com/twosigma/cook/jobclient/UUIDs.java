@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Parsing and formatting of UUIDs in their canonical form, e.g. {@code 26719da8-394f-44f9-9e6d-8a17500f5109},
+ * directly from and into character sequences.
+ * <p>
+ * Unlike {@link UUID#fromString(String)} and {@link UUID#toString()}, these methods do not split or concatenate
+ * intermediate strings, which matters when every job, group and instance of a response carries a UUID.
+ */
+final class UUIDs {
+
+    /**
+     * The length of the canonical form of a UUID.
+     */
+    static final int LENGTH = 36;
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The value of each hexadecimal digit indexed by its character, or -1 for other characters.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; ++i) {
+            VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; ++i) {
+            VALUES['a' + i] = (byte) (10 + i);
+            VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private UUIDs() {
+    }
+
+    /**
+     * Parse the canonical form of a UUID starting at the given index.
+     *
+     * @param chars specifies the characters containing the UUID.
+     * @param start specifies the index of the first character of the UUID.
+     * @return the UUID, or {@code null} if the characters at {@code start} are not a UUID in canonical form.
+     */
+    static UUID parse(CharSequence chars, int start) {
+        if (start < 0 || chars.length() - start < LENGTH
+                || chars.charAt(start + 8) != '-' || chars.charAt(start + 13) != '-'
+                || chars.charAt(start + 18) != '-' || chars.charAt(start + 23) != '-') {
+            return null;
+        }
+        // Each group has at most 12 digits, so a valid group is never negative.
+        final long timeLow = parseHex(chars, start, 8);
+        final long timeMid = parseHex(chars, start + 9, 4);
+        final long timeHigh = parseHex(chars, start + 14, 4);
+        final long clockSeq = parseHex(chars, start + 19, 4);
+        final long node = parseHex(chars, start + 24, 12);
+        if ((timeLow | timeMid | timeHigh | clockSeq | node) < 0) {
+            return null;
+        }
+        final long mostSignificantBits = (timeLow << 32) | (timeMid << 16) | timeHigh;
+        final long leastSignificantBits = (clockSeq << 48) | node;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Parse a UUID, accepting every form {@link UUID#fromString(String)} accepts.
+     *
+     * @throws IllegalArgumentException if the string is not a UUID.
+     */
+    static UUID parse(String string) {
+        if (string.length() == LENGTH) {
+            final UUID uuid = parse(string, 0);
+            if (uuid != null) {
+                return uuid;
+            }
+        }
+        return UUID.fromString(string);
+    }
+
+    /**
+     * Append the canonical form of a UUID.
+     */
+    static void append(StringBuilder out, UUID uuid) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        appendHex(out, msb >>> 32, 8);
+        out.append('-');
+        appendHex(out, msb >>> 16, 4);
+        out.append('-');
+        appendHex(out, msb, 4);
+        out.append('-');
+        appendHex(out, lsb >>> 48, 4);
+        out.append('-');
+        appendHex(out, lsb, 12);
+    }
+
+    /**
+     * @return the canonical form of a UUID, equal to {@link UUID#toString()}. The digits are written into a single
+     *         array the string is created from, unlike {@link UUID#toString()} on Java 7 and 8 which concatenates
+     *         five intermediate strings.
+     */
+    static String toString(UUID uuid) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        final char[] out = new char[LENGTH];
+        writeHex(out, 0, msb >>> 32, 8);
+        out[8] = '-';
+        writeHex(out, 9, msb >>> 16, 4);
+        out[13] = '-';
+        writeHex(out, 14, msb, 4);
+        out[18] = '-';
+        writeHex(out, 19, lsb >>> 48, 4);
+        out[23] = '-';
+        writeHex(out, 24, lsb, 12);
+        return new String(out);
+    }
+
+    /**
+     * @return the value of {@code digits} hexadecimal digits, or -1 if any of them is not a hexadecimal digit.
+     */
+    private static long parseHex(CharSequence chars, int start, int digits) {
+        long result = 0;
+        for (int i = start; i < start + digits; ++i) {
+            final char c = chars.charAt(i);
+            final int value = c < 128 ? VALUES[c] : -1;
+            if (value < 0) {
+                return -1L;
+            }
+            result = (result << 4) | value;
+        }
+        return result;
+    }
+
+    private static void appendHex(StringBuilder out, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out.append(DIGITS[(int) (value >>> shift) & 0xf]);
+        }
+    }
+
+    private static void writeHex(char[] out, int start, long value, int digits) {
+        for (int i = start + digits - 1; i >= start; --i) {
+            out[i] = DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+    }
+}
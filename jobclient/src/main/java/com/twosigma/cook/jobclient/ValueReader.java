@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.json.JSONException;
+
+/**
+ * A pull parser for a document of the JSON data model which the schema specific readers of {@link Job},
+ * {@link Instance}, {@link Group} and their components are written against, so that they decode every wire format
+ * the client understands, i.e. JSON text with {@link JsonReader} and CBOR with {@link CborReader}.
+ * <p>
+ * Values are consumed in document order, e.g.
+ *
+ * <pre>
+ * <code>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     final String name = reader.nextName();
+ *     if ("uuid".equals(name)) {
+ *         uuid = reader.nextUUID();
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * reader.endObject();
+ * </code>
+ * </pre>
+ *
+ * Malformed input is reported with a {@link JSONException} like the parser of org.json.
+ */
+abstract class ValueReader {
+
+    /**
+     * Interns member names, which are mostly the same few dozen names of the schema.
+     */
+    static final StringInterner NAMES = new StringInterner(1 << 10);
+
+    /**
+     * Interns the values of low-cardinality members read with {@link #nextInternedString()}. As the interner is
+     * bounded, only the host names, slave IDs, executors, pools, users and statuses of jobs and instances are read
+     * through it, so that values with many distinct strings such as names or environments do not evict them.
+     */
+    static final StringInterner VALUES = new StringInterner(1 << 13);
+
+    abstract void beginArray()
+        throws JSONException;
+
+    abstract void endArray()
+        throws JSONException;
+
+    abstract void beginObject()
+        throws JSONException;
+
+    abstract void endObject()
+        throws JSONException;
+
+    /**
+     * Assert that the whole input has been consumed.
+     */
+    abstract void endDocument()
+        throws JSONException;
+
+    /**
+     * @return whether the current array or object has another element.
+     */
+    abstract boolean hasNext()
+        throws JSONException;
+
+    /**
+     * @return the name of the next member of the current object.
+     */
+    abstract String nextName()
+        throws JSONException;
+
+    /**
+     * Consume the next value if it is {@code null}.
+     *
+     * @return whether the next value was {@code null}.
+     */
+    abstract boolean nextNull()
+        throws JSONException;
+
+    abstract String nextString()
+        throws JSONException;
+
+    /**
+     * Read a string of a member with few distinct values, e.g. a host name, pool or status. The result is shared
+     * with equal strings read before, so repeated values do not retain additional strings.
+     */
+    abstract String nextInternedString()
+        throws JSONException;
+
+    /**
+     * Read a UUID.
+     *
+     * @throws IllegalArgumentException if the value is a string which is not a UUID, like
+     *         {@link UUID#fromString(String)}.
+     */
+    abstract UUID nextUUID()
+        throws JSONException;
+
+    /**
+     * Read a boolean. Like org.json, booleans in strings are accepted.
+     */
+    abstract boolean nextBoolean()
+        throws JSONException;
+
+    abstract long nextLong()
+        throws JSONException;
+
+    int nextInt()
+        throws JSONException {
+        return (int) nextLong();
+    }
+
+    /**
+     * Read a number. Like org.json, numbers in strings are accepted.
+     */
+    abstract double nextDouble()
+        throws JSONException;
+
+    /**
+     * Skip the next value including all values nested in it.
+     */
+    abstract void skipValue()
+        throws JSONException;
+
+    /**
+     * Read the next value as JSON text, e.g. to parse it with org.json.
+     */
+    abstract String nextRaw()
+        throws JSONException;
+
+    /**
+     * Read the members of the next object whose values are all strings.
+     */
+    Map<String, String> nextStringMap()
+        throws JSONException {
+        final Map<String, String> result = new HashMap<>();
+        beginObject();
+        while (hasNext()) {
+            final String name = nextName();
+            result.put(name, nextString());
+        }
+        endObject();
+        return result;
+    }
+
+    /**
+     * Track which of the required members of an object have been read.
+     *
+     * @param found specifies a bit set of the indices of the required members read so far.
+     * @param name specifies the name of the member which has just been read.
+     * @param requiredMembers specifies the names of the required members, at most 32.
+     * @return the updated bit set.
+     */
+    static int markMember(int found, String name, List<String> requiredMembers) {
+        final int index = requiredMembers.indexOf(name);
+        return index < 0 ? found : found | (1 << index);
+    }
+
+    /**
+     * @param found specifies a bit set of the indices of the required members which have been read.
+     * @param requiredMembers specifies the names of the required members.
+     * @throws JSONException naming the first missing member, like org.json.
+     */
+    static void checkMembers(int found, List<String> requiredMembers)
+        throws JSONException {
+        for (int i = 0; i < requiredMembers.size(); ++i) {
+            if ((found & (1 << i)) == 0) {
+                throw new JSONException("JSONObject[\"" + requiredMembers.get(i) + "\"] not found.");
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.net.URI;
+import java.util.UUID;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * The version of {@link ClientEvents} for JDK 11 and later, which emits the events to Java Flight Recorder. Each event
+ * is only allocated and committed while its type is enabled, e.g. by a recording with the {@code profile} settings,
+ * so there is no overhead otherwise beyond checking the type.
+ */
+final class ClientEvents {
+
+    @Name("com.twosigma.cook.jobclient.Request")
+    @Label("Scheduler Request")
+    @Description("A request to the Cook scheduler, including any retries")
+    @Category({"Cook", "Job Client"})
+    static final class RequestEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Batch Size")
+        @Description("The number of jobs, groups or UUIDs of the request")
+        int batchSize;
+
+        @Label("Status Code")
+        @Description("The status code of the response, or 0 if the request failed without a response")
+        int statusCode;
+    }
+
+    @Name("com.twosigma.cook.jobclient.Parse")
+    @Label("Response Parsing")
+    @Description("Parsing the jobs or groups of a response to a query")
+    @Category({"Cook", "Job Client"})
+    @StackTrace(false)
+    static final class ParseEvent extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Elements")
+        @Description("The number of jobs or groups parsed")
+        int elements;
+    }
+
+    @Name("com.twosigma.cook.jobclient.RetrySleep")
+    @Label("Retry Sleep")
+    @Description("Sleeping before retrying a request which failed without a response")
+    @Category({"Cook", "Job Client"})
+    static final class RetrySleepEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Attempt")
+        @Description("The number of failed attempts of the request so far")
+        int attempt;
+    }
+
+    @Name("com.twosigma.cook.jobclient.PollCycle")
+    @Label("Poll Cycle")
+    @Description("Polling the status of the tracked jobs and groups and invoking their listeners")
+    @Category({"Cook", "Job Client"})
+    @StackTrace(false)
+    static final class PollCycleEvent extends Event {
+        @Label("Tracked Jobs")
+        int trackedJobs;
+
+        @Label("Tracked Groups")
+        int trackedGroups;
+    }
+
+    @Name("com.twosigma.cook.jobclient.Listener")
+    @Label("Listener Invocation")
+    @Description("Invoking the listener of a job or group for a status update")
+    @Category({"Cook", "Job Client"})
+    @StackTrace(false)
+    static final class ListenerEvent extends Event {
+        @Label("UUID")
+        String uuid;
+
+        @Label("Status")
+        String status;
+    }
+
+    /**
+     * The types of the events, which tell whether an event is enabled before it is allocated.
+     */
+    private static final EventType REQUEST_TYPE = EventType.getEventType(RequestEvent.class);
+    private static final EventType PARSE_TYPE = EventType.getEventType(ParseEvent.class);
+    private static final EventType RETRY_SLEEP_TYPE = EventType.getEventType(RetrySleepEvent.class);
+    private static final EventType POLL_CYCLE_TYPE = EventType.getEventType(PollCycleEvent.class);
+    private static final EventType LISTENER_TYPE = EventType.getEventType(ListenerEvent.class);
+
+    private ClientEvents() {
+    }
+
+    /**
+     * @return the started event.
+     */
+    private static <T extends Event> T begin(T event) {
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @return a started event, or {@code null} if the event is disabled.
+     */
+    static Object beginRequest() {
+        return REQUEST_TYPE.isEnabled() ? begin(new RequestEvent()) : null;
+    }
+
+    static void endRequest(Object event, HttpRequestBase request, int batchSize, int statusCode) {
+        final RequestEvent requestEvent = (RequestEvent) event;
+        if (requestEvent != null && requestEvent.shouldCommit()) {
+            requestEvent.method = request.getMethod();
+            requestEvent.endpoint = request.getURI().getPath();
+            requestEvent.batchSize = batchSize;
+            requestEvent.statusCode = statusCode;
+            requestEvent.commit();
+        }
+    }
+
+    static Object beginParse() {
+        return PARSE_TYPE.isEnabled() ? begin(new ParseEvent()) : null;
+    }
+
+    static void endParse(Object event, URI endpoint, int elements) {
+        final ParseEvent parseEvent = (ParseEvent) event;
+        if (parseEvent != null && parseEvent.shouldCommit()) {
+            parseEvent.endpoint = endpoint.getPath();
+            parseEvent.elements = elements;
+            parseEvent.commit();
+        }
+    }
+
+    static Object beginRetrySleep() {
+        return RETRY_SLEEP_TYPE.isEnabled() ? begin(new RetrySleepEvent()) : null;
+    }
+
+    static void endRetrySleep(Object event, HttpRequestBase request, int attempt) {
+        final RetrySleepEvent sleepEvent = (RetrySleepEvent) event;
+        if (sleepEvent != null && sleepEvent.shouldCommit()) {
+            sleepEvent.method = request.getMethod();
+            sleepEvent.endpoint = request.getURI().getPath();
+            sleepEvent.attempt = attempt;
+            sleepEvent.commit();
+        }
+    }
+
+    static Object beginPollCycle() {
+        return POLL_CYCLE_TYPE.isEnabled() ? begin(new PollCycleEvent()) : null;
+    }
+
+    static void endPollCycle(Object event, int trackedJobs, int trackedGroups) {
+        final PollCycleEvent pollEvent = (PollCycleEvent) event;
+        if (pollEvent != null && pollEvent.shouldCommit()) {
+            pollEvent.trackedJobs = trackedJobs;
+            pollEvent.trackedGroups = trackedGroups;
+            pollEvent.commit();
+        }
+    }
+
+    static Object beginListener() {
+        return LISTENER_TYPE.isEnabled() ? begin(new ListenerEvent()) : null;
+    }
+
+    static void endListener(Object event, UUID uuid, Enum<?> status) {
+        final ListenerEvent listenerEvent = (ListenerEvent) event;
+        if (listenerEvent != null && listenerEvent.shouldCommit()) {
+            listenerEvent.uuid = uuid.toString();
+            listenerEvent.status = status.name();
+            listenerEvent.commit();
+        }
+    }
+}
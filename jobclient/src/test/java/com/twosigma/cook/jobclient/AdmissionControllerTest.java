@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AdmissionController}.
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    public void testAdmitsUpToMaximum() throws JobClientException {
+        final AdmissionController controller = new AdmissionController(10, 1);
+        controller.acquire(4);
+        controller.acquire(6);
+        Assert.assertEquals(10, controller.getOutstanding());
+        controller.release(10);
+        // A submission larger than the maximum is admitted when nothing is outstanding.
+        controller.acquire(25);
+        Assert.assertEquals(25, controller.getOutstanding());
+    }
+
+    @Test(expected = JobClientException.class)
+    public void testTimesOut() throws JobClientException {
+        final AdmissionController controller = new AdmissionController(10, 1);
+        controller.acquire(10);
+        controller.acquire(1);
+    }
+
+    @Test
+    public void testReleaseUnblocksSubmission() throws Exception {
+        final AdmissionController controller = new AdmissionController(10, 30);
+        controller.acquire(10);
+        final CountDownLatch admitted = new CountDownLatch(1);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final Thread submitter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.acquire(5);
+                    admitted.countDown();
+                } catch (JobClientException e) {
+                    failed.set(true);
+                }
+            }
+        });
+        submitter.start();
+        Assert.assertFalse(admitted.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, controller.getBlocked());
+        controller.release(5);
+        Assert.assertTrue(admitted.await(10, TimeUnit.SECONDS));
+        submitter.join();
+        Assert.assertFalse(failed.get());
+        Assert.assertEquals(10, controller.getOutstanding());
+    }
+
+    @Test
+    public void testHighPrioritySubmissionIsAdmittedFirst() throws Exception {
+        final AdmissionController controller = new AdmissionController(10, 30);
+        controller.acquire(10);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final Thread normal = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.acquire(5, false);
+                    order.add("normal");
+                } catch (JobClientException e) {
+                    order.add("failed");
+                }
+            }
+        });
+        normal.start();
+        while (controller.getBlocked() < 1) {
+            Thread.sleep(10);
+        }
+        final Thread high = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.acquire(5, true);
+                    order.add("high");
+                } catch (JobClientException e) {
+                    order.add("failed");
+                }
+            }
+        });
+        high.start();
+        while (controller.getBlocked() < 2) {
+            Thread.sleep(10);
+        }
+        // Only one of the two submissions fits, and the high priority one must win.
+        controller.release(5);
+        high.join();
+        Assert.assertEquals(Collections.singletonList("high"), order);
+        controller.release(5);
+        normal.join();
+        Assert.assertEquals(Arrays.asList("high", "normal"), order);
+    }
+
+    @Test
+    public void testNormalSubmissionIsAdmittedWhenHighPriorityOneLeaves() throws Exception {
+        final AdmissionController controller = new AdmissionController(10, 30);
+        controller.acquire(6);
+        final Thread high = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.acquire(5, true);
+                } catch (JobClientException e) {
+                    // expected once interrupted
+                }
+            }
+        });
+        high.start();
+        while (controller.getBlocked() < 1) {
+            Thread.sleep(10);
+        }
+        final CountDownLatch admitted = new CountDownLatch(1);
+        final Thread normal = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.acquire(1, false);
+                    admitted.countDown();
+                } catch (JobClientException e) {
+                    // fails the test below
+                }
+            }
+        });
+        normal.start();
+        // The normal submission fits, but it is held back by the waiting high priority one until that one gives up.
+        Assert.assertFalse(admitted.await(200, TimeUnit.MILLISECONDS));
+        high.interrupt();
+        high.join();
+        Assert.assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        normal.join();
+        Assert.assertEquals(7, controller.getOutstanding());
+    }
+}
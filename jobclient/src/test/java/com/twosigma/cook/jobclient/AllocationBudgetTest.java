@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+import com.twosigma.cook.jobclient.constraint.Constraints;
+
+/**
+ * Regression tests of the bytes allocated per element by the encoding and decoding of {@link Job}, {@link Instance},
+ * {@link Group}, {@link HostPlacement} and {@link StragglerHandling}, measured with the allocation counter of the
+ * current thread.
+ * <p>
+ * Every budget is the allocation measured when it was recorded plus some headroom for differences between JVMs. If a
+ * change exceeds a budget on purpose, measure again and raise the budget in the same change.
+ */
+public class AllocationBudgetTest {
+
+    private static final int JOBS = 100;
+    private static final int GROUPS = 100;
+    private static final int WARMUP_RUNS = 300;
+    private static final int MEASURED_RUNS = 20;
+
+    // Bytes per element.
+    private static final long JSONIZE_JOB_BUDGET = 20000;
+    private static final long ENCODE_SUBMISSION_BUDGET = 13000;
+    private static final long PARSE_JOB_BUDGET = 8000;
+    private static final long PARSE_JOB_WITH_INSTANCES_BUDGET = 11000;
+    private static final long JSONIZE_GROUP_BUDGET = 7500;
+    private static final long PARSE_GROUP_BUDGET = 6500;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * A piece of work whose allocation is measured, after preparing its input outside of the measurement.
+     */
+    private static abstract class Workload {
+
+        void prepare() {
+        }
+
+        abstract Object run();
+    }
+
+    @Before
+    public void setup() {
+        Assume.assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the fewest bytes allocated by a run of the workload per element, after warming it up.
+     */
+    private static long measure(Workload workload, int elements) {
+        Object result = null;
+        for (int i = 0; i < WARMUP_RUNS; ++i) {
+            workload.prepare();
+            result = workload.run();
+        }
+        final long overhead = -allocatedBytes() + allocatedBytes();
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; ++i) {
+            workload.prepare();
+            final long before = allocatedBytes();
+            result = workload.run();
+            fewest = Math.min(fewest, allocatedBytes() - before - overhead);
+        }
+        Assert.assertNotNull(result);
+        return fewest / elements;
+    }
+
+    private static void assertWithinBudget(String name, long budget, long measured) {
+        Assert.assertTrue(name + " allocates " + measured + " bytes per element, more than its budget of " + budget,
+                measured <= budget);
+    }
+
+    /**
+     * @return jobs with env, labels, a URI, a constraint and a container, as they are submitted.
+     */
+    private static List<Job> makeJobs() {
+        final List<Job> jobs = new ArrayList<>(JOBS);
+        for (int i = 0; i < JOBS; ++i) {
+            final Job.Builder builder = new Job.Builder()
+                    .setUUID(UUID.randomUUID())
+                    .setName("budget-job-" + i)
+                    .setCommand("python -m workload --shard " + i + " --total " + JOBS)
+                    .setMemory(2048.0)
+                    .setCpus(1.5)
+                    .setPriority(50)
+                    .setMaxRuntime(86400000L)
+                    .setPool("default")
+                    .addLabel("team", "research")
+                    .addLabel("workflow", "nightly-" + i % 16)
+                    .addUri(new FetchableURI.Builder().setValue("http://example.com/artifacts/workload.tar.gz")
+                            .setExtract(true).setCache(true).build())
+                    .addConstraint(Constraints.buildEqualsConstraint("HOSTNAME", "host" + i % 64))
+                    .setContainer(new JSONObject().put("type", "docker")
+                            .put("docker", new JSONObject().put("image", "example/workload:1.2.3")));
+            for (int j = 0; j < 8; ++j) {
+                builder.addEnv("BUDGET_VARIABLE_" + j, "value-" + j + "-" + i);
+            }
+            jobs.add(builder.build());
+        }
+        return jobs;
+    }
+
+    /**
+     * @return the response of a query of the given jobs, running with the given number of instances each.
+     */
+    private static String makeResponse(List<Job> jobs, int instances) {
+        final JSONArray array = new JSONArray();
+        for (Job job : jobs) {
+            final JSONArray instanceArray = new JSONArray();
+            for (int i = 0; i < instances; ++i) {
+                instanceArray.put(new JSONObject()
+                        .put("task_id", UUID.randomUUID().toString())
+                        .put("slave_id", "20150311-033720-1963923116-5050-4084-" + i)
+                        .put("executor_id", UUID.randomUUID().toString())
+                        .put("hostname", "host" + i + ".example.com")
+                        .put("status", i < instances - 1 ? "failed" : "running")
+                        .put("preempted", false)
+                        .put("start_time", 1500000000000L + i)
+                        .put("end_time", 1500000100000L + i)
+                        .put("output_url", "http://host" + i + ".example.com:5051/files/read.json")
+                        .put("reason_code", 1003));
+            }
+            array.put(Job.jsonizeJob(job)
+                    .put("status", "running")
+                    .put("user", "budget")
+                    .put("framework_id", JSONObject.NULL)
+                    .put("submit_time", 1500000000000L)
+                    .put("instances", instanceArray));
+        }
+        return array.toString();
+    }
+
+    /**
+     * @return groups with a host placement and straggler handling with parameters.
+     */
+    private static List<Group> makeGroups() {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put("quantile", 0.5);
+        parameters.put("multiplier", 2.0);
+        final List<Group> groups = new ArrayList<>(GROUPS);
+        for (int i = 0; i < GROUPS; ++i) {
+            groups.add(new Group.Builder()
+                    .setUUID(UUID.randomUUID())
+                    .setName("budget-group-" + i)
+                    .setHostPlacement(new HostPlacement.Builder().setType(HostPlacement.Type.ATTRIBUTE_EQUALS)
+                            .setParameter("attribute", "rack").build())
+                    .setStragglerHandling(new StragglerHandling.Builder()
+                            .setType(StragglerHandling.Type.QUANTILE_DEVIATION).setParameters(parameters).build())
+                    .build());
+        }
+        return groups;
+    }
+
+    @Test
+    public void testJsonizeJob() {
+        final List<Job> jobs = makeJobs();
+        final long measured = measure(new Workload() {
+            @Override
+            Object run() {
+                return Job.jsonizeJob(jobs).toString();
+            }
+        }, JOBS);
+        assertWithinBudget("jsonizeJob", JSONIZE_JOB_BUDGET, measured);
+    }
+
+    @Test
+    public void testEncodeSubmission() {
+        final List<Job> templates = makeJobs();
+        final List<Job> jobs = new ArrayList<>(JOBS);
+        final long measured = measure(new Workload() {
+            @Override
+            void prepare() {
+                // Jobs cache their encoding, so every run encodes fresh copies.
+                jobs.clear();
+                for (Job job : templates) {
+                    jobs.add(new Job.Builder().of(job).build());
+                }
+            }
+
+            @Override
+            Object run() {
+                return JobClient.encodeSubmission(jobs, null);
+            }
+        }, JOBS);
+        assertWithinBudget("encodeSubmission", ENCODE_SUBMISSION_BUDGET, measured);
+    }
+
+    @Test
+    public void testParseJobs() {
+        final String response = makeResponse(makeJobs(), 0);
+        final long measured = measure(new Workload() {
+            @Override
+            Object run() {
+                return Job.parseFromJSON(response);
+            }
+        }, JOBS);
+        assertWithinBudget("parseFromJSON of jobs without instances", PARSE_JOB_BUDGET, measured);
+    }
+
+    @Test
+    public void testParseJobsWithInstances() {
+        final String response = makeResponse(makeJobs(), 3);
+        final long measured = measure(new Workload() {
+            @Override
+            Object run() {
+                return Job.parseFromJSON(response);
+            }
+        }, JOBS);
+        assertWithinBudget("parseFromJSON of jobs with 3 instances", PARSE_JOB_WITH_INSTANCES_BUDGET, measured);
+    }
+
+    @Test
+    public void testJsonizeGroups() {
+        final List<Group> groups = makeGroups();
+        final long measured = measure(new Workload() {
+            @Override
+            Object run() {
+                return Group.jsonizeGroups(groups).toString();
+            }
+        }, GROUPS);
+        assertWithinBudget("jsonizeGroups", JSONIZE_GROUP_BUDGET, measured);
+    }
+
+    @Test
+    public void testParseGroups() {
+        final JSONArray array = new JSONArray();
+        for (Group group : makeGroups()) {
+            final JSONArray jobs = new JSONArray();
+            for (int i = 0; i < 10; ++i) {
+                jobs.put(UUID.randomUUID().toString());
+            }
+            array.put(Group.jsonizeGroup(group).put("jobs", jobs));
+        }
+        final String response = array.toString();
+        final long measured = measure(new Workload() {
+            @Override
+            Object run() {
+                return Group.parseFromJSON(response);
+            }
+        }, GROUPS);
+        assertWithinBudget("parseFromJSON of groups of 10 jobs", PARSE_GROUP_BUDGET, measured);
+    }
+}
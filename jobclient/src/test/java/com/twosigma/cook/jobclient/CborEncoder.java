@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.io.ByteArrayOutputStream;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Encodes org.json values as CBOR the way a scheduler supporting binary encoding would, i.e. with definite lengths,
+ * integers where possible and UUIDs as 16 bytes tagged with {@link CborReader#TAG_UUID}.
+ */
+final class CborEncoder {
+
+    private final ByteArrayOutputStream _out = new ByteArrayOutputStream();
+
+    /**
+     * @param value specifies a {@link JSONObject}, {@link JSONArray}, string, number, boolean or
+     *              {@link JSONObject#NULL}.
+     * @return the CBOR encoding of the value.
+     */
+    static byte[] encode(Object value) {
+        final CborEncoder encoder = new CborEncoder();
+        encoder.write(value);
+        return encoder._out.toByteArray();
+    }
+
+    private void write(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            _out.write(0xf6);
+        } else if (value instanceof Boolean) {
+            _out.write((Boolean) value ? 0xf5 : 0xf4);
+        } else if (value instanceof Integer || value instanceof Long) {
+            final long number = ((Number) value).longValue();
+            if (number >= 0) {
+                writeHead(0, number);
+            } else {
+                writeHead(1, -1 - number);
+            }
+        } else if (value instanceof Number) {
+            final double number = ((Number) value).doubleValue();
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                write((long) number);
+            } else {
+                _out.write(0xfb);
+                writeBytes(Double.doubleToLongBits(number), 8);
+            }
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof JSONArray) {
+            final JSONArray array = (JSONArray) value;
+            writeHead(4, array.length());
+            for (int i = 0; i < array.length(); ++i) {
+                write(array.get(i));
+            }
+        } else if (value instanceof JSONObject) {
+            final JSONObject object = (JSONObject) value;
+            writeHead(5, object.length());
+            // JSONObject.keySet() returns a raw Set of the member names.
+            for (Object name : object.keySet()) {
+                final String key = (String) name;
+                writeString(key);
+                write(object.get(key));
+            }
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String value) {
+        final UUID uuid = value.length() == UUIDs.LENGTH ? UUIDs.parse(value, 0) : null;
+        if (uuid != null && UUIDs.toString(uuid).equals(value)) {
+            writeHead(6, CborReader.TAG_UUID);
+            writeHead(2, 16);
+            writeBytes(uuid.getMostSignificantBits(), 8);
+            writeBytes(uuid.getLeastSignificantBits(), 8);
+        } else {
+            final byte[] bytes = value.getBytes(Charsets.UTF_8);
+            writeHead(3, bytes.length);
+            _out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private void writeHead(int major, long argument) {
+        if (argument < 24) {
+            _out.write((major << 5) | (int) argument);
+        } else if (argument < 1L << 8) {
+            _out.write((major << 5) | 24);
+            writeBytes(argument, 1);
+        } else if (argument < 1L << 16) {
+            _out.write((major << 5) | 25);
+            writeBytes(argument, 2);
+        } else if (argument < 1L << 32) {
+            _out.write((major << 5) | 26);
+            writeBytes(argument, 4);
+        } else {
+            _out.write((major << 5) | 27);
+            writeBytes(argument, 8);
+        }
+    }
+
+    private void writeBytes(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            _out.write((int) (value >>> shift) & 0xff);
+        }
+    }
+}
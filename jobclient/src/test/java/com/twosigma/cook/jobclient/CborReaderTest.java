@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CborReader}.
+ */
+public class CborReaderTest {
+
+    private static byte[] bytes(int... values) {
+        final byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    public void testScalars() throws JSONException {
+        // [0, 500, -1000, 1.5 as a half, 100000.0 as a double, true, "a", null]
+        final CborReader reader = new CborReader(bytes(
+                0x88, 0x00, 0x19, 0x01, 0xf4, 0x39, 0x03, 0xe7, 0xf9, 0x3e, 0x00,
+                0xfb, 0x40, 0xf8, 0x6a, 0x00, 0x00, 0x00, 0x00, 0x00, 0xf5, 0x61, 0x61, 0xf6));
+        reader.beginArray();
+        Assert.assertEquals(0L, reader.nextLong());
+        Assert.assertEquals(500, reader.nextInt());
+        Assert.assertEquals(-1000L, reader.nextLong());
+        Assert.assertEquals(1.5, reader.nextDouble(), 0.0);
+        Assert.assertEquals(100000L, reader.nextLong());
+        Assert.assertTrue(reader.nextBoolean());
+        Assert.assertFalse(reader.nextNull());
+        Assert.assertEquals("a", reader.nextString());
+        Assert.assertTrue(reader.nextNull());
+        Assert.assertFalse(reader.hasNext());
+        reader.endArray();
+        reader.endDocument();
+    }
+
+    @Test
+    public void testIndefiniteLengthAndSkip() throws JSONException {
+        // {_ "skip": [_ 1, {"x": 2}], "keep": "v"}
+        final CborReader reader = new CborReader(bytes(
+                0xbf, 0x64, 's', 'k', 'i', 'p', 0x9f, 0x01, 0xa1, 0x61, 'x', 0x02, 0xff,
+                0x64, 'k', 'e', 'e', 'p', 0x61, 'v', 0xff));
+        reader.beginObject();
+        Assert.assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        Assert.assertEquals("keep", reader.nextName());
+        Assert.assertEquals("v", reader.nextInternedString());
+        Assert.assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    @Test
+    public void testUuidsAndRaw() throws JSONException {
+        final UUID uuid = UUID.randomUUID();
+        final JSONObject object = new JSONObject()
+                .put("uuid", uuid.toString())
+                .put("nested", new JSONObject().put("list", new JSONArray().put(1).put("two").put(2.5).put(false)));
+        final CborReader reader = new CborReader(CborEncoder.encode(new JSONArray().put(object).put(object)));
+        reader.beginArray();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("uuid".equals(name)) {
+                Assert.assertEquals(uuid, reader.nextUUID());
+            } else {
+                Assert.assertEquals(object.getJSONObject("nested").toString(), new JSONObject(reader.nextRaw()).toString());
+            }
+        }
+        reader.endObject();
+        // A binary UUID read as a string is formatted in canonical form.
+        Assert.assertEquals(object.toString(), new JSONObject(reader.nextRaw()).toString());
+        reader.endArray();
+        reader.endDocument();
+    }
+
+    @Test
+    public void testMalformed() {
+        for (byte[] data : new byte[][]{bytes(0x82, 0x01), bytes(0x61), bytes(0x01, 0x02), bytes(0x1c)}) {
+            try {
+                final CborReader reader = new CborReader(data);
+                reader.skipValue();
+                reader.endDocument();
+                Assert.fail("Malformed input must be rejected");
+            } catch (JSONException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseJobs() throws JSONException {
+        final Job job = new Job.Builder()
+                .setCommand("echo \"hello\"")
+                .setMemory(100.0)
+                .setCpus(1.5)
+                .addEnv("FOO", "bar")
+                .setContainer(new JSONObject().put("type", "docker"))
+                .build();
+        final JSONObject json = Job.jsonizeJob(job).put("status", "waiting").put("instances", new JSONArray());
+        final List<Job> jobs = Job.readJobs(new CborReader(CborEncoder.encode(new JSONArray().put(json))), null, null);
+        Assert.assertEquals(1, jobs.size());
+        Assert.assertEquals(job.getUUID(), jobs.get(0).getUUID());
+        Assert.assertEquals(Job.Status.WAITING, jobs.get(0).getStatus());
+        Assert.assertEquals(job.getCommand(), jobs.get(0).getCommand());
+        Assert.assertEquals(job.getCpus(), jobs.get(0).getCpus());
+        Assert.assertEquals(job.getEnv(), jobs.get(0).getEnv());
+        Assert.assertEquals("docker", jobs.get(0).getContainer().getString("type"));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.twosigma.cook.jobclient.JobClientMetrics.Operation;
+import com.twosigma.cook.jobclient.JobClientMetrics.Outcome;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the metrics which a {@link JobClient} reports to a {@link DefaultJobClientMetrics}.
+ */
+public class DefaultJobClientMetricsTest {
+
+    @Test
+    public void testRequests() throws Exception {
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().setBatchRequestSize(10).setMetrics(metrics).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(25);
+            client.submit(jobs);
+            client.queryJobs(TestJobs.uuids(jobs));
+            client.abort(TestJobs.uuids(jobs.subList(0, 5)));
+        }
+        // The submission is sent in a single request.
+        Assert.assertEquals(1, metrics.getRequestLatencies(Operation.SUBMIT, Outcome.SUCCESS).getCount());
+        Assert.assertEquals(25, metrics.getBatchSizes(Operation.SUBMIT).getMax());
+        Assert.assertTrue(metrics.getBytesSent(Operation.SUBMIT) > 0);
+        Assert.assertEquals(0, metrics.getRetries(Operation.SUBMIT).getCount());
+
+        Assert.assertEquals(3, metrics.getRequestLatencies(Operation.QUERY_JOBS, Outcome.SUCCESS).getCount());
+        Assert.assertEquals(25, metrics.getBatchSizes(Operation.QUERY_JOBS).getSum());
+        Assert.assertTrue(metrics.getBytesReceived(Operation.QUERY_JOBS) > 0);
+        Assert.assertEquals(3, metrics.getParseTimes(Operation.QUERY_JOBS).getCount());
+        Assert.assertEquals(25, metrics.getParsedElements(Operation.QUERY_JOBS));
+
+        Assert.assertEquals(1, metrics.getRequestLatencies(Operation.ABORT, Outcome.SUCCESS).getCount());
+        Assert.assertEquals(5, metrics.getBatchSizes(Operation.ABORT).getSum());
+        Assert.assertEquals(0, metrics.getRequestLatencies(Operation.QUERY_GROUPS, Outcome.SUCCESS).getCount());
+    }
+
+    @Test
+    public void testRejectedAndFailedRequests() throws Exception {
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        final int port;
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setErrorRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().setMetrics(metrics).build()) {
+            port = scheduler.getPort();
+            try {
+                client.queryJobs(Collections.singletonList(UUID.randomUUID()));
+                Assert.fail("Injected errors must fail queries");
+            } catch (JobClientException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(1, metrics.getRequestLatencies(Operation.QUERY_JOBS, Outcome.REJECTED).getCount());
+        Assert.assertEquals(0, metrics.getParseTimes(Operation.QUERY_JOBS).getCount());
+
+        // The fake is closed, so connections to its port are refused.
+        try (JobClient client = new JobClient.Builder().setHost("127.0.0.1").setPort(port)
+                .setJobEndpoint(FakeCookScheduler.RAW_SCHEDULER_ENDPOINT).setMetrics(metrics).build()) {
+            client.queryJobs(Collections.singletonList(UUID.randomUUID()));
+            Assert.fail("Queries of a closed scheduler must fail");
+        } catch (JobClientException e) {
+            // expected
+        }
+        Assert.assertEquals(1, metrics.getRequestLatencies(Operation.QUERY_JOBS, Outcome.FAILED).getCount());
+        Assert.assertEquals(0, metrics.getRequestLatencies(Operation.QUERY_JOBS, Outcome.SUCCESS).getCount());
+    }
+
+    @Test
+    public void testPollingAndListeners() throws Exception {
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().setStatusUpdateInterval(1).setMetrics(metrics).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(3);
+            final CountDownLatch completed = new CountDownLatch(jobs.size());
+            client.submit(jobs, new JobListener() {
+                @Override
+                public void onStatusUpdate(Job job) {
+                    if (job.getStatus() == Job.Status.COMPLETED) {
+                        completed.countDown();
+                    }
+                }
+            });
+            Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+            // The cycle which invoked the listeners is only recorded once it ends.
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (metrics.getPollCycleTimes().getCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        Assert.assertTrue(metrics.getPollCycleTimes().getCount() > 0);
+        Assert.assertEquals(3, metrics.getListenerLags().getCount());
+        Assert.assertTrue(metrics.getParsedElements(Operation.QUERY_JOBS) >= 3);
+    }
+}
@@ -0,0 +1,816 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An in-process fake of the REST API of the Cook scheduler on a loopback port, for testing and benchmarking
+ * {@link JobClient} end to end, i.e. including connection pooling, batching, retries and parsing, without a scheduler.
+ * <p>
+ * The fake implements the contracts of the {@code /rawscheduler} and {@code /jobs} job endpoints (query, submit and
+ * kill), the {@code /group} endpoint (query), the {@code /list} endpoint (list the jobs of a user by state) and the
+ * {@code /retry} endpoint (read and change the retries of jobs). Submitted jobs move from waiting to running to
+ * completed as time passes, see {@link Builder#setWaitingMillis(long)} and {@link Builder#setRunningMillis(long)},
+ * unless a job carries its own running time in the label {@link #RUNTIME_LABEL}, and instances fail at a configurable rate, in which case failed jobs with retries left start waiting again.
+ * <p>
+ * Every request is delayed by a configurable {@link Latency} and may be answered with an injected error. Submissions
+ * may additionally be answered with a transaction timeout or a "UUID already used" error although they succeeded,
+ * which the scheduler does when a transaction times out or a request is retried after it succeeded.
+ * <p>
+ * The fake is published in the test jar of the job client so that benchmarks can use it as well.
+ */
+public final class FakeCookScheduler implements Closeable {
+
+    public static final String RAW_SCHEDULER_ENDPOINT = "/rawscheduler";
+
+    public static final String JOBS_ENDPOINT = "/jobs";
+
+    public static final String GROUP_ENDPOINT = "/group";
+
+    public static final String LIST_ENDPOINT = "/list";
+
+    public static final String RETRY_ENDPOINT = "/retry";
+
+    /**
+     * The label of a job which overrides how long its instances run in milliseconds, as in the simulator of the
+     * scheduler.
+     */
+    public static final String RUNTIME_LABEL = "JOB-RUNTIME";
+
+    /**
+     * The prefix of the names of the threads handling requests, e.g. to tell them apart from the threads of clients.
+     */
+    public static final String THREAD_NAME_PREFIX = "fake-cook-scheduler-";
+
+    /**
+     * The message of the scheduler when a transaction timed out, which the job client checks for.
+     */
+    static final String TRANSACTION_TIMEOUT = "Transaction timed out.";
+
+    static {
+        // Without TCP_NODELAY, the separately written headers and body of a response wait for a delayed ACK, which
+        // adds about 40 ms to every round-trip on Linux.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    /**
+     * A distribution of the latency which the fake adds to each request.
+     */
+    public interface Latency {
+        /**
+         * @param random specifies the source of randomness, which must only be used by the calling thread.
+         * @return the latency of the next request in milliseconds.
+         */
+        long nextMillis(Random random);
+    }
+
+    /**
+     * @return a latency of exactly {@code millis} milliseconds.
+     */
+    public static Latency fixedLatency(final long millis) {
+        Preconditions.checkArgument(millis >= 0, "The latency must be >= 0.");
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return millis;
+            }
+        };
+    }
+
+    /**
+     * @return a latency uniformly distributed between {@code minMillis} and {@code maxMillis} milliseconds.
+     */
+    public static Latency uniformLatency(final long minMillis, final long maxMillis) {
+        Preconditions.checkArgument(0 <= minMillis && minMillis <= maxMillis, "The latency bounds are invalid.");
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+            }
+        };
+    }
+
+    /**
+     * @return an exponentially distributed latency with the given mean, which has the long tail of real services.
+     */
+    public static Latency exponentialLatency(final double meanMillis) {
+        Preconditions.checkArgument(meanMillis >= 0, "The mean latency must be >= 0.");
+        return new Latency() {
+            @Override
+            public long nextMillis(Random random) {
+                return Math.round(-meanMillis * Math.log(1.0 - random.nextDouble()));
+            }
+        };
+    }
+
+    /**
+     * Builder of a {@link FakeCookScheduler}. By default, the fake answers immediately without errors, and jobs
+     * start running and complete successfully as soon as they are queried.
+     */
+    public static class Builder {
+
+        private Latency _latency = fixedLatency(0);
+        private double _errorRate;
+        private double _transactionTimeoutRate;
+        private double _uuidUsedRate;
+        private double _instanceFailureRate;
+        private long _waitingMillis;
+        private long _runningMillis;
+        private long _seed = System.nanoTime();
+        private int _threads = 8;
+
+        /**
+         * @return a started fake scheduler on an ephemeral loopback port.
+         * @throws IOException if the server can not be started.
+         */
+        public FakeCookScheduler build()
+            throws IOException {
+            return new FakeCookScheduler(this);
+        }
+
+        public Builder setLatency(Latency latency) {
+            _latency = Preconditions.checkNotNull(latency, "latency must not be null");
+            return this;
+        }
+
+        /**
+         * @param errorRate specifies the fraction of requests answered with 503 Service Unavailable.
+         */
+        public Builder setErrorRate(double errorRate) {
+            _errorRate = checkRate(errorRate);
+            return this;
+        }
+
+        /**
+         * @param transactionTimeoutRate specifies the fraction of successful submissions answered with a transaction
+         *                               timeout.
+         */
+        public Builder setTransactionTimeoutRate(double transactionTimeoutRate) {
+            _transactionTimeoutRate = checkRate(transactionTimeoutRate);
+            return this;
+        }
+
+        /**
+         * @param uuidUsedRate specifies the fraction of successful submissions answered with "UUID already used" as if
+         *                     they had been retried.
+         */
+        public Builder setUuidUsedRate(double uuidUsedRate) {
+            _uuidUsedRate = checkRate(uuidUsedRate);
+            return this;
+        }
+
+        /**
+         * @param instanceFailureRate specifies the fraction of instances which fail rather than succeed.
+         */
+        public Builder setInstanceFailureRate(double instanceFailureRate) {
+            _instanceFailureRate = checkRate(instanceFailureRate);
+            return this;
+        }
+
+        /**
+         * @param waitingMillis specifies how long jobs wait before an instance of them starts running.
+         */
+        public Builder setWaitingMillis(long waitingMillis) {
+            Preconditions.checkArgument(waitingMillis >= 0, "waitingMillis must be >= 0.");
+            _waitingMillis = waitingMillis;
+            return this;
+        }
+
+        /**
+         * @param runningMillis specifies how long instances run before they succeed or fail.
+         */
+        public Builder setRunningMillis(long runningMillis) {
+            Preconditions.checkArgument(runningMillis >= 0, "runningMillis must be >= 0.");
+            _runningMillis = runningMillis;
+            return this;
+        }
+
+        /**
+         * @param seed specifies the seed of the random decisions of the fake, for reproducible runs.
+         */
+        public Builder setSeed(long seed) {
+            _seed = seed;
+            return this;
+        }
+
+        /**
+         * @param threads specifies the number of threads serving requests.
+         */
+        public Builder setThreads(int threads) {
+            Preconditions.checkArgument(threads > 0, "threads must be > 0.");
+            _threads = threads;
+            return this;
+        }
+
+        private static double checkRate(double rate) {
+            Preconditions.checkArgument(0.0 <= rate && rate <= 1.0, "A rate must be between 0 and 1.");
+            return rate;
+        }
+    }
+
+    /**
+     * The state of a submitted job.
+     */
+    private static final class FakeJob {
+        /**
+         * The job as the scheduler returns it, i.e. the submitted job with its status and instances.
+         */
+        final JSONObject _json;
+        final UUID _uuid;
+        final String _user;
+        final long _submitTime;
+        /**
+         * How long instances of the job run, or -1 to use the running time of the fake.
+         */
+        final long _runningMillis;
+        final JSONArray _instances = new JSONArray();
+        Job.Status _status = Job.Status.WAITING;
+        /**
+         * The time of the last transition.
+         */
+        long _since;
+        /**
+         * The last rendering of the job and the state it was rendered in, see {@link #render(FakeJob)}.
+         */
+        String _rendered;
+        long _renderedState = -1;
+
+        FakeJob(JSONObject json, String user, long now) {
+            _json = json;
+            _uuid = UUID.fromString(json.getString("uuid"));
+            _user = user;
+            _submitTime = now;
+            _since = now;
+            final JSONObject labels = json.optJSONObject("labels");
+            _runningMillis = labels != null && labels.has(RUNTIME_LABEL)
+                    ? Long.parseLong(labels.getString(RUNTIME_LABEL)) : -1;
+            json.put("user", user);
+            json.put("submit_time", now);
+            json.put("framework_id", JSONObject.NULL);
+            json.put("instances", _instances);
+            if (json.has("group")) {
+                json.put("groups", new JSONArray().put(json.getString("group")));
+            }
+        }
+    }
+
+    private final Latency _latency;
+    private final double _errorRate;
+    private final double _transactionTimeoutRate;
+    private final double _uuidUsedRate;
+    private final double _instanceFailureRate;
+    private final long _waitingMillis;
+    private final long _runningMillis;
+
+    private final Random _random;
+
+    private final HttpServer _server;
+
+    private final ExecutorService _executor;
+
+    private final AtomicLong _requests = new AtomicLong();
+
+    /**
+     * The state of the fake, guarded by {@code this}.
+     */
+    private final Map<UUID, FakeJob> _jobs = new LinkedHashMap<>();
+
+    private final Map<UUID, JSONObject> _groups = new HashMap<>();
+
+    private final Map<UUID, List<UUID>> _groupJobs = new HashMap<>();
+
+    private FakeCookScheduler(Builder builder)
+        throws IOException {
+        _latency = builder._latency;
+        _errorRate = builder._errorRate;
+        _transactionTimeoutRate = builder._transactionTimeoutRate;
+        _uuidUsedRate = builder._uuidUsedRate;
+        _instanceFailureRate = builder._instanceFailureRate;
+        _waitingMillis = builder._waitingMillis;
+        _runningMillis = builder._runningMillis;
+        _random = new Random(builder._seed);
+        _executor = Executors.newFixedThreadPool(builder._threads,
+                new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").setDaemon(true).build());
+        _server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        _server.setExecutor(_executor);
+        _server.createContext(RAW_SCHEDULER_ENDPOINT, new Handler() {
+            @Override
+            void handle(HttpExchange exchange, Map<String, List<String>> params)
+                throws IOException {
+                handleJobs(exchange, params, "job");
+            }
+        });
+        _server.createContext(JOBS_ENDPOINT, new Handler() {
+            @Override
+            void handle(HttpExchange exchange, Map<String, List<String>> params)
+                throws IOException {
+                handleJobs(exchange, params, "uuid");
+            }
+        });
+        _server.createContext(GROUP_ENDPOINT, new Handler() {
+            @Override
+            void handle(HttpExchange exchange, Map<String, List<String>> params)
+                throws IOException {
+                handleGroups(exchange, params);
+            }
+        });
+        _server.createContext(LIST_ENDPOINT, new Handler() {
+            @Override
+            void handle(HttpExchange exchange, Map<String, List<String>> params)
+                throws IOException {
+                handleList(exchange, params);
+            }
+        });
+        _server.createContext(RETRY_ENDPOINT, new Handler() {
+            @Override
+            void handle(HttpExchange exchange, Map<String, List<String>> params)
+                throws IOException {
+                handleRetry(exchange, params);
+            }
+        });
+        _server.start();
+    }
+
+    public String getHost() {
+        return "127.0.0.1";
+    }
+
+    public int getPort() {
+        return _server.getAddress().getPort();
+    }
+
+    /**
+     * @return a builder of a job client talking to this fake, to be completed by the caller.
+     */
+    public JobClient.Builder newClientBuilder() {
+        return new JobClient.Builder()
+                .setHost(getHost())
+                .setPort(getPort())
+                .setJobEndpoint(RAW_SCHEDULER_ENDPOINT)
+                .setGroupEndpoint(GROUP_ENDPOINT);
+    }
+
+    /**
+     * @return the number of requests received so far, including those answered with injected errors.
+     */
+    public long getRequestCount() {
+        return _requests.get();
+    }
+
+    /**
+     * Add jobs as if they had been submitted, e.g. to query them without submitting them first.
+     */
+    public synchronized void addJobs(Collection<Job> jobs) {
+        final long now = System.currentTimeMillis();
+        for (Job job : jobs) {
+            final FakeJob fakeJob = new FakeJob(Job.jsonizeJob(job), job.getUser() == null ? "fake" : job.getUser(), now);
+            _jobs.put(fakeJob._uuid, fakeJob);
+        }
+    }
+
+    /**
+     * Put a member of a job as the scheduler returns it, or remove the member if {@code value} is {@code null}, e.g.
+     * to return a malformed job.
+     */
+    public synchronized void putJobMember(UUID uuid, String key, Object value) {
+        final FakeJob job = _jobs.get(uuid);
+        job._json.put(key, value);
+        job._renderedState = -1;
+    }
+
+    /**
+     * @return the current status of a job, or {@code null} if it was never submitted.
+     */
+    public synchronized Job.Status getStatus(UUID uuid) {
+        final FakeJob job = _jobs.get(uuid);
+        if (job == null) {
+            return null;
+        }
+        advance(job, System.currentTimeMillis());
+        return job._status;
+    }
+
+    @Override
+    public void close() {
+        _server.stop(0);
+        _executor.shutdownNow();
+    }
+
+    /**
+     * Move a job through the transitions which are due by {@code now}.
+     */
+    private void advance(FakeJob job, long now) {
+        while (true) {
+            if (job._status == Job.Status.WAITING) {
+                if (now - job._since < _waitingMillis) {
+                    return;
+                }
+                job._since += _waitingMillis;
+                job._status = Job.Status.RUNNING;
+                job._instances.put(new JSONObject()
+                        .put("task_id", UUID.randomUUID().toString())
+                        .put("slave_id", "fake-slave-" + job._instances.length() % 16)
+                        .put("executor_id", UUID.randomUUID().toString())
+                        .put("hostname", "fake-host-" + job._instances.length() % 16)
+                        .put("status", "running")
+                        .put("preempted", false)
+                        .put("start_time", job._since));
+            } else if (job._status == Job.Status.RUNNING) {
+                final long runningMillis = job._runningMillis >= 0 ? job._runningMillis : _runningMillis;
+                if (now - job._since < runningMillis) {
+                    return;
+                }
+                job._since += runningMillis;
+                final boolean failed = _random.nextDouble() < _instanceFailureRate;
+                endInstance(job, failed ? "failed" : "success", job._since);
+                if (failed && job._instances.length() < job._json.getInt("max_retries")) {
+                    job._status = Job.Status.WAITING;
+                } else {
+                    job._status = Job.Status.COMPLETED;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void endInstance(FakeJob job, String status, long now) {
+        final JSONObject instance = job._instances.getJSONObject(job._instances.length() - 1);
+        instance.put("status", status);
+        instance.put("end_time", now);
+    }
+
+    /**
+     * @return the JSON text of a job, which is reused until the job changes, i.e. its status, its number of instances
+     *         or its retries, so that serving queries costs little more than copying the text.
+     */
+    private static String render(FakeJob job) {
+        final int retries = job._json.getInt("max_retries");
+        final long state = job._status.ordinal() | (long) job._instances.length() << 8 | (long) retries << 32;
+        if (state != job._renderedState) {
+            job._json.put("status", job._status.name().toLowerCase());
+            job._rendered = job._json.toString();
+            job._renderedState = state;
+        }
+        return job._rendered;
+    }
+
+    private void handleJobs(HttpExchange exchange, Map<String, List<String>> params, String uuidParam)
+        throws IOException {
+        final String method = exchange.getRequestMethod();
+        if ("GET".equals(method)) {
+            final boolean partial = "true".equals(first(params, "partial"));
+            final List<String> jobs = new ArrayList<>();
+            synchronized (this) {
+                final long now = System.currentTimeMillis();
+                for (String uuid : values(params, uuidParam)) {
+                    final FakeJob job = _jobs.get(UUID.fromString(uuid));
+                    if (job == null) {
+                        if (!partial) {
+                            respond(exchange, 404, "UUID " + uuid + " didn't correspond to a job");
+                            return;
+                        }
+                    } else {
+                        advance(job, now);
+                        jobs.add(render(job));
+                    }
+                }
+            }
+            respondJson(exchange, 200, jobs);
+        } else if ("POST".equals(method)) {
+            submit(exchange, new JSONObject(read(exchange.getRequestBody())));
+        } else if ("DELETE".equals(method)) {
+            synchronized (this) {
+                final long now = System.currentTimeMillis();
+                for (String uuid : values(params, uuidParam)) {
+                    final FakeJob job = _jobs.get(UUID.fromString(uuid));
+                    if (job != null) {
+                        advance(job, now);
+                        if (job._status == Job.Status.RUNNING) {
+                            endInstance(job, "failed", now);
+                        }
+                        job._status = Job.Status.COMPLETED;
+                    }
+                }
+            }
+            respond(exchange, 204, null);
+        } else {
+            respond(exchange, 405, method + " is not allowed");
+        }
+    }
+
+    private void submit(HttpExchange exchange, JSONObject body)
+        throws IOException {
+        final String impersonated = exchange.getRequestHeaders().getFirst(JobClient.COOK_IMPERSONATE_HEADER);
+        final double outcome;
+        synchronized (this) {
+            final JSONArray jobs = body.optJSONArray("jobs");
+            final JSONArray groups = body.optJSONArray("groups");
+            // Cook rejects the whole submission if any UUID has been used before.
+            for (int i = 0; jobs != null && i < jobs.length(); ++i) {
+                final String uuid = jobs.getJSONObject(i).getString("uuid");
+                if (_jobs.containsKey(UUID.fromString(uuid))) {
+                    respond(exchange, 400, alreadyUsed(uuid));
+                    return;
+                }
+            }
+            final long now = System.currentTimeMillis();
+            for (int i = 0; groups != null && i < groups.length(); ++i) {
+                final JSONObject group = groups.getJSONObject(i);
+                final UUID uuid = UUID.fromString(group.getString("uuid"));
+                _groups.put(uuid, group);
+                if (!_groupJobs.containsKey(uuid)) {
+                    _groupJobs.put(uuid, new ArrayList<UUID>());
+                }
+            }
+            for (int i = 0; jobs != null && i < jobs.length(); ++i) {
+                final JSONObject json = jobs.getJSONObject(i);
+                final String user = impersonated != null ? impersonated : json.optString("user", "fake");
+                final FakeJob job = new FakeJob(json, user, now);
+                _jobs.put(job._uuid, job);
+                if (json.has("group")) {
+                    final UUID group = UUID.fromString(json.getString("group"));
+                    if (!_groupJobs.containsKey(group)) {
+                        _groupJobs.put(group, new ArrayList<UUID>());
+                    }
+                    _groupJobs.get(group).add(job._uuid);
+                }
+            }
+            outcome = _random.nextDouble();
+            if (outcome >= _transactionTimeoutRate + _uuidUsedRate || jobs == null || jobs.length() == 0) {
+                respond(exchange, 201, "submitted jobs");
+                return;
+            }
+        }
+        if (outcome < _transactionTimeoutRate) {
+            respond(exchange, 500, TRANSACTION_TIMEOUT);
+        } else {
+            respond(exchange, 400, alreadyUsed(body.getJSONArray("jobs").getJSONObject(0).getString("uuid")));
+        }
+    }
+
+    private static String alreadyUsed(String uuid) {
+        return "clojure.lang.ExceptionInfo: UUID " + uuid + " already used {:uuid #uuid \"" + uuid + "\"}";
+    }
+
+    private void handleGroups(HttpExchange exchange, Map<String, List<String>> params)
+        throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, exchange.getRequestMethod() + " is not allowed");
+            return;
+        }
+        final List<String> groups = new ArrayList<>();
+        synchronized (this) {
+            for (String value : values(params, "uuid")) {
+                final UUID uuid = UUID.fromString(value);
+                final JSONObject group = _groups.get(uuid);
+                if (group == null) {
+                    respond(exchange, 404, "UUID " + value + " didn't correspond to a group");
+                    return;
+                }
+                final JSONArray jobs = new JSONArray();
+                for (UUID job : _groupJobs.get(uuid)) {
+                    jobs.put(job.toString());
+                }
+                groups.add(new JSONObject(group, JSONObject.getNames(group)).put("jobs", jobs).toString());
+            }
+        }
+        respondJson(exchange, 200, groups);
+    }
+
+    private void handleList(HttpExchange exchange, Map<String, List<String>> params)
+        throws IOException {
+        final String user = first(params, "user");
+        if (user == null) {
+            respond(exchange, 400, "user must be specified");
+            return;
+        }
+        final String state = first(params, "state");
+        final List<String> states = state == null ? Collections.<String>emptyList()
+                : Arrays.asList(state.toLowerCase().split("[+, ]"));
+        final long startMillis = parseLong(first(params, "start-ms"), 0L);
+        final long endMillis = parseLong(first(params, "end-ms"), Long.MAX_VALUE);
+        final long limit = parseLong(first(params, "limit"), Long.MAX_VALUE);
+        final List<String> jobs = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            for (FakeJob job : _jobs.values()) {
+                if (jobs.size() >= limit) {
+                    break;
+                }
+                advance(job, now);
+                if (job._user.equals(user) && job._submitTime >= startMillis && job._submitTime < endMillis
+                        && (states.isEmpty() || states.contains(job._status.name().toLowerCase()))) {
+                    jobs.add(render(job));
+                }
+            }
+        }
+        respondJson(exchange, 200, jobs);
+    }
+
+    private void handleRetry(HttpExchange exchange, Map<String, List<String>> params)
+        throws IOException {
+        final String method = exchange.getRequestMethod();
+        if ("GET".equals(method)) {
+            final String uuid = first(params, "job");
+            synchronized (this) {
+                final FakeJob job = uuid == null ? null : _jobs.get(UUID.fromString(uuid));
+                if (job == null) {
+                    respond(exchange, 404, "UUID " + uuid + " didn't correspond to a job");
+                    return;
+                }
+                respond(exchange, 200, String.valueOf(job._json.getInt("max_retries")));
+            }
+        } else if ("POST".equals(method) || "PUT".equals(method)) {
+            final JSONObject body = new JSONObject(read(exchange.getRequestBody()));
+            final List<String> uuids = new ArrayList<>();
+            if (body.has("job")) {
+                uuids.add(body.getString("job"));
+            }
+            final JSONArray jobs = body.optJSONArray("jobs");
+            for (int i = 0; jobs != null && i < jobs.length(); ++i) {
+                uuids.add(jobs.getString(i));
+            }
+            final int retries = body.getInt("retries");
+            synchronized (this) {
+                final long now = System.currentTimeMillis();
+                for (String uuid : uuids) {
+                    if (!_jobs.containsKey(UUID.fromString(uuid))) {
+                        respond(exchange, 404, "UUID " + uuid + " didn't correspond to a job");
+                        return;
+                    }
+                }
+                for (String uuid : uuids) {
+                    final FakeJob job = _jobs.get(UUID.fromString(uuid));
+                    advance(job, now);
+                    job._json.put("max_retries", retries);
+                    final JSONObject last = job._instances.length() == 0 ? null
+                            : job._instances.getJSONObject(job._instances.length() - 1);
+                    if (job._status == Job.Status.COMPLETED && last != null && "failed".equals(last.getString("status"))
+                            && job._instances.length() < retries) {
+                        job._status = Job.Status.WAITING;
+                        job._since = now;
+                    }
+                }
+            }
+            respond(exchange, 201, String.valueOf(retries));
+        } else {
+            respond(exchange, 405, method + " is not allowed");
+        }
+    }
+
+    /**
+     * Delays each request by the configured latency, injects errors and reports unexpected failures as 500.
+     */
+    private abstract class Handler implements HttpHandler {
+
+        abstract void handle(HttpExchange exchange, Map<String, List<String>> params)
+            throws IOException;
+
+        @Override
+        public void handle(HttpExchange exchange)
+            throws IOException {
+            _requests.incrementAndGet();
+            try {
+                final long latency;
+                final boolean error;
+                synchronized (FakeCookScheduler.this) {
+                    latency = _latency.nextMillis(_random);
+                    error = _random.nextDouble() < _errorRate;
+                }
+                if (latency > 0) {
+                    Thread.sleep(latency);
+                }
+                if (error) {
+                    read(exchange.getRequestBody());
+                    respond(exchange, 503, "Service unavailable");
+                } else {
+                    handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (JSONException | IllegalArgumentException e) {
+                respond(exchange, 400, "Malformed request: " + e.getMessage());
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    private static Map<String, List<String>> parseQuery(String query)
+        throws IOException {
+        final Map<String, List<String>> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            final int separator = param.indexOf('=');
+            final String name = URLDecoder.decode(separator < 0 ? param : param.substring(0, separator), "UTF-8");
+            final String value = separator < 0 ? "" : URLDecoder.decode(param.substring(separator + 1), "UTF-8");
+            if (!params.containsKey(name)) {
+                params.put(name, new ArrayList<String>());
+            }
+            params.get(name).add(value);
+        }
+        return params;
+    }
+
+    private static List<String> values(Map<String, List<String>> params, String name) {
+        final List<String> values = params.get(name);
+        return values == null ? Collections.<String>emptyList() : values;
+    }
+
+    private static String first(Map<String, List<String>> params, String name) {
+        final List<String> values = params.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    private static String read(InputStream in)
+        throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, count);
+        }
+        return new String(out.toByteArray(), Charsets.UTF_8);
+    }
+
+    private static void respondJson(HttpExchange exchange, int status, List<String> values)
+        throws IOException {
+        final StringBuilder body = new StringBuilder(values.size() * 1024 + 2).append('[');
+        for (int i = 0; i < values.size(); ++i) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(values.get(i));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, status, body.append(']').toString().getBytes(Charsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message)
+        throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        send(exchange, status, message == null ? null : message.getBytes(Charsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body)
+        throws IOException {
+        exchange.sendResponseHeaders(status, body == null ? -1 : body.length);
+        if (body != null) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Predicates;
+import org.json.JSONArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * End-to-end tests of {@link JobClient} against a {@link FakeCookScheduler}, which also cover the fake itself.
+ */
+public class FakeCookSchedulerTest {
+
+    private static String get(FakeCookScheduler scheduler, String pathAndQuery)
+        throws IOException {
+        final URL url = new URL("http", scheduler.getHost(), scheduler.getPort(), pathAndQuery);
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try (InputStream in = connection.getInputStream(); Scanner scanner = new Scanner(in, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testJobLifecycle() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().setBatchRequestSize(16).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(100, 5);
+            client.submit(jobs);
+            // A single submission and 7 queries of at most 16 jobs each.
+            final Map<UUID, Job> queried = client.queryJobs(TestJobs.uuids(jobs));
+            Assert.assertEquals(8, scheduler.getRequestCount());
+            Assert.assertEquals(jobs.size(), queried.size());
+            for (Job job : jobs) {
+                Assert.assertEquals(Job.Status.WAITING, queried.get(job.getUUID()).getStatus());
+                Assert.assertEquals(job.getCommand(), queried.get(job.getUUID()).getCommand());
+            }
+            client.abort(TestJobs.uuids(jobs.subList(0, 10)));
+            Assert.assertEquals(Job.Status.COMPLETED, scheduler.getStatus(jobs.get(0).getUUID()));
+            Assert.assertEquals(Job.Status.WAITING, scheduler.getStatus(jobs.get(10).getUUID()));
+        }
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setRunningMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            final List<Job> jobs = TestJobs.makeJobs(1, 5);
+            client.submit(jobs);
+            final Job job = client.queryJobs(TestJobs.uuids(jobs)).get(jobs.get(0).getUUID());
+            Assert.assertEquals(Job.Status.RUNNING, job.getStatus());
+            Assert.assertNotNull(job.getRunningInstance().getHostName());
+        }
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setRunningMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            // The running time of a job in its label overrides the running time of the fake.
+            final Job job = new Job.Builder().of(TestJobs.makeJobs(1, 5).get(0))
+                    .addLabel(FakeCookScheduler.RUNTIME_LABEL, "0").build();
+            client.submit(Collections.singletonList(job));
+            Assert.assertEquals(Job.Status.COMPLETED, client.queryJobs(TestJobs.uuids(Collections.singletonList(job)))
+                    .get(job.getUUID()).getStatus());
+        }
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            final List<Job> jobs = TestJobs.makeJobs(1, 5);
+            client.submit(jobs);
+            final Job job = client.queryJobs(TestJobs.uuids(jobs)).get(jobs.get(0).getUUID());
+            Assert.assertEquals(Job.Status.COMPLETED, job.getStatus());
+            Assert.assertTrue(job.isSuccess());
+        }
+    }
+
+    @Test
+    public void testPollingSkipsMalformedJobs() throws Exception {
+        final Map<UUID, Job.Status> updates = new ConcurrentHashMap<>();
+        final JobListener listener = new JobListener() {
+            @Override
+            public void onStatusUpdate(Job job) {
+                updates.put(job.getUUID(), job.getStatus());
+            }
+        };
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().setStatusUpdateInterval(10).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(2, 1);
+            client.submit(jobs, listener);
+            final UUID malformed = jobs.get(0).getUUID();
+            final UUID wellFormed = jobs.get(1).getUUID();
+            // A job without its command can not be decoded.
+            scheduler.putJobMember(malformed, "command", null);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!updates.containsKey(wellFormed) && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            Assert.assertEquals(Job.Status.COMPLETED, updates.get(wellFormed));
+            Assert.assertFalse(updates.containsKey(malformed));
+
+            // The malformed job is still tracked, and its update is delivered once it can be decoded.
+            scheduler.putJobMember(malformed, "command", "echo 0");
+            while (!updates.containsKey(malformed) && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            Assert.assertEquals(Job.Status.COMPLETED, updates.get(malformed));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testAbortWhileSubmissionsAreBlocked() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             final JobClient client = scheduler.newClientBuilder()
+                     .setMaxOutstandingWaitingJobs(2)
+                     .setAdmissionTimeout(60)
+                     .setBatchRequestSize(1)
+                     .setRequestParallelism(2)
+                     .build()) {
+            final List<Job> admitted = TestJobs.makeJobs(2, 1);
+            client.submit(admitted);
+            // Every request thread is held back by admission control while submitting these in parallel.
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws JobClientException {
+                    client.submitWithGroups(TestJobs.makeJobs(4, 1), Collections.<Group>emptyList());
+                    return null;
+                }
+            });
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (client.getStats().getBlockedSubmissions() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(2, client.getStats().getBlockedSubmissions());
+
+            final AbortSummary summary = client.abortWhere(Predicates.<JobSnapshot>alwaysTrue());
+            Assert.assertTrue(summary.isComplete());
+            Assert.assertEquals(2, summary.getAborted().size());
+            Assert.assertEquals(Job.Status.COMPLETED, scheduler.getStatus(admitted.get(0).getUUID()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAbortGroupWithUntrackedMembers() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().build();
+             JobClient other = scheduler.newClientBuilder().build()) {
+            final Group group = new Group.Builder().setUUID(UUID.randomUUID()).build();
+            final List<Job> jobs = new ArrayList<>();
+            for (Job job : TestJobs.makeJobs(4, 5)) {
+                jobs.add(new Job.Builder().of(job).setGroup(group).build());
+            }
+            client.submitWithGroups(jobs.subList(0, 2), Collections.singletonList(group));
+            // The other client submits more members of the group, which the first client does not track.
+            other.submit(jobs.subList(2, 4));
+
+            final AbortSummary summary = client.abortGroup(group.getUUID());
+            Assert.assertTrue(summary.isComplete());
+            Assert.assertEquals(new HashSet<>(TestJobs.uuids(jobs)), summary.getAborted());
+            for (Job job : jobs) {
+                Assert.assertEquals(Job.Status.COMPLETED, scheduler.getStatus(job.getUUID()));
+            }
+        }
+    }
+
+    @Test
+    public void testFailuresAndRetries() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setInstanceFailureRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            final List<Job> jobs = TestJobs.makeJobs(1, 3);
+            final UUID uuid = jobs.get(0).getUUID();
+            client.submit(jobs);
+            final Job job = client.queryJobs(TestJobs.uuids(jobs)).get(uuid);
+            Assert.assertEquals(Job.Status.COMPLETED, job.getStatus());
+            Assert.assertFalse(job.isSuccess());
+            Assert.assertEquals(3, job.getInstances().size());
+            Assert.assertEquals("3", get(scheduler, FakeCookScheduler.RETRY_ENDPOINT + "?job=" + uuid));
+            // The fake also answers queries of the newer jobs endpoint.
+            final JSONArray listed = new JSONArray(get(scheduler,
+                    FakeCookScheduler.JOBS_ENDPOINT + "?uuid=" + uuid));
+            Assert.assertEquals("completed", listed.getJSONObject(0).getString("status"));
+        }
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setErrorRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            try {
+                client.queryJobs(Collections.singletonList(UUID.randomUUID()));
+                Assert.fail("Injected errors must fail queries");
+            } catch (JobClientException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSubmissionsWhichLookFailed() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setTransactionTimeoutRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().setSubmitRetryInterval(1).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(3, 5);
+            // The client verifies that the jobs of the timed out transaction were created.
+            client.submit(jobs);
+            Assert.assertNotNull(scheduler.getStatus(jobs.get(2).getUUID()));
+        }
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setUuidUsedRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            final List<Job> jobs = TestJobs.makeJobs(3, 5);
+            client.submit(jobs);
+            Assert.assertNotNull(scheduler.getStatus(jobs.get(2).getUUID()));
+        }
+    }
+
+    @Test
+    public void testGroupsAndLists() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().build()) {
+            final Group group = new Group.Builder().setUUID(UUID.randomUUID()).setName("fake").build();
+            final List<Job> jobs = new ArrayList<>();
+            for (Job job : TestJobs.makeJobs(3, 5)) {
+                jobs.add(new Job.Builder().of(job).setGroup(group).build());
+            }
+            // The scheduler takes the user of jobs from the request, i.e. the authenticated or impersonated user.
+            client.impersonating("alice").submitWithGroups(jobs, Collections.singletonList(group));
+            final Group queried = client.queryGroup(group.getUUID());
+            Assert.assertEquals("fake", queried.getName());
+            Assert.assertEquals(TestJobs.uuids(jobs), queried.getJobs());
+            Assert.assertEquals(group.getUUID(), client.queryJobs(TestJobs.uuids(jobs)).get(jobs.get(0).getUUID()).getGroup());
+
+            Assert.assertEquals(3, new JSONArray(get(scheduler,
+                    FakeCookScheduler.LIST_ENDPOINT + "?user=alice&state=running+waiting")).length());
+            Assert.assertEquals(0, new JSONArray(get(scheduler,
+                    FakeCookScheduler.LIST_ENDPOINT + "?user=alice&state=completed")).length());
+            Assert.assertEquals(0, new JSONArray(get(scheduler, FakeCookScheduler.LIST_ENDPOINT + "?user=bob")).length());
+        }
+    }
+}
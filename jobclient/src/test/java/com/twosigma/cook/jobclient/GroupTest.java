@@ -16,6 +16,7 @@
 
 package com.twosigma.cook.jobclient;
 
+import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.UUID;
 
@@ -60,5 +61,12 @@ public class GroupTest {
         Assert.assertEquals(groups.size(), 1);
         Assert.assertEquals(groups.get(0), _initializedGroup);
     }
-}
 
+    @Test
+    public void testGetEncoded() throws JSONException, UnsupportedEncodingException {
+        final byte[] encoded = _initializedGroup.getEncoded();
+        Assert.assertSame(encoded, _initializedGroup.getEncoded());
+        final JSONObject json = new JSONObject(new String(encoded, "UTF-8"));
+        Assert.assertEquals(Group.jsonizeGroup(_initializedGroup).toString(), json.toString());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Histogram}.
+ */
+public class HistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < Histogram.EXACT; ++value) {
+            Assert.assertEquals(value, Histogram.indexOf(value));
+            Assert.assertEquals(value, Histogram.highestValueOf((int) value));
+        }
+        Assert.assertEquals(Histogram.EXACT, Histogram.indexOf(Histogram.EXACT));
+        Assert.assertEquals(Long.MAX_VALUE, Histogram.highestValueOf(Histogram.indexOf(Long.MAX_VALUE)));
+        // Every value lies in its bucket, which spans at most 1/16 of the value.
+        for (long value = Histogram.EXACT; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            final int index = Histogram.indexOf(value);
+            final long highest = Histogram.highestValueOf(index);
+            final long lowest = Histogram.highestValueOf(index - 1) + 1;
+            Assert.assertTrue(lowest <= value && value <= highest);
+            Assert.assertTrue(highest - lowest + 1 <= value / Histogram.SUB_BUCKETS);
+            Assert.assertEquals(index + 1, Histogram.indexOf(highest + 1));
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(0.0, histogram.getMean(), 0.0);
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value * 1000);
+        }
+        histogram.record(-5);
+        Assert.assertEquals(1001, histogram.getCount());
+        Assert.assertEquals(500500000, histogram.getSum());
+        Assert.assertEquals(1000000, histogram.getMax());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(0));
+        Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+        final long median = histogram.getValueAtPercentile(50);
+        Assert.assertTrue(median >= 500000 && median <= 500000 * 17 / 16);
+        final long p99 = histogram.getValueAtPercentile(99);
+        Assert.assertTrue(p99 >= 990000 && p99 <= 1000000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new Histogram().getValueAtPercentile(100.5);
+    }
+}
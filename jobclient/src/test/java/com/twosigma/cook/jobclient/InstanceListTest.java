@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InstanceList}.
+ */
+public class InstanceListTest {
+
+    private static Instance makeInstance(Instance.Status status, Long startTime) {
+        return new Instance.Builder()
+                .setTaskID(UUID.randomUUID())
+                .setSlaveID("slave-1")
+                .setExecutorID("executor-1")
+                .setHostName("server1.example.com")
+                .setStartTime(startTime)
+                .setStatus(status)
+                .setPreempted(false)
+                .build();
+    }
+
+    private static Job makeJob(Job.Status status, List<Instance> instances) {
+        return new Job.Builder()
+                .setCommand("sleep 10s")
+                .setMemory(100.0)
+                .setCpus(1.0)
+                .setStatus(status)
+                .addInstances(instances)
+                .build();
+    }
+
+    @Test
+    public void testNoInstances() {
+        final Job job = makeJob(Job.Status.COMPLETED, new ArrayList<Instance>());
+        Assert.assertTrue(job.getInstances().isEmpty());
+        Assert.assertNull(job.getRunningInstance());
+        Assert.assertNull(job.getLatestInstance());
+        Assert.assertNull(job.getInstance(UUID.randomUUID()));
+        Assert.assertFalse(job.isSuccess());
+    }
+
+    @Test
+    public void testLongRetryHistory() {
+        final List<Instance> instances = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            instances.add(makeInstance(Instance.Status.FAILED, 1000L + i));
+        }
+        final Instance success = makeInstance(Instance.Status.SUCCESS, 900L);
+        instances.add(100, success);
+        final Instance running = makeInstance(Instance.Status.RUNNING, 5000L);
+        instances.add(running);
+        final Instance launching = makeInstance(Instance.Status.UNKNOWN, null);
+        instances.add(150, launching);
+
+        final Job job = makeJob(Job.Status.COMPLETED, instances);
+        Assert.assertEquals(instances, job.getInstances());
+        Assert.assertSame(running, job.getRunningInstance());
+        Assert.assertSame(launching, job.getLatestInstance());
+        Assert.assertTrue(job.isSuccess());
+        Assert.assertFalse(makeJob(Job.Status.RUNNING, instances).isSuccess());
+        for (Instance instance : instances) {
+            Assert.assertSame(instance, job.getInstance(instance.getTaskID()));
+        }
+        Assert.assertNull(job.getInstance(UUID.randomUUID()));
+
+        try {
+            job.getInstances().add(running);
+            Assert.fail("The instances of a job must be immutable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLatestInstance() {
+        final Instance first = makeInstance(Instance.Status.FAILED, 2000L);
+        final Instance second = makeInstance(Instance.Status.RUNNING, 3000L);
+        final Instance listedLast = makeInstance(Instance.Status.FAILED, 1000L);
+        final List<Instance> instances = new ArrayList<>();
+        instances.add(first);
+        instances.add(second);
+        instances.add(listedLast);
+        final Job job = makeJob(Job.Status.RUNNING, instances);
+        Assert.assertSame(second, job.getLatestInstance());
+        Assert.assertSame(second, job.getInstance(second.getTaskID()));
+        Assert.assertEquals(Instance.Status.RUNNING, JobSnapshot.of(job).getLastInstanceStatus());
+        // Indexed instances are not copied again.
+        Assert.assertSame(job.getInstances(), InstanceList.copyOf(job.getInstances()));
+    }
+}
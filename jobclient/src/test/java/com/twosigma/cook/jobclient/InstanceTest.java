@@ -81,6 +81,27 @@ public class InstanceTest {
         Assert.assertEquals(instances.get(0), basicInstance);
     }
 
+    @Test
+    public void testParseFromJsonArray() throws JSONException {
+        final Instance.Builder instanceBuilder = new Instance.Builder();
+        populateBuilder(instanceBuilder);
+        instanceBuilder.setProgress(20);
+        instanceBuilder.setOutputURL("http://example.com/output");
+        Instance basicInstance = instanceBuilder.build();
+
+        final JSONObject json = new JSONObject();
+        populateJson(json, basicInstance);
+        json.put("progress", 20);
+        json.put("output_url", "http://example.com/output");
+
+        // A parsed array holds the task ID as a string rather than a UUID.
+        final JSONArray array = new JSONArray(new JSONArray().put(json).toString());
+        final List<Instance> instances = Instance.parseFromJSON(array);
+        Assert.assertEquals(Instance.parseFromJSON(array.toString()), instances);
+        Assert.assertEquals(Integer.valueOf(20), instances.get(0).getProgress());
+        Assert.assertEquals("http://example.com/output", instances.get(0).getOutputURL());
+    }
+
     @Test
     public void testBuilderWithExecutor() throws JSONException {
         for (Executor executor : Executor.values()) {
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.twosigma.cook.jobclient.JobClientMetrics.Operation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the cache of completed jobs of a {@link JobClient}, see
+ * {@link JobClient.Builder#setCompletedJobCacheWeight(long)}.
+ */
+public class JobClientCacheTest {
+
+    @Test
+    public void testCompletedJobsAreServedFromTheCache() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().setCompletedJobCacheWeight(1000).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(10, 1);
+            client.submit(jobs);
+            final Map<UUID, Job> first = client.queryJobs(TestJobs.uuids(jobs));
+            final long requests = scheduler.getRequestCount();
+            final Map<UUID, Job> second = client.queryJobs(TestJobs.uuids(jobs));
+            Assert.assertEquals(requests, scheduler.getRequestCount());
+            Assert.assertEquals(first, second);
+            for (Job job : second.values()) {
+                Assert.assertEquals(Job.Status.COMPLETED, job.getStatus());
+            }
+            final JobClientStats stats = client.getStats();
+            Assert.assertEquals(10, stats.getCachedCompletedJobs());
+            Assert.assertEquals(10, stats.getCompletedJobCacheHits());
+        }
+    }
+
+    @Test
+    public void testDuplicateUUIDs() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().setCompletedJobCacheWeight(1000).build()) {
+            final List<Job> jobs = TestJobs.makeJobs(2, 1);
+            client.submit(jobs);
+            final List<UUID> uuids = new ArrayList<>(TestJobs.uuids(jobs));
+            uuids.addAll(TestJobs.uuids(jobs));
+            // The first query misses the cache and the second one hits it, both with every UUID given twice.
+            Assert.assertEquals(2, client.queryJobs(uuids).size());
+            Assert.assertEquals(2, client.queryJobs(uuids).size());
+            Assert.assertEquals(2, client.getStats().getCompletedJobCacheHits());
+        }
+    }
+
+    @Test
+    public void testOnlyMissesAreQueried() throws Exception {
+        final DefaultJobClientMetrics metrics = new DefaultJobClientMetrics();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().setCompletedJobCacheWeight(1000).setMetrics(metrics)
+                     .build()) {
+            final List<Job> jobs = TestJobs.makeJobs(5, 1);
+            client.submit(jobs);
+            client.abort(TestJobs.uuids(jobs.subList(0, 2)));
+            client.queryJobs(TestJobs.uuids(jobs));
+            final Map<UUID, Job> queried = client.queryJobs(TestJobs.uuids(jobs));
+            // The aborted jobs completed, the others are still waiting and are queried again.
+            Assert.assertEquals(5 + 3, metrics.getBatchSizes(Operation.QUERY_JOBS).getSum());
+            Assert.assertEquals(5, queried.size());
+            Assert.assertEquals(Job.Status.COMPLETED, queried.get(jobs.get(0).getUUID()).getStatus());
+            Assert.assertEquals(Job.Status.WAITING, queried.get(jobs.get(4).getUUID()).getStatus());
+        }
+    }
+
+    @Test
+    public void testGroupJobsAndFieldQueries() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().build();
+             JobClient client = scheduler.newClientBuilder().setCompletedJobCacheWeight(1000).build()) {
+            final Group group = new Group.Builder().setUUID(UUID.randomUUID()).build();
+            final List<Job> jobs = new ArrayList<>();
+            for (Job job : TestJobs.makeJobs(3, 1)) {
+                jobs.add(new Job.Builder().of(job).setGroup(group).build());
+            }
+            client.submitWithGroups(jobs, Collections.singletonList(group));
+            // Jobs with only some fields parsed are not cached.
+            client.queryJobs(TestJobs.uuids(jobs), EnumSet.of(Job.Field.NAME));
+            Assert.assertEquals(0, client.getStats().getCachedCompletedJobs());
+
+            final Group queried = client.queryGroup(group.getUUID());
+            client.queryGroupJobs(queried);
+            Assert.assertEquals(3, client.getStats().getCachedCompletedJobs());
+            final long requests = scheduler.getRequestCount();
+            final Map<UUID, Job> cached = client.queryGroupJobs(queried);
+            Assert.assertEquals(requests, scheduler.getRequestCount());
+            Assert.assertEquals("echo 0", cached.get(jobs.get(0).getUUID()).getCommand());
+        }
+    }
+
+    @Test
+    public void testWeightBound() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setInstanceFailureRate(1.0).build();
+             JobClient client = scheduler.newClientBuilder().setCompletedJobCacheWeight(12).build()) {
+            // Every job failed 3 times, so it weighs 4.
+            final List<Job> jobs = TestJobs.makeJobs(10, 3);
+            client.submit(jobs);
+            final Map<UUID, Job> queried = client.queryJobs(TestJobs.uuids(jobs));
+            Assert.assertEquals(3, queried.get(jobs.get(0).getUUID()).getInstances().size());
+            Assert.assertTrue(client.getStats().getCachedCompletedJobs() <= 3);
+        }
+    }
+}
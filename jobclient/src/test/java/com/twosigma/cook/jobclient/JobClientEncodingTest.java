@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * End-to-end tests of the negotiation of the encoding of query responses against a local stub scheduler which
+ * either speaks both CBOR and JSON or only JSON.
+ */
+public class JobClientEncodingTest {
+
+    private HttpServer _server;
+
+    private volatile boolean _supportsCbor;
+
+    /**
+     * The content type of each response the stub sent.
+     */
+    private final List<String> _responseTypes = new CopyOnWriteArrayList<>();
+
+    private final List<String> _acceptHeaders = new CopyOnWriteArrayList<>();
+
+    private Job _job;
+
+    private Group _group;
+
+    @Before
+    public void setup() throws IOException {
+        _group = new Group.Builder().setUUID(UUID.randomUUID()).build();
+        _job = new Job.Builder()
+                .setCommand("echo hello")
+                .setMemory(100.0)
+                .setCpus(1.0)
+                .setGroup(_group)
+                .addLabel("team", "infra")
+                .build();
+        final JSONObject job = Job.jsonizeJob(_job);
+        job.put("status", "running");
+        // The scheduler lists the groups of a job.
+        job.put("groups", new JSONArray().put(_group.getUUID().toString()));
+        job.put("instances", new JSONArray().put(new JSONObject()
+                .put("task_id", UUID.randomUUID().toString())
+                .put("slave_id", "slave-1")
+                .put("executor_id", UUID.randomUUID().toString())
+                .put("hostname", "host-1")
+                .put("status", "running")
+                .put("preempted", false)
+                .put("start_time", 1426632249597L)));
+        final JSONObject group = Group.jsonizeGroup(_group);
+        group.put("jobs", new JSONArray().put(_job.getUUID().toString()));
+
+        _server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        _server.createContext("/rawscheduler", new StubHandler(new JSONArray().put(job)));
+        _server.createContext("/group", new StubHandler(new JSONArray().put(group)));
+        _server.start();
+    }
+
+    @After
+    public void teardown() {
+        _server.stop(0);
+    }
+
+    private JobClient buildClient(boolean binaryEncoding) throws Exception {
+        return new JobClient.Builder()
+                .setHost("127.0.0.1")
+                .setPort(_server.getAddress().getPort())
+                .setJobEndpoint("rawscheduler")
+                .setGroupEndpoint("group")
+                .setBinaryEncoding(binaryEncoding)
+                .build();
+    }
+
+    private void assertJob(Map<UUID, Job> jobs) {
+        final Job job = jobs.get(_job.getUUID());
+        Assert.assertNotNull(job);
+        Assert.assertEquals(Job.Status.RUNNING, job.getStatus());
+        Assert.assertEquals(_job.getCommand(), job.getCommand());
+        Assert.assertEquals(_group.getUUID(), job.getGroup());
+        Assert.assertEquals("infra", job.getLabels().get("team"));
+        Assert.assertEquals("host-1", job.getRunningInstance().getHostName());
+    }
+
+    @Test
+    public void testBinaryResponses() throws Exception {
+        _supportsCbor = true;
+        try (JobClient client = buildClient(true)) {
+            assertJob(client.queryJobs(Collections.singletonList(_job.getUUID())));
+            final Group group = client.queryGroup(_group.getUUID());
+            Assert.assertEquals(Collections.singletonList(_job.getUUID()), group.getJobs());
+        }
+        Assert.assertEquals(Arrays.asList(CborReader.MIME_TYPE, CborReader.MIME_TYPE), _responseTypes);
+        Assert.assertEquals(JobClient.BINARY_ACCEPT, _acceptHeaders.get(0));
+    }
+
+    @Test
+    public void testFallbackToJson() throws Exception {
+        _supportsCbor = false;
+        try (JobClient client = buildClient(true)) {
+            assertJob(client.queryJobs(Collections.singletonList(_job.getUUID())));
+            Assert.assertEquals(1, client.queryGroups(Collections.singletonList(_group.getUUID())).size());
+        }
+        Assert.assertEquals(Arrays.asList("application/json", "application/json"), _responseTypes);
+    }
+
+    @Test
+    public void testJsonByDefault() throws Exception {
+        _supportsCbor = true;
+        try (JobClient client = buildClient(false)) {
+            assertJob(client.queryJobs(Collections.singletonList(_job.getUUID())));
+        }
+        Assert.assertEquals(Collections.singletonList("application/json"), _responseTypes);
+        Assert.assertFalse(String.valueOf(_acceptHeaders.get(0)).contains(CborReader.MIME_TYPE));
+    }
+
+    /**
+     * Responds to every request with the same document, as CBOR if the stub supports it and the client accepts it.
+     */
+    private final class StubHandler implements HttpHandler {
+
+        private final JSONArray _document;
+
+        StubHandler(JSONArray document) {
+            _document = document;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            final String accept = exchange.getRequestHeaders().getFirst("Accept");
+            _acceptHeaders.add(String.valueOf(accept));
+            final boolean cbor = _supportsCbor && accept != null && accept.contains(CborReader.MIME_TYPE);
+            final String contentType = cbor ? CborReader.MIME_TYPE : "application/json";
+            final byte[] body = cbor ? CborEncoder.encode(_document) : _document.toString().getBytes(Charsets.UTF_8);
+            _responseTypes.add(contentType);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.twosigma.cook.jobclient.JobClientMetrics.Operation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the snapshots of the internal state of a {@link JobClient}, see {@link JobClient#getStats()}.
+ */
+public class JobClientStatsTest {
+
+    private static final JobListener IGNORING_LISTENER = new JobListener() {
+        @Override
+        public void onStatusUpdate(Job job) {
+        }
+    };
+
+    @Test
+    public void testTrackedJobsAndPolling() throws Exception {
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(60000).build();
+             JobClient client = scheduler.newClientBuilder().setRequestParallelism(3).build()) {
+            JobClientStats stats = client.getStats();
+            Assert.assertEquals(Integer.valueOf(0), stats.getTrackedJobs().get(Job.Status.INITIALIZED));
+            Assert.assertEquals(5, stats.getMaxConnections());
+            Assert.assertEquals(-1, stats.getLastPollCycleMillis());
+            Assert.assertEquals(-1, stats.getMillisSinceSuccessfulPoll());
+
+            client.submit(TestJobs.makeJobs(10), IGNORING_LISTENER);
+            client.submit(TestJobs.makeJobs(5));
+            stats = client.getStats();
+            Assert.assertEquals(Integer.valueOf(15), stats.getTrackedJobs().get(Job.Status.INITIALIZED));
+            Assert.assertEquals(Integer.valueOf(0), stats.getTrackedJobs().get(Job.Status.WAITING));
+            Assert.assertEquals(10, stats.getJobListeners());
+            Assert.assertEquals(0, stats.getGroupListeners());
+            for (Operation operation : Operation.values()) {
+                Assert.assertEquals(Integer.valueOf(0), stats.getInFlightRequests().get(operation));
+            }
+            Assert.assertEquals(0, stats.getLeasedConnections());
+            Assert.assertEquals(0, stats.getQueuedRequests());
+            Assert.assertEquals(0, stats.getBlockedSubmissions());
+
+            // The first status update cycle observes that the jobs are waiting.
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (client.getStats().getLastPollCycleMillis() < 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            stats = client.getStats();
+            Assert.assertTrue(stats.getLastPollCycleMillis() >= 0);
+            Assert.assertTrue(stats.getMillisSinceSuccessfulPoll() >= 0);
+            Assert.assertEquals(Integer.valueOf(15), stats.getTrackedJobs().get(Job.Status.WAITING));
+        }
+    }
+
+    @Test
+    public void testInFlightRequests() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder()
+                .setLatency(FakeCookScheduler.fixedLatency(1000)).build();
+             final JobClient client = scheduler.newClientBuilder().build()) {
+            final List<Job> jobs = TestJobs.makeJobs(1);
+            scheduler.addJobs(jobs);
+            final Future<?> query = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        client.queryJobs(Collections.singletonList(jobs.get(0).getUUID()));
+                    } catch (JobClientException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            // The request counts as in flight before it leases a connection.
+            JobClientStats stats = client.getStats();
+            while ((stats.getInFlightRequests().get(Operation.QUERY_JOBS) == 0 || stats.getLeasedConnections() == 0)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                stats = client.getStats();
+            }
+            Assert.assertEquals(Integer.valueOf(1), stats.getInFlightRequests().get(Operation.QUERY_JOBS));
+            Assert.assertEquals(1, stats.getLeasedConnections());
+            query.get();
+            Assert.assertEquals(Integer.valueOf(0), client.getStats().getInFlightRequests().get(Operation.QUERY_JOBS));
+            Assert.assertEquals(0, client.getStats().getLeasedConnections());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
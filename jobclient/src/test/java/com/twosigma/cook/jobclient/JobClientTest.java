@@ -19,8 +19,11 @@ package com.twosigma.cook.jobclient;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -39,12 +42,16 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
+import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 /**
  * Unit test for JobClient
@@ -229,6 +236,7 @@ public class JobClientTest {
     public void testImpersonation() throws JobClientException {
         // arrange
         final AtomicInteger deleteCounter = new AtomicInteger(0);
+        final AtomicInteger impersonatedDeleteCounter = new AtomicInteger(0);
         final AtomicInteger postCounter = new AtomicInteger(0);
         new MockUp<JobClient>() {
             @Mock
@@ -246,6 +254,9 @@ public class JobClientTest {
                     return response;
                 } else if (request instanceof HttpDelete) {
                     deleteCounter.incrementAndGet();
+                    if ("test impersonated foo".equals(msg)) {
+                        impersonatedDeleteCounter.incrementAndGet();
+                    }
                     final BasicStatusLine statusLine = new BasicStatusLine(protocolVersion, 204, msg);
                     final BasicHttpResponse response = new BasicHttpResponse(statusLine);
                     response.setEntity(httpEntity);
@@ -258,11 +269,131 @@ public class JobClientTest {
         // act
         _client.impersonating("foo").submit(Lists.newArrayList(_initializedImpersonatedJob), _listener);
         _client.impersonating("foo").abort(Lists.newArrayList(_initializedImpersonatedJob.getUUID()));
+        final AbortSummary summary = _client.impersonating("foo").abortWhere(Predicates.<JobSnapshot>alwaysTrue());
         // assert
-        Assert.assertEquals(1, deleteCounter.get());
+        Assert.assertEquals(1, summary.getAborted().size());
+        Assert.assertEquals(2, deleteCounter.get());
+        Assert.assertEquals(2, impersonatedDeleteCounter.get());
         Assert.assertEquals(1, postCounter.get());
     }
 
+    @Test
+    public void testSubmitWithGroupsPartialFailure() throws Exception {
+        final Group goodGroup = new Group.Builder().build();
+        final Group badGroup = new Group.Builder().build();
+        final Group otherBadGroup = new Group.Builder().build();
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 2; ++i) {
+            jobs.add(new Job.Builder().of(_initializedJob).setUUID(UUID.randomUUID()).setGroup(goodGroup).build());
+            jobs.add(new Job.Builder().of(_initializedJob).setUUID(UUID.randomUUID()).setGroup(badGroup).build());
+            jobs.add(new Job.Builder().of(_initializedJob).setUUID(UUID.randomUUID()).setGroup(otherBadGroup).build());
+        }
+        final AtomicInteger postCounter = new AtomicInteger(0);
+        new MockUp<JobClient>() {
+            @Mock
+            public HttpResponse executeWithRetries(HttpRequestBase request, int ignore1, long ignore2) throws IOException {
+                postCounter.incrementAndGet();
+                final String body = IOUtils.toString(((HttpPost) request).getEntity().getContent(), "UTF-8");
+                final int status = body.contains(badGroup.getUUID().toString())
+                        || body.contains(otherBadGroup.getUUID().toString()) ? 400 : 201;
+                final BasicHttpEntity httpEntity = new BasicHttpEntity();
+                httpEntity.setContent(IOUtils.toInputStream("hello", "UTF-8"));
+                final BasicHttpResponse response = new BasicHttpResponse(
+                        new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), status, "test reason"));
+                response.setEntity(httpEntity);
+                return response;
+            }
+        };
+        final JobClient client = new JobClient.Builder().setHost("127.0.0.1").setPort(80).setEndpoint("cook")
+                .setBatchRequestSize(2).build();
+        try {
+            client.submitWithGroups(jobs, Lists.newArrayList(goodGroup, badGroup, otherBadGroup));
+            Assert.fail("Expected a GroupSubmissionException");
+        } catch (GroupSubmissionException e) {
+            Assert.assertEquals(Collections.singleton(goodGroup.getUUID()), e.getSubmittedGroups());
+            Assert.assertEquals(Sets.newHashSet(badGroup.getUUID(), otherBadGroup.getUUID()),
+                    e.getFailedGroups().keySet());
+            Assert.assertEquals(4, e.getFailedJobs().size());
+            // The failure of one request is the cause and the failure of the other one is suppressed.
+            Assert.assertEquals(1, e.getSuppressed().length);
+            Assert.assertEquals(Sets.<Throwable>newHashSet(e.getFailedGroups().values()),
+                    Sets.newHashSet(e.getCause(), e.getSuppressed()[0]));
+        } finally {
+            client.close();
+        }
+        Assert.assertEquals(3, postCounter.get());
+    }
+
+    @Test
+    public void testAbortWhere() throws Exception {
+        final Group group = new Group.Builder().build();
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            jobs.add(new Job.Builder().of(_initializedJob).setUUID(UUID.randomUUID()).setGroup(group).build());
+        }
+        final Job failingJob = jobs.get(4);
+        final AtomicInteger deleteCounter = new AtomicInteger(0);
+        new MockUp<JobClient>() {
+            @Mock
+            public HttpResponse executeWithRetries(HttpRequestBase request, int ignore1, long ignore2) throws IOException {
+                int status = 201;
+                if (request instanceof HttpDelete) {
+                    deleteCounter.incrementAndGet();
+                    status = request.getURI().toString().contains(failingJob.getUUID().toString()) ? 500 : 204;
+                }
+                final BasicHttpEntity httpEntity = new BasicHttpEntity();
+                httpEntity.setContent(IOUtils.toInputStream("hello", "UTF-8"));
+                final BasicHttpResponse response = new BasicHttpResponse(
+                        new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), status, "test reason"));
+                response.setEntity(httpEntity);
+                return response;
+            }
+        };
+        // Without a group endpoint, the members of a tracked group are its tracked jobs.
+        final JobClient client = new JobClient.Builder().setHost("127.0.0.1").setPort(80).setEndpoint("cook")
+                .setBatchRequestSize(2).build();
+        try {
+            client.submitWithGroups(jobs, Lists.newArrayList(group));
+            final AbortSummary summary = client.abortGroup(group.getUUID());
+            Assert.assertEquals(3, deleteCounter.get());
+            Assert.assertEquals(5, summary.getRequested());
+            // The failing job fails its whole partition of (at most) two jobs.
+            Assert.assertTrue(summary.getFailed().containsKey(failingJob.getUUID()));
+            Assert.assertTrue(summary.getFailed().size() <= 2);
+            Assert.assertEquals(5, summary.getAborted().size() + summary.getFailed().size());
+            Assert.assertFalse(summary.isComplete());
+
+            final AbortSummary noneSummary = client.abortWhere(new Predicate<JobSnapshot>() {
+                @Override
+                public boolean apply(JobSnapshot job) {
+                    return job.getGroup() == null;
+                }
+            });
+            Assert.assertEquals(0, noneSummary.getRequested());
+            Assert.assertTrue(noneSummary.isComplete());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testEncodeSubmission() throws Exception {
+        final Group group = new Group.Builder().build();
+        final Job groupedJob = new Job.Builder().of(_initializedJob).setGroup(group).build();
+        final byte[] body = JobClient.encodeSubmission(Lists.newArrayList(_initializedJob, groupedJob),
+                Lists.newArrayList(group));
+        final JSONObject json = new JSONObject(new String(body, "UTF-8"));
+        Assert.assertEquals(2, json.getJSONArray("jobs").length());
+        Assert.assertEquals(_initializedJob.getUUID().toString(),
+                json.getJSONArray("jobs").getJSONObject(0).getString("uuid"));
+        Assert.assertEquals(group.getUUID().toString(),
+                json.getJSONArray("jobs").getJSONObject(1).getString("group"));
+        Assert.assertEquals(group.getUUID().toString(),
+                json.getJSONArray("groups").getJSONObject(0).getString("uuid"));
+        Assert.assertFalse(new JSONObject(new String(JobClient.encodeSubmission(
+                Lists.newArrayList(_initializedJob), null), "UTF-8")).has("groups"));
+    }
+
     @Test
     /** Note that this test is nondeterministic. The chances of spurious failure (right now) are < 1-in-a-million. */
     public void testJobClient() {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JobLifecycleTracker}.
+ */
+public class JobLifecycleTrackerTest {
+
+    private static Instance makeInstance(Instance.Status status, Long startTime, Long endTime) {
+        return new Instance.Builder()
+                .setTaskID(UUID.randomUUID())
+                .setSlaveID("slave-1")
+                .setExecutorID("executor-1")
+                .setHostName("server1.example.com")
+                .setStartTime(startTime)
+                .setEndTime(endTime)
+                .setStatus(status)
+                .setPreempted(false)
+                .build();
+    }
+
+    private static Job makeJob(UUID uuid, Job.Status status, List<Instance> instances) {
+        return new Job.Builder()
+                .setUUID(uuid)
+                .setCommand("sleep 10s")
+                .setMemory(100.0)
+                .setCpus(1.0)
+                .setStatus(status)
+                .addInstances(instances)
+                .build();
+    }
+
+    @Test
+    public void testTimeline() {
+        final JobLifecycleTracker tracker = new JobLifecycleTracker();
+        final Job job = makeJob(UUID.randomUUID(), Job.Status.WAITING, new ArrayList<Instance>());
+        tracker.onSubmitted(Collections.singletonList(job), 1000, 1050);
+        Assert.assertEquals(1, tracker.getTrackedJobs());
+        Assert.assertEquals(50, tracker.getSubmitLatencies().getMax());
+
+        // The first instance failed, the second one is running.
+        final List<Instance> instances = new ArrayList<>();
+        instances.add(makeInstance(Instance.Status.FAILED, 1300L, 1400L));
+        instances.add(makeInstance(Instance.Status.RUNNING, 1500L, null));
+        final Job running = makeJob(job.getUUID(), Job.Status.RUNNING, instances);
+        tracker.onObserved(running, 1600);
+        tracker.onNotified(running, 1610);
+        // Observing the same status again is ignored.
+        tracker.onObserved(running, 1700);
+
+        final List<Instance> completedInstances = new ArrayList<>(instances.subList(0, 1));
+        completedInstances.add(makeInstance(Instance.Status.SUCCESS, 1500L, 2000L));
+        final Job completed = makeJob(job.getUUID(), Job.Status.COMPLETED, completedInstances);
+        tracker.onObserved(completed, 2400);
+        tracker.onNotified(completed, 2405);
+
+        final JobLifecycleTracker.Timeline timeline = tracker.getTimeline(job.getUUID());
+        Assert.assertEquals(1000, timeline.getSubmitted());
+        Assert.assertEquals(1050, timeline.getAcknowledged());
+        Assert.assertEquals(1300, timeline.getStarted());
+        Assert.assertEquals(1600, timeline.getObservedRunning());
+        Assert.assertEquals(2400, timeline.getObservedCompleted());
+
+        Assert.assertEquals(1, tracker.getQueueTimes().getCount());
+        Assert.assertEquals(250, tracker.getQueueTimes().getMax());
+        Assert.assertEquals(550, tracker.getTimesToRunning().getMax());
+        Assert.assertEquals(1350, tracker.getTimesToCompleted().getMax());
+        // 100ms from the start of the running instance and 400ms from the end of the successful one.
+        Assert.assertEquals(2, tracker.getPollLags().getCount());
+        Assert.assertEquals(500, tracker.getPollLags().getSum());
+        Assert.assertEquals(15, tracker.getNotificationLags().getSum());
+
+        tracker.onUntracked(job.getUUID());
+        Assert.assertNull(tracker.getTimeline(job.getUUID()));
+        Assert.assertEquals(0, tracker.getTrackedJobs());
+    }
+
+    @Test
+    public void testUntrackedJobs() {
+        final JobLifecycleTracker tracker = new JobLifecycleTracker();
+        final Job job = makeJob(UUID.randomUUID(), Job.Status.COMPLETED,
+                Collections.singletonList(makeInstance(Instance.Status.SUCCESS, 100L, 200L)));
+        tracker.onObserved(job, 300);
+        tracker.onNotified(job, 300);
+        Assert.assertNull(tracker.getTimeline(job.getUUID()));
+        Assert.assertEquals(0, tracker.getTimesToCompleted().getCount());
+        Assert.assertEquals(0, tracker.getPollLags().getCount());
+    }
+
+    @Test
+    public void testJobClient() throws Exception {
+        final JobLifecycleTracker tracker = new JobLifecycleTracker();
+        try (FakeCookScheduler scheduler = new FakeCookScheduler.Builder().setWaitingMillis(100).build();
+             JobClient client = scheduler.newClientBuilder().setLifecycleTracker(tracker).build()) {
+            final Job job = new Job.Builder().setCommand("echo").setMemory(100.0).setCpus(1.0).build();
+            client.submit(Collections.singletonList(job), new JobListener() {
+                @Override
+                public void onStatusUpdate(Job job) {
+                }
+            });
+            final JobLifecycleTracker.Timeline timeline = tracker.getTimeline(job.getUUID());
+            Assert.assertTrue(timeline.getSubmitted() > 0);
+            Assert.assertTrue(timeline.getAcknowledged() >= timeline.getSubmitted());
+            Assert.assertEquals(0, timeline.getObservedRunning());
+            Assert.assertEquals(1, tracker.getSubmitLatencies().getCount());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JobSnapshot}.
+ */
+public class JobSnapshotTest {
+
+    private static Instance makeInstance(Instance.Status status) {
+        return new Instance.Builder()
+                .setTaskID(UUID.randomUUID())
+                .setSlaveID("slave-1")
+                .setExecutorID("executor-1")
+                .setHostName("server1.example.com")
+                .setStartTime(1426632249597L)
+                .setStatus(status)
+                .setPreempted(false)
+                .build();
+    }
+
+    @Test
+    public void testSnapshotOfSubmittedJob() {
+        final Job job = new Job.Builder().setCommand("sleep 10s").setMemory(100.0).setCpus(1.0).build();
+        final JobSnapshot snapshot = JobSnapshot.of(job);
+        Assert.assertSame(job.getUUID(), snapshot.getUUID());
+        Assert.assertNull(snapshot.getGroup());
+        Assert.assertEquals(Job.Status.INITIALIZED, snapshot.getStatus());
+        Assert.assertEquals(job.getPriority().intValue(), snapshot.getPriority());
+        Assert.assertEquals(0, snapshot.getInstanceCount());
+        Assert.assertNull(snapshot.getLastInstanceStatus());
+    }
+
+    @Test
+    public void testSnapshotOfRunningJob() {
+        final Group group = new Group.Builder().build();
+        final Job job = new Job.Builder()
+                .setCommand("sleep 10s")
+                .setMemory(100.0)
+                .setCpus(1.0)
+                .setPriority(80)
+                .setGroup(group)
+                .setStatus(Job.Status.RUNNING)
+                .addInstance(makeInstance(Instance.Status.FAILED))
+                .addInstance(makeInstance(Instance.Status.RUNNING))
+                .build();
+        final JobSnapshot snapshot = JobSnapshot.of(job);
+        Assert.assertEquals(group.getUUID(), snapshot.getGroup());
+        Assert.assertEquals(Job.Status.RUNNING, snapshot.getStatus());
+        Assert.assertEquals(80, snapshot.getPriority());
+        Assert.assertEquals(2, snapshot.getInstanceCount());
+        Assert.assertEquals(Instance.Status.RUNNING, snapshot.getLastInstanceStatus());
+    }
+}
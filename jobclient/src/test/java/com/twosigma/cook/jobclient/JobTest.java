@@ -16,6 +16,7 @@
 
 package com.twosigma.cook.jobclient;
 
+import com.google.common.collect.ImmutableMap;
 import com.twosigma.cook.jobclient.constraint.Constraint;
 import com.twosigma.cook.jobclient.constraint.Constraints;
 import org.json.JSONArray;
@@ -25,7 +26,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.UnsupportedEncodingException;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -256,4 +259,178 @@ public class JobTest {
 
         Assert.assertEquals(datasets.toString(), actualJob.getDatasets().toString());
     }
+
+    @Test
+    public void testGetEncoded() throws JSONException, UnsupportedEncodingException {
+        final Job.Builder jobBuilder = new Job.Builder();
+        populateBuilder(jobBuilder);
+        final Job basicJob = jobBuilder.build();
+
+        final byte[] encoded = basicJob.getEncoded();
+        // The encoding is computed only once.
+        Assert.assertSame(encoded, basicJob.getEncoded());
+        final JSONObject json = new JSONObject(new String(encoded, "UTF-8"));
+        Assert.assertEquals(Job.jsonizeJob(basicJob).toString(), json.toString());
+        Assert.assertEquals("http://example.com/my_resource",
+                json.getJSONArray("uris").getJSONObject(0).getString("value"));
+    }
+
+    @Test
+    public void testParseEncodedJob() throws JSONException, UnsupportedEncodingException {
+        final Job.Builder jobBuilder = new Job.Builder();
+        populateBuilder(jobBuilder);
+        jobBuilder.setCommand("echo \"quoted\"\n\u00e9 </end>");
+        jobBuilder.setContainer(new JSONObject().put("type", "docker").put("docker", new JSONObject().put("image", "a/b")));
+        final Job basicJob = jobBuilder.build();
+
+        // Complete the submitted representation with the members added by the scheduler.
+        final String encoded = new String(basicJob.getEncoded(), "UTF-8");
+        final String response = "[" + encoded.substring(0, encoded.length() - 1)
+                + ",\"status\":\"waiting\",\"user\":\"alice\",\"framework_id\":null,\"instances\":[],"
+                + "\"unknown\":{\"nested\":[1,2,{\"x\":\"]\"}]}}]";
+        final List<Job> jobs = Job.parseFromJSON(response);
+        Assert.assertEquals(1, jobs.size());
+        final Job job = jobs.get(0);
+        Assert.assertEquals(basicJob.getUUID(), job.getUUID());
+        Assert.assertEquals(Job.Status.WAITING, job.getStatus());
+        Assert.assertEquals(basicJob.getCommand(), job.getCommand());
+        Assert.assertEquals("alice", job.getUser());
+        Assert.assertEquals(basicJob.getEnv(), job.getEnv());
+        Assert.assertEquals(basicJob.getLabels(), job.getLabels());
+        Assert.assertEquals(basicJob.getUris(), job.getUris());
+        Assert.assertEquals(basicJob.getConstraints(), job.getConstraints());
+        Assert.assertEquals(basicJob.getContainer().toString(), job.getContainer().toString());
+        Assert.assertEquals(basicJob.getMemory(), job.getMemory());
+        Assert.assertEquals(basicJob.getMaxRuntime(), job.getMaxRuntime());
+        Assert.assertTrue(job.isMeaCulpaRetriesDisabled());
+        Assert.assertTrue(job.getInstances().isEmpty());
+    }
+
+    @Test(expected = JSONException.class)
+    public void testParseFromJsonMissingMember() throws JSONException {
+        Job.parseFromJSON("[{\"uuid\":\"" + UUID.randomUUID() + "\",\"mem\":1,\"cpus\":1,\"command\":\"ls\"}]");
+    }
+
+    @Test
+    public void testParseLazily() throws JSONException, UnsupportedEncodingException {
+        final Job.Builder jobBuilder = new Job.Builder();
+        populateBuilder(jobBuilder);
+        final Job basicJob = jobBuilder.build();
+        final String encoded = new String(basicJob.getEncoded(), "UTF-8");
+        final String response = "[" + encoded.substring(0, encoded.length() - 1)
+                + ",\"status\":\"running\",\"user\":\"alice\",\"instances\":[]}]";
+
+        final Job eager = Job.parseFromJSON(response).get(0);
+        final Job lazy = Job.parseLazilyFromJSON(response, null).get(0);
+        Assert.assertEquals(eager, lazy);
+        Assert.assertEquals(Job.Status.RUNNING, lazy.getStatus());
+        Assert.assertEquals(eager.getCommand(), lazy.getCommand());
+        Assert.assertEquals("alice", lazy.getUser());
+        Assert.assertEquals(eager.getEnv(), lazy.getEnv());
+        Assert.assertEquals(eager.getUris(), lazy.getUris());
+        Assert.assertEquals(eager.getGroup(), lazy.getGroup());
+        Assert.assertEquals(eager.toString(), lazy.toString());
+        Assert.assertArrayEquals(eager.getEncoded(), lazy.getEncoded());
+    }
+
+    @Test
+    public void testParseLazilyDefersErrors() throws JSONException {
+        final List<Job> jobs = Job.parseLazilyFromJSON(
+                "[{\"uuid\":\"" + UUID.randomUUID() + "\",\"status\":\"waiting\",\"mem\":1}]", null);
+        Assert.assertEquals(Job.Status.WAITING, jobs.get(0).getStatus());
+        try {
+            jobs.get(0).getMemory();
+            Assert.fail("A job without its required members must not be decoded");
+        } catch (JSONException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testParseLazilyDecodesMembersSeparately() throws JSONException {
+        final List<Job> jobs = Job.parseLazilyFromJSON("[{\"uuid\":\"" + UUID.randomUUID() + "\",\"status\":\"waiting\","
+                + "\"mem\":1,\"cpus\":1,\"command\":\"ls\",\"priority\":50,\"max_retries\":5,\"max_runtime\":10,"
+                + "\"env\":[\"malformed\"],\"labels\":{\"a\":\"b\"},\"instances\":[]}]", null);
+        final Job job = jobs.get(0);
+        Assert.assertEquals("ls", job.getCommand());
+        Assert.assertEquals(ImmutableMap.of("a", "b"), job.getLabels());
+        Assert.assertSame(job.getLabels(), job.getLabels());
+        Assert.assertTrue(job.getInstances().isEmpty());
+        Assert.assertTrue(job.getUris().isEmpty());
+        Assert.assertNull(job.getContainer());
+        try {
+            job.getEnv();
+            Assert.fail("A malformed environment must be reported by its accessor");
+        } catch (JSONException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = JSONException.class)
+    public void testParseLazilyMissingStatus() throws JSONException {
+        Job.parseLazilyFromJSON("[{\"uuid\":\"" + UUID.randomUUID() + "\",\"mem\":1}]", null);
+    }
+
+    @Test
+    public void testParseSelectedFields() throws JSONException {
+        final UUID uuid = UUID.randomUUID();
+        // The command, memory and cpus are required but not selected, so they may be absent.
+        final String response = "[{\"uuid\":\"" + uuid + "\",\"status\":\"waiting\",\"name\":\"dashboard\","
+                + "\"pool\":\"batch\",\"user\":\"alice\",\"env\":{\"A\":\"1\"},"
+                + "\"container\":{\"type\":\"docker\",\"docker\":{\"image\":\"a/b\"}},"
+                + "\"datasets\":[{\"dataset\":{\"a\":\"b\"}}],\"priority\":60,\"max_retries\":3,"
+                + "\"max_runtime\":1000,\"instances\":[]}]";
+        final List<Job> jobs =
+                Job.parseFromJSON(response, null, EnumSet.of(Job.Field.NAME, Job.Field.POOL, Job.Field.USER));
+        Assert.assertEquals(1, jobs.size());
+        final Job job = jobs.get(0);
+        Assert.assertEquals(uuid, job.getUUID());
+        Assert.assertEquals(Job.Status.WAITING, job.getStatus());
+        Assert.assertEquals("dashboard", job.getName());
+        Assert.assertEquals("batch", job.getPool());
+        Assert.assertEquals("alice", job.getUser());
+        Assert.assertNull(job.getCommand());
+        Assert.assertNull(job.getPriority());
+        Assert.assertNull(job.getContainer());
+        Assert.assertNull(job.getDatasets());
+        Assert.assertTrue(job.getEnv().isEmpty());
+        Assert.assertTrue(job.getInstances().isEmpty());
+    }
+
+    @Test(expected = JSONException.class)
+    public void testParseSelectedFieldsMissingMember() throws JSONException {
+        Job.parseFromJSON("[{\"uuid\":\"" + UUID.randomUUID() + "\",\"status\":\"waiting\"}]", null,
+                EnumSet.of(Job.Field.INSTANCES));
+    }
+
+    @Test
+    public void testDerivedJobsShareUnchangedCollections() throws JSONException {
+        final Job.Builder jobBuilder = new Job.Builder();
+        populateBuilder(jobBuilder);
+        jobBuilder.setContainer(new JSONObject().put("type", "docker"));
+        final Job base = jobBuilder.build();
+
+        final Job derived = new Job.Builder().of(base).addEnv("BAR", "derived").build();
+        Assert.assertSame(base.getLabels(), derived.getLabels());
+        Assert.assertSame(base.getUris(), derived.getUris());
+        // The container is mutable, so a derived job gets its own copy.
+        Assert.assertNotSame(base.getContainer(), derived.getContainer());
+        Assert.assertEquals(base.getContainer().toString(), derived.getContainer().toString());
+        derived.getContainer().put("type", "mesos");
+        Assert.assertEquals("docker", base.getContainer().getString("type"));
+        Assert.assertEquals(ImmutableMap.of("FOO", "test", "BAR", "derived"), derived.getEnv());
+        Assert.assertEquals(ImmutableMap.of("FOO", "test"), base.getEnv());
+
+        // A builder shares the collections it has not modified, while each job gets its own copy of the others.
+        final Job.Builder derivedBuilder = new Job.Builder().of(base);
+        final Job first = derivedBuilder.addLabel("variant", "1").build();
+        final Job second = derivedBuilder.build();
+        Assert.assertNotSame(first.getLabels(), second.getLabels());
+        Assert.assertEquals(first.getLabels(), second.getLabels());
+        final Job third = derivedBuilder.addLabel("variant", "3").build();
+        Assert.assertEquals("1", first.getLabels().get("variant"));
+        Assert.assertEquals("3", third.getLabels().get("variant"));
+        Assert.assertSame(base.getEnv(), first.getEnv());
+        Assert.assertSame(first.getEnv(), third.getEnv());
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.Collections;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonReader} and {@link JsonWriter}.
+ */
+public class JsonReaderTest {
+
+    @Test
+    public void testReadValues() throws JSONException {
+        final JsonReader reader = new JsonReader(
+                " { \"s\" : \"a\\\"b\\\\c\\u00e9\\n\", \"l\": -9223372036854775807, \"max\": 9223372036854775807,"
+                        + " \"d\": 1.5e2, \"i\": 3.0, \"b\": true, \"n\": null, \"a\": [1, [2], {\"x\": \"}\"}],"
+                        + " \"o\": {\"k\": \"v\"} } ");
+        reader.beginObject();
+        Assert.assertEquals("s", reader.nextName());
+        Assert.assertEquals("a\"b\\c\u00e9\n", reader.nextString());
+        Assert.assertEquals("l", reader.nextName());
+        Assert.assertEquals(-Long.MAX_VALUE, reader.nextLong());
+        Assert.assertEquals("max", reader.nextName());
+        Assert.assertEquals(Long.MAX_VALUE, reader.nextLong());
+        Assert.assertEquals("d", reader.nextName());
+        Assert.assertEquals(150.0, reader.nextDouble(), 0.0);
+        Assert.assertEquals("i", reader.nextName());
+        Assert.assertEquals(3, reader.nextInt());
+        Assert.assertEquals("b", reader.nextName());
+        Assert.assertFalse(reader.nextNull());
+        Assert.assertTrue(reader.nextBoolean());
+        Assert.assertEquals("n", reader.nextName());
+        Assert.assertTrue(reader.nextNull());
+        Assert.assertEquals("a", reader.nextName());
+        Assert.assertEquals("[1, [2], {\"x\": \"}\"}]", reader.nextRaw());
+        Assert.assertEquals("o", reader.nextName());
+        Assert.assertEquals(Collections.singletonMap("k", "v"), reader.nextStringMap());
+        Assert.assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    @Test
+    public void testSkipValue() throws JSONException {
+        final JsonReader reader = new JsonReader("[{\"a\": [true, false, null]}, \"x\", 2]");
+        reader.beginArray();
+        reader.skipValue();
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals("x", reader.nextString());
+        Assert.assertEquals(2L, reader.nextLong());
+        Assert.assertFalse(reader.hasNext());
+        reader.endArray();
+        reader.endDocument();
+    }
+
+    @Test(expected = JSONException.class)
+    public void testMissingComma() throws JSONException {
+        final JsonReader reader = new JsonReader("[1 2]");
+        reader.beginArray();
+        reader.nextLong();
+        reader.nextLong();
+    }
+
+    @Test(expected = JSONException.class)
+    public void testUnterminatedString() throws JSONException {
+        final JsonReader reader = new JsonReader("[\"abc");
+        reader.beginArray();
+        reader.nextString();
+    }
+
+    @Test
+    public void testWriterMatchesOrgJson() throws JSONException {
+        final String text = "q\"b\\s</t>\u0001\u00e9";
+        final String json = new JsonWriter(16).beginObject()
+                .name("text").value(text)
+                .name("whole").value(2.0)
+                .name("fraction").value(0.25)
+                .name("list").beginArray().value(1L).value(false).value((String) null).endArray()
+                .endObject().toString();
+        final JSONObject actual = new JSONObject(json);
+        Assert.assertEquals(text, actual.getString("text"));
+        Assert.assertEquals("{\"text\":" + JSONObject.quote(text) + ",\"whole\":2,\"fraction\":0.25,"
+                + "\"list\":[1,false,null]}", json);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ParallelArrayReader}.
+ */
+public class ParallelArrayReaderTest {
+
+    private static ForkJoinPool _pool;
+
+    @BeforeClass
+    public static void setup() {
+        _pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        _pool.shutdownNow();
+    }
+
+    private static String makeJobs(int count) {
+        final JSONArray jobs = new JSONArray();
+        for (int i = 0; i < count; ++i) {
+            final Job job = new Job.Builder()
+                    .setCommand("echo \"[" + i + "]\" '{'")
+                    .setMemory(100.0 + i)
+                    .setCpus(1.0)
+                    .addEnv("INDEX", String.valueOf(i))
+                    .build();
+            final JSONObject json = Job.jsonizeJob(job).put("status", "waiting").put("instances", new JSONArray()
+                    .put(new JSONObject()
+                            .put("task_id", UUID.randomUUID().toString())
+                            .put("slave_id", "slave-" + i % 7)
+                            .put("executor_id", "executor-1")
+                            .put("hostname", "host-" + i % 7)
+                            .put("status", "failed")
+                            .put("preempted", true)
+                            .put("start_time", 1426632249597L + i)));
+            jobs.put(json);
+        }
+        return jobs.toString(1);
+    }
+
+    @Test
+    public void testParallelJobsKeepOrder() throws JSONException {
+        final String json = makeJobs(1000);
+        final List<Job> expected = Job.parseFromJSON(json, null);
+        final List<Job> jobs = Job.readJobs(new JsonReader(json), null, null, _pool);
+        Assert.assertEquals(expected.size(), jobs.size());
+        for (int i = 0; i < jobs.size(); ++i) {
+            final Job job = jobs.get(i);
+            Assert.assertEquals(expected.get(i).getUUID(), job.getUUID());
+            Assert.assertEquals(expected.get(i).getCommand(), job.getCommand());
+            Assert.assertEquals(String.valueOf(i), job.getEnv().get("INDEX"));
+            Assert.assertEquals("host-" + i % 7, job.getLatestInstance().getHostName());
+        }
+    }
+
+    @Test
+    public void testSmallAndEmptyArrays() throws JSONException {
+        Assert.assertTrue(Job.readJobs(new JsonReader(" [ ] "), null, null, _pool).isEmpty());
+        final String json = makeJobs(3);
+        Assert.assertEquals(Job.parseFromJSON(json, null), Job.readJobs(new JsonReader(json), null, null, _pool));
+        final List<Group> groups = new ArrayList<>();
+        final JSONArray array = new JSONArray();
+        for (int i = 0; i < 100; ++i) {
+            final Group group = new Group.Builder().setUUID(UUID.randomUUID()).setName("group-" + i).build();
+            groups.add(group);
+            array.put(Group.jsonizeGroup(group).put("jobs", new JSONArray()));
+        }
+        final List<Group> parsed = Group.readGroups(new JsonReader(array.toString()), null, _pool);
+        Assert.assertEquals(groups.size(), parsed.size());
+        for (int i = 0; i < groups.size(); ++i) {
+            Assert.assertEquals(groups.get(i).getUUID(), parsed.get(i).getUUID());
+            Assert.assertEquals("group-" + i, parsed.get(i).getName());
+        }
+    }
+
+    @Test
+    public void testMalformedElements() {
+        final String json = makeJobs(200);
+        // A job which lacks a required member in the middle of the list.
+        final String missingMember = json.replaceFirst("\"max_retries\"", "\"max_retries_\"");
+        // A list which is not terminated.
+        final String truncated = json.substring(0, json.lastIndexOf(']'));
+        for (String document : new String[]{missingMember, truncated, "[1, 2" + json.substring(1)}) {
+            try {
+                Job.readJobs(new JsonReader(document), null, null, _pool);
+                Assert.fail("Malformed input must be rejected");
+            } catch (JSONException e) {
+                // expected
+            }
+        }
+    }
+}
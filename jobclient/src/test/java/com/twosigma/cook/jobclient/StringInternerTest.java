@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StringInterner}.
+ */
+public class StringInternerTest {
+
+    @Test
+    public void testInternRegion() {
+        final StringInterner interner = new StringInterner(16);
+        final String first = interner.intern("[\"host-1\"]", 2, 8);
+        Assert.assertEquals("host-1", first);
+        Assert.assertSame(first, interner.intern("{\"host-1\"}", 2, 8));
+        Assert.assertSame(first, interner.intern("host-1"));
+        Assert.assertEquals("host-2", interner.intern("host-2"));
+        Assert.assertEquals("", interner.intern(""));
+    }
+
+    @Test
+    public void testBounded() {
+        // With a single slot every distinct string evicts the previous one, yet every result stays correct.
+        final StringInterner interner = new StringInterner(1);
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertEquals("value-" + i, interner.intern("value-" + i));
+        }
+        final String last = interner.intern("value-99");
+        Assert.assertSame(last, interner.intern(new String("value-99")));
+        Assert.assertNotSame(interner.intern("value-1"), interner.intern(new String("value-2")));
+    }
+
+    @Test
+    public void testLongStringsAreNotRetained() {
+        final StringInterner interner = new StringInterner(16);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i <= StringInterner.MAX_LENGTH; ++i) {
+            builder.append('x');
+        }
+        final String value = builder.toString();
+        Assert.assertEquals(value, interner.intern(value));
+        Assert.assertNotSame(interner.intern(new String(value)), interner.intern(new String(value)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        new StringInterner(12);
+    }
+
+    @Test
+    public void testParsedInstancesShareHostNames() {
+        final JSONArray instances = new JSONArray();
+        for (int i = 0; i < 2; ++i) {
+            final JSONObject instance = new JSONObject();
+            instance.put("task_id", UUID.randomUUID().toString());
+            instance.put("slave_id", "slave-1");
+            instance.put("executor_id", "executor-" + i);
+            instance.put("hostname", "host-1");
+            instance.put("status", "success");
+            instance.put("preempted", false);
+            instance.put("start_time", 1000L + i);
+            instances.put(instance);
+        }
+        final List<Instance> parsed = Instance.parseFromJSON(instances.toString());
+        Assert.assertEquals(2, parsed.size());
+        Assert.assertEquals("host-1", parsed.get(0).getHostName());
+        Assert.assertSame(parsed.get(0).getHostName(), parsed.get(1).getHostName());
+        Assert.assertSame(parsed.get(0).getSlaveID(), parsed.get(1).getSlaveID());
+        Assert.assertEquals("executor-1", parsed.get(1).getExecutorID());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SubmissionLanes}.
+ */
+public class SubmissionLanesTest {
+
+    private static Job makeJob(int priority) {
+        return new Job.Builder().setCommand("sleep 10s").setMemory(100.0).setCpus(1.0).setPriority(priority).build();
+    }
+
+    @Test
+    public void testLaneOf() {
+        final SubmissionLanes lanes = new SubmissionLanes(80, 2, 1, 1);
+        Assert.assertEquals(SubmissionLanes.Lane.NORMAL, lanes.laneOf(Arrays.asList(makeJob(50), makeJob(79))));
+        Assert.assertEquals(SubmissionLanes.Lane.HIGH, lanes.laneOf(Arrays.asList(makeJob(50), makeJob(80))));
+        Assert.assertEquals(SubmissionLanes.Lane.NORMAL, lanes.laneOf(Collections.<Job>emptyList()));
+    }
+
+    @Test
+    public void testReservedRequests() throws JobClientException {
+        final SubmissionLanes lanes = new SubmissionLanes(80, 2, 1, 1);
+        lanes.acquire(SubmissionLanes.Lane.NORMAL);
+        lanes.acquire(SubmissionLanes.Lane.NORMAL);
+        // The normal lane is saturated, but the reserved request is still available to the high lane.
+        try {
+            lanes.acquire(SubmissionLanes.Lane.NORMAL);
+            Assert.fail("The normal lane must not use the reserved request");
+        } catch (JobClientException e) {
+            // expected
+        }
+        lanes.acquire(SubmissionLanes.Lane.HIGH);
+        Assert.assertEquals(2, lanes.getInFlight(SubmissionLanes.Lane.NORMAL));
+        Assert.assertEquals(1, lanes.getInFlight(SubmissionLanes.Lane.HIGH));
+        lanes.release(SubmissionLanes.Lane.NORMAL);
+        lanes.release(SubmissionLanes.Lane.HIGH);
+        lanes.acquire(SubmissionLanes.Lane.NORMAL);
+    }
+
+    @Test
+    public void testNormalRequestIsUnblockedByHighRequest() throws Exception {
+        final SubmissionLanes lanes = new SubmissionLanes(80, 2, 0, 30);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Which of the two waiters wakes up first is up to the JVM, so repeat to cover both orders.
+            for (int i = 0; i < 20; ++i) {
+                lanes.acquire(SubmissionLanes.Lane.NORMAL);
+                lanes.acquire(SubmissionLanes.Lane.NORMAL);
+                final List<Future<Void>> futures = new ArrayList<>();
+                for (final SubmissionLanes.Lane lane
+                        : Arrays.asList(SubmissionLanes.Lane.HIGH, SubmissionLanes.Lane.NORMAL)) {
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws JobClientException {
+                            lanes.acquire(lane);
+                            return null;
+                        }
+                    }));
+                }
+                while (lanes.getWaiting() < 2) {
+                    Thread.sleep(1);
+                }
+                // Free both slots at once. The normal request may see the high one still waiting and wait again,
+                // so it must be woken up once the high request got its slot.
+                synchronized (lanes) {
+                    lanes.release(SubmissionLanes.Lane.NORMAL);
+                    lanes.release(SubmissionLanes.Lane.NORMAL);
+                }
+                for (Future<Void> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                lanes.release(SubmissionLanes.Lane.HIGH);
+                lanes.release(SubmissionLanes.Lane.NORMAL);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHighLaneTasksRunFirst() throws Exception {
+        final SubmissionLanes lanes = new SubmissionLanes(80, 1, 0, 1);
+        final ExecutorService executor = lanes.newRequestExecutor(Executors.defaultThreadFactory());
+        try {
+            // Occupy the single request thread so that the following tasks queue up.
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<Object> blocker = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return release.await(10, TimeUnit.SECONDS);
+                }
+            });
+            final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (final String name : Arrays.asList("normal-1", "high-1", "normal-2", "high-2")) {
+                final SubmissionLanes.Lane lane =
+                        name.startsWith("high") ? SubmissionLanes.Lane.HIGH : SubmissionLanes.Lane.NORMAL;
+                futures.add(executor.submit(SubmissionLanes.task(lane, new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return order.add(name);
+                    }
+                })));
+            }
+            release.countDown();
+            blocker.get();
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(Arrays.asList("high-1", "high-2", "normal-1", "normal-2"), order);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
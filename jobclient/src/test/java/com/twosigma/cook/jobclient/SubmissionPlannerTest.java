@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SubmissionPlanner}.
+ */
+public class SubmissionPlannerTest {
+
+    private static List<Job> makeJobs(int count, Group group) {
+        final List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            final Job.Builder jobBuilder = new Job.Builder();
+            jobBuilder.setCommand("sleep 10s").setMemory(100.0).setCpus(1.0);
+            if (group != null) {
+                jobBuilder.setGroup(group);
+            }
+            jobs.add(jobBuilder.build());
+        }
+        return jobs;
+    }
+
+    @Test
+    public void testSingleRequest() {
+        final Group group = new Group.Builder().build();
+        final List<Job> jobs = makeJobs(3, group);
+        jobs.addAll(makeJobs(2, null));
+        final List<SubmissionPlanner.Chunk> chunks =
+                SubmissionPlanner.plan(jobs, Collections.singletonList(group), 32);
+        Assert.assertEquals(1, chunks.size());
+        Assert.assertEquals(5, chunks.get(0).getJobs().size());
+        Assert.assertEquals(Collections.singletonList(group), chunks.get(0).getGroups());
+    }
+
+    @Test
+    public void testGroupsAreNeverSplit() {
+        final List<Group> groups = new ArrayList<>();
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            final Group group = new Group.Builder().build();
+            groups.add(group);
+            // The last group is larger than the bound.
+            jobs.addAll(makeJobs(i == 9 ? 12 : 3, group));
+        }
+        jobs.addAll(makeJobs(7, null));
+        final List<SubmissionPlanner.Chunk> chunks = SubmissionPlanner.plan(jobs, groups, 8);
+
+        int totalJobs = 0;
+        int totalGroups = 0;
+        for (SubmissionPlanner.Chunk chunk : chunks) {
+            totalJobs += chunk.getJobs().size();
+            totalGroups += chunk.getGroups().size();
+            for (Job job : chunk.getJobs()) {
+                final UUID guuid = job.getGroup();
+                if (guuid != null) {
+                    boolean found = false;
+                    for (Group group : chunk.getGroups()) {
+                        found |= group.getUUID().equals(guuid);
+                    }
+                    Assert.assertTrue("A job must be sent along with its group", found);
+                }
+            }
+            if (chunk.getGroups().size() != 1) {
+                Assert.assertTrue(chunk.getJobs().size() <= 8);
+            }
+        }
+        Assert.assertEquals(jobs.size(), totalJobs);
+        Assert.assertEquals(groups.size(), totalGroups);
+    }
+
+    @Test
+    public void testJobsOfUnsubmittedGroupStayTogether() {
+        final Group existingGroup = new Group.Builder().build();
+        final List<Job> jobs = makeJobs(2, null);
+        jobs.addAll(makeJobs(4, existingGroup));
+        final List<SubmissionPlanner.Chunk> chunks =
+                SubmissionPlanner.plan(jobs, Collections.<Group>emptyList(), 3);
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertEquals(4, chunks.get(0).getJobs().size());
+        Assert.assertTrue(chunks.get(0).getGroups().isEmpty());
+        Assert.assertEquals(2, chunks.get(1).getJobs().size());
+    }
+}
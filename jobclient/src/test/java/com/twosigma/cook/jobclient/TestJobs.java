@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Jobs shared by the tests which run a {@link JobClient} against a {@link FakeCookScheduler}.
+ */
+final class TestJobs {
+
+    private TestJobs() {
+    }
+
+    /**
+     * @return jobs running {@code echo <index>} with 100 MB of memory and one cpu each.
+     */
+    static List<Job> makeJobs(int count) {
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            jobs.add(new Job.Builder().setCommand("echo " + i).setMemory(100.0).setCpus(1.0).build());
+        }
+        return jobs;
+    }
+
+    /**
+     * @return jobs like {@link #makeJobs(int)} which are retried at most {@code retries} times.
+     */
+    static List<Job> makeJobs(int count, int retries) {
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            jobs.add(new Job.Builder().setCommand("echo " + i).setMemory(100.0).setCpus(1.0).setRetries(retries)
+                    .build());
+        }
+        return jobs;
+    }
+
+    /**
+     * @return the UUIDs of the jobs, in order.
+     */
+    static List<UUID> uuids(List<Job> jobs) {
+        final List<UUID> uuids = new ArrayList<>();
+        for (Job job : jobs) {
+            uuids.add(job.getUUID());
+        }
+        return uuids;
+    }
+}
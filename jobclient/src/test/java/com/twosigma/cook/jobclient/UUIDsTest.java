@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Two Sigma Open Source, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.cook.jobclient;
+
+import java.util.UUID;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link UUIDs}.
+ */
+public class UUIDsTest {
+
+    @Test
+    public void testRoundTrip() {
+        for (int i = 0; i < 1000; ++i) {
+            final UUID uuid = i == 0 ? new UUID(-1L, -1L) : i == 1 ? new UUID(0L, 0L) : UUID.randomUUID();
+            final String string = UUIDs.toString(uuid);
+            Assert.assertEquals(uuid.toString(), string);
+            Assert.assertEquals(uuid, UUIDs.parse("x" + string + "x", 1));
+            Assert.assertEquals(uuid, UUIDs.parse(string.toUpperCase()));
+        }
+    }
+
+    @Test
+    public void testNonCanonical() {
+        final String uuid = "26719da8-394f-44f9-9e6d-8a17500f5109";
+        Assert.assertNull(UUIDs.parse(uuid.replace('a', 'g'), 0));
+        Assert.assertNull(UUIDs.parse(uuid.replace('-', '_'), 0));
+        Assert.assertNull(UUIDs.parse(uuid.substring(1), 0));
+        // Forms accepted by UUID.fromString are still accepted.
+        Assert.assertEquals(UUID.fromString("1-2-3-4-5"), UUIDs.parse("1-2-3-4-5"));
+    }
+
+    @Test
+    public void testReadAndWrite() throws JSONException {
+        final UUID uuid = UUID.randomUUID();
+        final String json = new JsonWriter(64).beginArray().value(uuid).value("1-2-3-4-5").endArray().toString();
+        Assert.assertEquals("[\"" + uuid + "\",\"1-2-3-4-5\"]", json);
+        final JsonReader reader = new JsonReader(json);
+        reader.beginArray();
+        Assert.assertEquals(uuid, reader.nextUUID());
+        Assert.assertEquals(UUID.fromString("1-2-3-4-5"), reader.nextUUID());
+        reader.endArray();
+        reader.endDocument();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() throws JSONException {
+        final JsonReader reader = new JsonReader("\"not-a-uuid\"");
+        reader.nextUUID();
+    }
+}